@@ -20,6 +20,7 @@ import {
 } from '@chakra-ui/icons'
 import { Link as RouterLink, useLocation } from 'react-router-dom'
 import { Link } from '@chakra-ui/react'
+import { useUserEvents } from '../hooks/useUserEvents'
 
 interface LayoutProps {
   children: React.ReactNode
@@ -134,6 +135,8 @@ const MobileNav = ({ onOpen }: { onOpen: () => void }) => {
 
 export const Layout: React.FC<LayoutProps> = ({ children }) => {
   const { isOpen, onOpen, onClose } = useDisclosure()
+  // Estatísticas e listas atualizadas pelo stream de eventos do servidor
+  useUserEvents()
   const isMobile = useBreakpointValue({ base: true, md: false })
 
   return (
@@ -0,0 +1,91 @@
+import { useEffect } from 'react'
+import { useQueryClient } from '@tanstack/react-query'
+import { API_BASE_URL } from '../services/api'
+import { UserStats } from '../types/user'
+import { reloadUsers, syncUserChanges, userKeys } from './useUsers'
+
+// Evento stats: totais atuais e variação desde o último envio
+interface UserStatsEvent extends UserStats {
+  activeDelta: number
+  inactiveDelta: number
+}
+
+const MAX_RECONNECT_DELAY = 30 * 1000
+
+// Hook que mantém o cache atualizado pelo stream de eventos do servidor (SSE),
+// no lugar do polling. Usa fetch em vez de EventSource, como a versão com autenticação.
+export const useUserEvents = () => {
+  const queryClient = useQueryClient()
+
+  useEffect(() => {
+    const controller = new AbortController()
+    let attempt = 0
+    let timer: ReturnType<typeof setTimeout> | undefined
+
+    const handle = (event: string, data: string) => {
+      if (event === 'stats') {
+        const { totalUsers, activeUsers, inactiveUsers }: UserStatsEvent = JSON.parse(data)
+        const stats: UserStats = { totalUsers, activeUsers, inactiveUsers }
+        queryClient.setQueryData(userKeys.stats(), stats)
+        queryClient.setQueryData(['health-status'], (old: any) =>
+          old && { ...old, application: { ...old.application, ...stats } })
+      } else if (event === 'user') {
+        syncUserChanges(queryClient)
+      } else if (event === 'resync') {
+        reloadUsers(queryClient)
+      }
+    }
+
+    const connect = async () => {
+      try {
+        const response = await fetch(`${API_BASE_URL}/users/events`, {
+          headers: { Accept: 'text/event-stream' },
+          signal: controller.signal,
+        })
+        if (!response.ok || !response.body) {
+          throw new Error(`HTTP ${response.status}`)
+        }
+        // Na primeira conexão obtém a marca d'água; nas seguintes, busca as
+        // alterações feitas enquanto a conexão estava fechada
+        syncUserChanges(queryClient, true)
+        attempt = 0
+
+        const reader = response.body.getReader()
+        const decoder = new TextDecoder()
+        let buffer = ''
+        while (true) {
+          const { done, value } = await reader.read()
+          if (done) break
+          buffer += decoder.decode(value, { stream: true }).replace(/\r/g, '')
+          let end
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, end)
+            buffer = buffer.slice(end + 2)
+            let event = 'message'
+            const data: string[] = []
+            block.split('\n').forEach((line) => {
+              if (line.startsWith('event:')) event = line.slice(6).trim()
+              else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''))
+            })
+            // Heartbeats são comentários, sem dados
+            if (data.length) handle(event, data.join('\n'))
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) return
+        console.error('Erro no stream de eventos:', error)
+      }
+      if (!controller.signal.aborted) {
+        // Reconexão com espera crescente (1s, 2s, 4s... até 30s)
+        const delay = Math.min(1000 * 2 ** attempt++, MAX_RECONNECT_DELAY)
+        timer = setTimeout(connect, delay)
+      }
+    }
+
+    connect()
+    return () => {
+      controller.abort()
+      clearTimeout(timer)
+    }
+  }, [queryClient])
+}
@@ -1,7 +1,7 @@
 import axios from 'axios'
-import { User, CreateUserRequest, UpdateUserRequest, UserStats, UserFilters } from '../types/user'
+import { User, CreateUserRequest, UpdateUserRequest, UserStats, UserFilters, UserChanges } from '../types/user'
 
-const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api'
+export const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api'
 
 const api = axios.create({
   baseURL: API_BASE_URL,
@@ -38,12 +38,12 @@ export const userService = {
     if (filters?.name) params.append('name', filters.name)
     if (filters?.minAge) params.append('minAge', filters.minAge.toString())
     if (filters?.maxAge) params.append('maxAge', filters.maxAge.toString())
+    if (filters?.active !== undefined) params.append('active', filters.active.toString())
+    params.append('limit', '500')
     
-    const queryString = params.toString()
-    const url = queryString ? `/users/search?${queryString}` : '/users'
-    
-    const response = await api.get(url)
-    return response.data
+    // Filtros combinados aplicados no servidor em uma única consulta
+    const response = await api.get(`/users/query?${params.toString()}`)
+    return response.data.items
   },
 
   // Get user by ID
@@ -87,6 +87,12 @@ export const userService = {
     return response.data
   },
 
+  // Get users changed since the watermark (without it, only the initial watermark)
+  getUserChanges: async (since: string | null): Promise<UserChanges> => {
+    const response = await api.get('/users/changes', { params: since ? { since } : {} })
+    return response.data
+  },
+
   // Get active users
   getActiveUsers: async (): Promise<User[]> => {
     const response = await api.get('/users/active')
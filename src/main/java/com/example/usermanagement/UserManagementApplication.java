@@ -2,11 +2,13 @@ package com.example.usermanagement;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Classe principal da aplicação de gerenciamento de usuários
  */
 @SpringBootApplication
+@EnableScheduling
 public class UserManagementApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,37 @@
+package com.example.usermanagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool das continuações de login e registro: o trabalho no banco (consulta do usuário,
+ * gravação do registro) que segue o BCrypt do pool de hashing
+ *
+ * Limitado como o pool de hashing: com a fila cheia a tarefa é rejeitada com
+ * {@link org.springframework.core.task.TaskRejectedException} (uma
+ * {@link java.util.concurrent.RejectedExecutionException}), que o AuthController converte
+ * em 503 com {@code Retry-After}. O executor padrão do Spring Boot, usado antes, tem fila
+ * sem limite: numa rajada de logins as continuações se acumulavam em memória. Com este
+ * bean o Spring Boot deixa de criar o {@code applicationTaskExecutor}, que não tinha
+ * outros usos.
+ */
+@Configuration
+public class AuthExecutorConfig {
+    
+    public static final String AUTH_TASK_EXECUTOR = "authTaskExecutor";
+    
+    @Bean(AUTH_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor authTaskExecutor(
+            @Value("${users.auth-executor.threads:8}") int threads,
+            @Value("${users.auth-executor.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("auth-");
+        executor.setDaemon(true);
+        return executor;
+    }
+}
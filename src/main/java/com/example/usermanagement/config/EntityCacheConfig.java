@@ -0,0 +1,77 @@
+package com.example.usermanagement.config;
+
+import com.example.usermanagement.model.User;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Cache de segundo nível do Hibernate para usuários, papéis e a resolução email → ID
+ *
+ * JCache com Ehcache 3, em memória no processo. Cada região guarda no máximo
+ * {@code users.entity-cache.max-entries} entradas (as menos usadas são descartadas) por
+ * até {@code users.entity-cache.ttl-seconds}, prazo máximo para uma alteração feita fora
+ * da aplicação (direto no banco ou por outra instância) ser vista. As escritas da
+ * aplicação passam pelo Hibernate, que atualiza ou invalida as regiões no commit. Uma
+ * operação em massa em HQL (UPDATE/DELETE/INSERT ... SELECT) esvazia as regiões das
+ * entidades e coleções da tabela alterada, e uma consulta nativa esvazia todas as regiões
+ * do cache, a não ser que declare as tabelas que altera (como
+ * {@link com.example.usermanagement.repository.UserRepositoryCustom#deleteRolesByUserIdIn}):
+ * por isso as escritas em massa que não são sobre usuários evitam SQL nativo.
+ *
+ * Cada contexto cria o seu gerenciador de cache, fechado pelo Hibernate junto com a
+ * SessionFactory, para que dois contextos no mesmo processo (como nos testes) não
+ * compartilhem entradas de bancos diferentes. Fora deste configurador o cache fica
+ * desligado ({@code hibernate.cache.use_second_level_cache=false}): sem isso o Hibernate
+ * o ligaria sozinho, por encontrar o JCache no classpath, com o gerenciador padrão da JVM.
+ */
+@Configuration
+public class EntityCacheConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(
+            @Value("${users.entity-cache.enabled:true}") boolean enabled,
+            @Value("${users.entity-cache.max-entries:10000}") long maxEntries,
+            @Value("${users.entity-cache.ttl-seconds:600}") long ttlSeconds) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            if (enabled) {
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+                properties.put(ConfigSettings.CACHE_MANAGER, createCacheManager(maxEntries, ttlSeconds));
+                // Uma região sem configuração explícita é erro, e não uma região sem limite
+                properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+    
+    private static CacheManager createCacheManager(long maxEntries, long ttlSeconds) {
+        CacheConfiguration<Object, Object> region = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds)))
+                .build();
+        org.ehcache.config.Configuration configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(User.CACHE_REGION, region)
+                .withCache(User.ROLES_CACHE_REGION, region)
+                .withCache(User.EMAIL_CACHE_REGION, region)
+                .build();
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:user-management:entity-cache:" + UUID.randomUUID()),
+                configuration);
+    }
+}
@@ -2,7 +2,9 @@ package com.example.usermanagement.config;
 
 import com.example.usermanagement.service.CustomUserDetailsService;
 import com.example.usermanagement.service.JwtService;
+import com.example.usermanagement.service.VerifiedToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,6 +20,13 @@ import java.io.IOException;
 
 /**
  * Filtro para processar tokens JWT em cada requisição
+ *
+ * Com {@code jwt.auth-mode=database} (padrão) o usuário é recarregado do banco
+ * a cada requisição. Com {@code jwt.auth-mode=claims} a autenticação é montada
+ * apenas a partir das claims verificadas do token (roles e status), sem acesso
+ * ao banco; tokens antigos sem essas claims continuam usando o banco. Nesse modo
+ * não há revogação: um usuário desativado continua autenticado pelos tokens já
+ * emitidos até que eles expirem.
  */
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
@@ -28,28 +37,34 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtService jwtService;
     
+    @Value("${jwt.auth-mode:database}")
+    private String authMode;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain chain) throws ServletException, IOException {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
+        VerifiedToken token = null;
         
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtService.extractUsername(jwt);
+                token = jwtService.verify(jwt);
             } catch (Exception e) {
                 logger.warn("JWT token inválido: " + e.getMessage());
             }
         }
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (token != null && token.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = isClaimsMode() ? jwtService.extractUserDetails(token) : null;
+            if (userDetails == null) {
+                userDetails = this.userDetailsService.loadUserByUsername(token.getSubject());
+            }
             
-            if (jwtService.validateToken(jwt, userDetails)) {
+            if (userDetails.isEnabled() && jwtService.validateToken(token, userDetails)) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = 
                     new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
@@ -60,4 +75,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
+    
+    private boolean isClaimsMode() {
+        return "claims".equalsIgnoreCase(authMode);
+    }
 }
@@ -56,7 +56,11 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/api/health/**").permitAll()
                 .antMatchers("/h2-console/**").permitAll()
                 .antMatchers("/api/admin/**").hasRole("ADMIN")
+                // Alterações e remoções em massa atingem muitas contas de uma vez
+                .antMatchers("/api/users/bulk/activate", "/api/users/bulk/deactivate", "/api/users/bulk/delete")
+                    .hasRole("ADMIN")
                 .antMatchers("/api/users/**").hasAnyRole("USER", "ADMIN")
+                .antMatchers("/api/dashboard/**").hasAnyRole("USER", "ADMIN")
                 .anyRequest().authenticated()
             .and()
             .exceptionHandling().authenticationEntryPoint(jwtAuthenticationEntryPoint)
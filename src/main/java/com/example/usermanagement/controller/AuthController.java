@@ -1,15 +1,24 @@
 package com.example.usermanagement.controller;
 
+import com.example.usermanagement.config.AuthExecutorConfig;
 import com.example.usermanagement.model.User;
+import com.example.usermanagement.service.CustomUserDetailsService;
+import com.example.usermanagement.service.EmailAlreadyInUseException;
 import com.example.usermanagement.service.JwtService;
+import com.example.usermanagement.service.PasswordHashingService;
 import com.example.usermanagement.service.UserService;
+import com.example.usermanagement.service.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
@@ -17,6 +26,10 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller para autenticação e registro de usuários
@@ -27,7 +40,7 @@ import java.util.Set;
 public class AuthController {
     
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private CustomUserDetailsService userDetailsService;
     
     @Autowired
     private UserService userService;
@@ -36,82 +49,95 @@ public class AuthController {
     private JwtService jwtService;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    @Qualifier(AuthExecutorConfig.AUTH_TASK_EXECUTOR)
+    private Executor authTaskExecutor;
+    
+    private final UserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
     
     /**
      * Login de usuário
      * POST /api/auth/login
+     *
+     * O usuário é buscado na thread da requisição (pelo cache de principals); só a
+     * verificação da senha (BCrypt) roda no pool dedicado de hashing, e o restante no pool
+     * limitado das continuações. Com um dos pools saturado a resposta é 503 com Retry-After.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    loginRequest.getEmail(),
-                    loginRequest.getPassword()
-                )
-            );
-            
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtService.generateToken(userDetails);
-            
-            User user = userService.getUserByEmail(loginRequest.getEmail())
-                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
-            response.put("user", Map.of(
-                "id", user.getId(),
-                "name", user.getName(),
-                "email", user.getEmail(),
-                "roles", user.getRoles()
-            ));
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Credenciais inválidas"));
-        }
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest loginRequest) {
+        UserDetails userDetails = findUserDetails(loginRequest.getEmail());
+        return passwordHashingService.matches(loginRequest.getPassword(),
+                userDetails == null ? null : userDetails.getPassword())
+            .<ResponseEntity<?>>thenApplyAsync(matches -> {
+                if (!matches) {
+                    throw new BadCredentialsException("Credenciais inválidas");
+                }
+                accountStatusChecker.check(userDetails);
+                String token = jwtService.generateToken(userDetails);
+                
+                User user = userService.getUserByEmail(loginRequest.getEmail())
+                        .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("token", token);
+                response.put("user", Map.of(
+                    "id", user.getId(),
+                    "name", user.getName(),
+                    "email", user.getEmail(),
+                    "roles", user.getRoles()
+                ));
+                
+                return ResponseEntity.ok(response);
+            }, authTaskExecutor)
+            .exceptionally(e -> isRejected(e) ? busy() : ResponseEntity.badRequest()
+                    .body(Map.of("error", "Credenciais inválidas")));
     }
     
     /**
      * Registro de novo usuário
      * POST /api/auth/register
+     *
+     * O hash da senha roda no pool dedicado de hashing e a gravação no pool limitado das
+     * continuações; com um dos pools saturado a resposta é 503 com Retry-After.
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest registerRequest) {
-        try {
-            if (userService.getUserByEmail(registerRequest.getEmail()).isPresent()) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Email já está em uso"));
-            }
-            
-            User user = new User();
-            user.setName(registerRequest.getName());
-            user.setEmail(registerRequest.getEmail());
-            user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
-            user.setPhone(registerRequest.getPhone());
-            user.setAge(registerRequest.getAge());
-            user.setRoles(Set.of(User.Role.USER));
-            
-            User savedUser = userService.createUser(user);
-            
-            String token = jwtService.generateToken(savedUser.getEmail());
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
-            response.put("user", Map.of(
-                "id", savedUser.getId(),
-                "name", savedUser.getName(),
-                "email", savedUser.getEmail(),
-                "roles", savedUser.getRoles()
-            ));
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Erro ao criar usuário: " + e.getMessage()));
-        }
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest registerRequest) {
+        return passwordHashingService.encode(registerRequest.getPassword())
+            .<ResponseEntity<?>>thenApplyAsync(passwordHash -> {
+                User user = new User();
+                user.setName(registerRequest.getName());
+                user.setEmail(registerRequest.getEmail());
+                user.setPassword(passwordHash);
+                user.setPhone(registerRequest.getPhone());
+                user.setAge(registerRequest.getAge());
+                user.setRoles(Set.of(User.Role.USER));
+                
+                User savedUser = userService.createUser(user);
+                
+                String token = jwtService.generateToken(savedUser);
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("token", token);
+                response.put("user", Map.of(
+                    "id", savedUser.getId(),
+                    "name", savedUser.getName(),
+                    "email", savedUser.getEmail(),
+                    "roles", savedUser.getRoles()
+                ));
+                
+                return ResponseEntity.ok(response);
+            }, authTaskExecutor)
+            .exceptionally(e -> {
+                if (isRejected(e)) {
+                    return busy();
+                }
+                // A unicidade do email é verificada pela constraint do banco no INSERT
+                String error = unwrap(e) instanceof EmailAlreadyInUseException
+                        ? "Email já está em uso" : "Erro ao criar usuário: " + unwrap(e).getMessage();
+                return ResponseEntity.badRequest().body(Map.of("error", error));
+            });
     }
     
     /**
@@ -125,9 +151,9 @@ public class AuthController {
                 token = token.substring(7);
             }
             
-            if (jwtService.validateToken(token)) {
-                String email = jwtService.extractUsername(token);
-                User user = userService.getUserByEmail(email)
+            VerifiedToken verified = verifyOrNull(token);
+            if (verified != null && !verified.isExpired()) {
+                User user = userService.getUserByEmail(verified.getSubject())
                         .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
                 
                 return ResponseEntity.ok(Map.of(
@@ -149,6 +175,45 @@ public class AuthController {
         }
     }
     
+    private boolean isRejected(Throwable e) {
+        return unwrap(e) instanceof RejectedExecutionException;
+    }
+    
+    private Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+    
+    /**
+     * Busca o usuário para o login, retornando null se ele não existir
+     */
+    private UserDetails findUserDetails(String email) {
+        try {
+            return userDetailsService.loadUserByUsername(email);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Resposta para quando o pool de hashing de senhas ou o das continuações está saturado
+     */
+    private ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(passwordHashingService.getRetryAfterSeconds()))
+                .body(Map.of("error", "Servidor ocupado, tente novamente em instantes"));
+    }
+    
+    /**
+     * Verifica o token, retornando null se ele for inválido
+     */
+    private VerifiedToken verifyOrNull(String token) {
+        try {
+            return jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
     /**
      * Classe para request de login
      */
@@ -0,0 +1,37 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.dto.DashboardSummary;
+import com.example.usermanagement.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller REST com os dados agregados do dashboard
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+    
+    private final DashboardService dashboardService;
+    
+    @Autowired
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+    
+    /**
+     * Retorna totais, distribuição por faixa etária e usuários alterados recentemente
+     * GET /api/dashboard/summary?recent=5
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummary> getSummary(
+            @RequestParam(defaultValue = "" + DashboardService.DEFAULT_RECENT_USERS) int recent) {
+        return ResponseEntity.ok(dashboardService.getSummary(recent));
+    }
+}
@@ -1,12 +1,22 @@
 package com.example.usermanagement.controller;
 
-import com.example.usermanagement.service.UserService;
+import com.example.usermanagement.model.UserCounters;
+import com.example.usermanagement.service.PasswordHashingService;
+import com.example.usermanagement.service.UserEmailFilter;
+import com.example.usermanagement.service.UserEntityCache;
+import com.example.usermanagement.service.UserEventStream;
+import com.example.usermanagement.service.UserPrincipalCache;
+import com.example.usermanagement.service.UserStatsService;
+import com.example.usermanagement.service.UserVersions;
+import com.example.usermanagement.service.VerifiedTokenCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -18,10 +28,38 @@ import java.util.Map;
 public class HealthController {
 
     @Autowired
-    private UserService userService;
+    private UserStatsService userStatsService;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserEventStream userEventStream;
+
+    @Autowired
+    private UserVersions userVersions;
+
+    @Autowired
+    private UserEntityCache entityCache;
+    
+    @Autowired
+    private UserEmailFilter emailFilter;
+
+    /**
+     * Status da aplicação, do banco e dos contadores de usuários
+     * GET /api/health
+     * O banco é sempre consultado; com a mesma versão dos usuários e o mesmo status, a
+     * resposta é equivalente à anterior (ETag fraca) e o 304 evita montá-la e serializá-la
+     */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getHealthStatus() {
+    public ResponseEntity<Map<String, Object>> getHealthStatus(WebRequest request) {
+        UserVersions.Version version = userVersions.current();
         Map<String, Object> healthStatus = new HashMap<>();
         
         try {
@@ -29,10 +67,11 @@ public class HealthController {
             healthStatus.put("status", "UP");
             healthStatus.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
             
-            // Verificar banco de dados
+            // Verificar banco de dados (a mesma leitura dos contadores alimenta as estatísticas)
             Map<String, Object> database = new HashMap<>();
+            UserCounters counters = null;
             try {
-                userService.countActiveUsers();
+                counters = userStatsService.getStats();
                 database.put("status", "UP");
                 database.put("message", "Database connection successful");
             } catch (Exception e) {
@@ -40,6 +79,10 @@ public class HealthController {
                 database.put("message", "Database connection failed: " + e.getMessage());
             }
             healthStatus.put("database", database);
+            if (request.checkNotModified(version.getWeakTag(String.valueOf(database.get("status"))),
+                    version.getLastModified())) {
+                return null;
+            }
             
             // Informações do sistema
             Map<String, Object> system = new HashMap<>();
@@ -54,22 +97,18 @@ public class HealthController {
             
             // Estatísticas da aplicação
             Map<String, Object> application = new HashMap<>();
-            try {
-                long activeUsers = userService.countActiveUsers();
-                long inactiveUsers = userService.countInactiveUsers();
-                long totalUsers = activeUsers + inactiveUsers;
-                
-                application.put("totalUsers", totalUsers);
-                application.put("activeUsers", activeUsers);
-                application.put("inactiveUsers", inactiveUsers);
+            if (counters != null) {
+                application.put("totalUsers", counters.getTotalUsers());
+                application.put("activeUsers", counters.getActiveUsers());
+                application.put("inactiveUsers", counters.getInactiveUsers());
                 application.put("status", "UP");
-            } catch (Exception e) {
+            } else {
                 application.put("status", "DOWN");
-                application.put("error", e.getMessage());
+                application.put("error", database.get("message"));
             }
             healthStatus.put("application", application);
             
-            return ResponseEntity.ok(healthStatus);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).body(healthStatus);
             
         } catch (Exception e) {
             healthStatus.put("status", "DOWN");
@@ -79,12 +118,44 @@ public class HealthController {
         }
     }
 
+    /**
+     * Métricas dos caches em memória
+     * GET /api/health/caches
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> caches = new HashMap<>();
+        caches.put("verifiedTokens", tokenCache.stats());
+        caches.put("principals", principalCache.stats());
+        caches.put("entities", entityCache.stats());
+        caches.put("emailFilter", emailFilter.stats());
+        return ResponseEntity.ok(caches);
+    }
+
+    /**
+     * Métricas do pool dedicado de hashing de senhas (BCrypt)
+     * GET /api/health/password-hashing
+     */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.stats());
+    }
+
+    /**
+     * Métricas do stream de eventos de usuários (conexões, envios, resyncs e desconexões)
+     * GET /api/health/events
+     */
+    @GetMapping("/events")
+    public ResponseEntity<Map<String, Object>> getEventStreamStats() {
+        return ResponseEntity.ok(userEventStream.stats());
+    }
+
     @GetMapping("/simple")
     public ResponseEntity<Map<String, String>> getSimpleHealthStatus() {
         Map<String, String> simpleStatus = new HashMap<>();
         
         try {
-            userService.countActiveUsers();
+            userStatsService.getStats();
             simpleStatus.put("status", "UP");
             simpleStatus.put("message", "Application is running");
             return ResponseEntity.ok(simpleStatus);
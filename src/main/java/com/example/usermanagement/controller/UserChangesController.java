@@ -0,0 +1,37 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.service.UserChangesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller da sincronização incremental de usuários
+ */
+@RestController
+@RequestMapping("/api/users/changes")
+@CrossOrigin(origins = "*")
+public class UserChangesController {
+    
+    private final UserChangesService userChangesService;
+    
+    @Autowired
+    public UserChangesController(UserChangesService userChangesService) {
+        this.userChangesService = userChangesService;
+    }
+    
+    /**
+     * Usuários criados, alterados e removidos desde a marca d'água
+     * GET /api/users/changes?since={watermark}&limit={limit}
+     * Sem since, retorna apenas a marca d'água inicial
+     */
+    @GetMapping
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since,
+                                        @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(userChangesService.getChanges(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new UserController.ErrorResponse(e.getMessage()));
+        }
+    }
+}
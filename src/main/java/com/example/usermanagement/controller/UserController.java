@@ -1,15 +1,36 @@
 package com.example.usermanagement.controller;
 
+import com.example.usermanagement.dto.BulkCreateResponse;
+import com.example.usermanagement.dto.BulkOperationResponse;
+import com.example.usermanagement.dto.UserBulkRequest;
+import com.example.usermanagement.dto.UserQuery;
+import com.example.usermanagement.dto.UserSuggestion;
+import com.example.usermanagement.dto.UserSummary;
 import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserCounters;
+import com.example.usermanagement.service.UserBulkService;
+import com.example.usermanagement.service.UserExportService;
 import com.example.usermanagement.service.UserService;
+import com.example.usermanagement.service.UserStatsService;
+import com.example.usermanagement.service.UserSuggestIndex;
+import com.example.usermanagement.service.UserVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controller REST para gerenciamento de usuários
@@ -19,11 +40,30 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class UserController {
     
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
+    /**
+     * Respostas com ETag podem ser guardadas pelo cliente, mas sempre revalidadas
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserSuggestIndex suggestIndex;
+    private final UserBulkService userBulkService;
+    private final UserStatsService userStatsService;
+    private final UserVersions userVersions;
     
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserExportService userExportService,
+                          UserSuggestIndex suggestIndex, UserBulkService userBulkService,
+                          UserStatsService userStatsService, UserVersions userVersions) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.suggestIndex = suggestIndex;
+        this.userBulkService = userBulkService;
+        this.userStatsService = userStatsService;
+        this.userVersions = userVersions;
     }
     
     /**
@@ -40,25 +80,93 @@ public class UserController {
         }
     }
     
+    /**
+     * Cria usuários em massa a partir de um array JSON ou de NDJSON (um usuário por linha)
+     * POST /api/users/bulk
+     * Retorna o resultado de cada item; itens inválidos ou com email já cadastrado não
+     * impedem a criação dos demais
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<BulkCreateResponse> createUsersInBulk(InputStream body) throws IOException {
+        return ResponseEntity.ok(userBulkService.createUsers(body));
+    }
+    
     /**
      * Busca todos os usuários
      * GET /api/users
+     * GET /api/users?limit={limit}&after={cursor} (paginação por cursor)
+     * Responde 304, sem consultar o banco, se nenhum usuário mudou desde a ETag
+     * (If-None-Match) ou a data (If-Modified-Since) enviada
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String after,
+                                         @RequestParam(required = false) Integer limit,
+                                         WebRequest request) {
+        UserVersions.Version version = userVersions.current();
+        if (request.checkNotModified(version.getTag(), version.getLastModified())) {
+            return null;
+        }
+        try {
+            if (isPaged(after, limit)) {
+                return ResponseEntity.ok().cacheControl(REVALIDATE).body(userService.getUsersPage(after, limit));
+            }
+            List<UserSummary> users = userService.getAllUsers();
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(users);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Exporta todos os usuários em streaming no formato NDJSON
+     * GET /api/users/export
+     * Comprime com gzip quando o cliente envia Accept-Encoding: gzip
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, true)) {
+                    userExportService.exportUsers(gzipStream);
+                }
+            } else {
+                userExportService.exportUsers(outputStream);
+            }
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return response.body(body);
     }
     
     /**
      * Busca usuário por ID
      * GET /api/users/{id}
+     * Responde 304 sem consultar o banco se nenhum usuário mudou desde a ETag enviada,
+     * e sem serializar o usuário se outros mudaram mas ele não
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable Long id) {
+    public ResponseEntity<?> getUserById(@PathVariable Long id, WebRequest request) {
+        UserVersions.Version version = userVersions.current();
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (request.checkNotModified(version.findUserTag(ifNoneMatch, id), version.getLastModified())) {
+            return null;
+        }
         Optional<User> user = userService.getUserById(id);
         if (user.isPresent()) {
-            return ResponseEntity.ok(user.get());
+            String tag = version.getUserTag(user.get());
+            if (version.matchesRow(ifNoneMatch, user.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).cacheControl(REVALIDATE).build();
+            }
+            return ResponseEntity.ok().eTag(tag).cacheControl(REVALIDATE).body(user.get());
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -134,50 +242,172 @@ public class UserController {
         }
     }
     
+    /**
+     * Ativa em massa os usuários indicados por uma lista de IDs ou por um filtro
+     * (ou todos, com "all": true); apenas ADMIN
+     * PATCH /api/users/bulk/activate
+     */
+    @PatchMapping("/bulk/activate")
+    public ResponseEntity<?> activateUsers(@RequestBody UserBulkRequest request) {
+        try {
+            BulkOperationResponse response = userService.activateUsers(request);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Desativa em massa os usuários indicados por uma lista de IDs ou por um filtro
+     * (ou todos, com "all": true); apenas ADMIN
+     * PATCH /api/users/bulk/deactivate
+     */
+    @PatchMapping("/bulk/deactivate")
+    public ResponseEntity<?> deactivateUsers(@RequestBody UserBulkRequest request) {
+        try {
+            BulkOperationResponse response = userService.deactivateUsers(request);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Remove permanentemente, em massa, os usuários indicados por uma lista de IDs ou por um filtro
+     * (ou todos, com "all": true); apenas ADMIN
+     * POST /api/users/bulk/delete
+     */
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> deleteUsers(@RequestBody UserBulkRequest request) {
+        try {
+            BulkOperationResponse response = userService.deleteUsers(request);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
     /**
      * Busca usuários ativos
      * GET /api/users/active
+     * GET /api/users/active?limit={limit}&after={cursor} (paginação por cursor)
      */
     @GetMapping("/active")
-    public ResponseEntity<List<User>> getActiveUsers() {
-        List<User> users = userService.getActiveUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getActiveUsers(@RequestParam(required = false) String after,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            if (isPaged(after, limit)) {
+                return ResponseEntity.ok(userService.getActiveUsersPage(after, limit));
+            }
+            List<UserSummary> users = userService.getActiveUsers();
+            return ResponseEntity.ok(users);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
     }
     
     /**
      * Busca usuários por nome
      * GET /api/users/search?name={name}
+     * GET /api/users/search?name={name}&limit={limit}&after={cursor} (paginação por cursor)
      */
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsersByName(@RequestParam String name) {
-        List<User> users = userService.searchUsersByName(name);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> searchUsersByName(@RequestParam String name,
+                                               @RequestParam(required = false) String after,
+                                               @RequestParam(required = false) Integer limit) {
+        try {
+            if (isPaged(after, limit)) {
+                return ResponseEntity.ok(userService.searchUsersByNamePage(name, after, limit));
+            }
+            List<UserSummary> users = userService.searchUsersByName(name);
+            return ResponseEntity.ok(users);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
     }
     
     /**
      * Busca usuários por faixa etária
      * GET /api/users/age-range?minAge={minAge}&maxAge={maxAge}
+     * GET /api/users/age-range?minAge={minAge}&maxAge={maxAge}&limit={limit}&after={cursor}
      */
     @GetMapping("/age-range")
-    public ResponseEntity<List<User>> getUsersByAgeRange(
+    public ResponseEntity<?> getUsersByAgeRange(
             @RequestParam Integer minAge, 
-            @RequestParam Integer maxAge) {
-        List<User> users = userService.getUsersByAgeRange(minAge, maxAge);
-        return ResponseEntity.ok(users);
+            @RequestParam Integer maxAge,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            if (isPaged(after, limit)) {
+                return ResponseEntity.ok(userService.getUsersByAgeRangePage(minAge, maxAge, after, limit));
+            }
+            List<UserSummary> users = userService.getUsersByAgeRange(minAge, maxAge);
+            return ResponseEntity.ok(users);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Busca usuários combinando nome, faixa etária, status, ordenação e paginação
+     * GET /api/users/query?name={name}&minAge={minAge}&maxAge={maxAge}&active={active}
+     *     &sort={campo}&direction={asc|desc}&limit={limit}&after={cursor}
+     */
+    @GetMapping("/query")
+    public ResponseEntity<?> queryUsers(UserQuery query) {
+        try {
+            return ResponseEntity.ok(userService.queryUsers(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Sugestões de autocomplete por prefixo do nome ou email
+     * GET /api/users/suggest?prefix={prefix}&limit={limit}
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<UserSuggestion>> suggestUsers(@RequestParam String prefix,
+                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userService.suggestUsers(prefix, limit));
+    }
+    
+    /**
+     * Tamanho e uso estimado de memória do índice de autocomplete
+     * GET /api/users/suggest/stats
+     */
+    @GetMapping("/suggest/stats")
+    public ResponseEntity<Map<String, Object>> getSuggestIndexStats() {
+        return ResponseEntity.ok(Map.of(
+            "keys", suggestIndex.size(),
+            "estimatedMemoryBytes", suggestIndex.estimatedMemoryBytes()
+        ));
     }
     
     /**
      * Retorna estatísticas dos usuários
      * GET /api/users/stats
+     * Lê a linha de contadores mantida pelas escritas, sem contar a tabela de usuários;
+     * responde 304, sem ler os contadores, se nenhum usuário mudou desde a ETag ou a data enviada
      */
     @GetMapping("/stats")
-    public ResponseEntity<UserStats> getUserStats() {
-        long activeUsers = userService.countActiveUsers();
-        long inactiveUsers = userService.countInactiveUsers();
-        long totalUsers = activeUsers + inactiveUsers;
+    public ResponseEntity<UserStats> getUserStats(WebRequest request) {
+        UserVersions.Version version = userVersions.current();
+        if (request.checkNotModified(version.getTag(), version.getLastModified())) {
+            return null;
+        }
+        UserCounters counters = userStatsService.getStats();
         
-        UserStats stats = new UserStats(totalUsers, activeUsers, inactiveUsers);
-        return ResponseEntity.ok(stats);
+        UserStats stats = new UserStats(counters.getTotalUsers(), counters.getActiveUsers(),
+                counters.getInactiveUsers());
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(stats);
+    }
+    
+    /**
+     * Indica se a requisição pediu paginação por cursor
+     */
+    private boolean isPaged(String after, Integer limit) {
+        return after != null || limit != null;
     }
     
     /**
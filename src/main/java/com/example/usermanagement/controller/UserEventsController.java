@@ -0,0 +1,51 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.service.UserEventStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Controller do stream de eventos de usuários (Server-Sent Events)
+ */
+@RestController
+@RequestMapping("/api/users/events")
+@CrossOrigin(origins = "*")
+public class UserEventsController {
+    
+    private final UserEventStream userEventStream;
+    
+    @Autowired
+    public UserEventsController(UserEventStream userEventStream) {
+        this.userEventStream = userEventStream;
+    }
+    
+    /**
+     * Abre o stream de eventos
+     * GET /api/users/events
+     * Eventos: stats (totais e variação), user (usuários alterados) e resync (recarregar os dados)
+     */
+    @GetMapping
+    public ResponseEntity<SseEmitter> subscribe() {
+        // O tipo declarado precisa ser SseEmitter para a resposta ser tratada como stream
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(userEventStream.subscribe());
+    }
+    
+    /**
+     * Limite de conexões atingido
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<UserController.ErrorResponse> handleRejected(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(userEventStream.getRetryAfterSeconds()))
+                .body(new UserController.ErrorResponse(e.getMessage()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.service.UserImportJob;
+import com.example.usermanagement.service.UserImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Controller para a importação de usuários a partir de CSV
+ */
+@RestController
+@RequestMapping("/api/users/import")
+@CrossOrigin(origins = "*")
+public class UserImportController {
+    
+    private final UserImportService userImportService;
+    
+    @Autowired
+    public UserImportController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+    
+    /**
+     * Importa usuários de um CSV com cabeçalho (name, email, password e, opcionalmente, phone, age, active)
+     * POST /api/users/import
+     * O arquivo é lido em streaming; o progresso pode ser acompanhado em GET /api/users/import
+     */
+    @PostMapping(consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<?> importUsers(InputStream body) {
+        try {
+            UserImportJob job = userImportService.importCsv(body);
+            return job.getStatus() == UserImportJob.Status.FAILED
+                    ? ResponseEntity.badRequest().body(job)
+                    : ResponseEntity.ok(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(userImportService.getRetryAfterSeconds()))
+                    .body(new UserController.ErrorResponse("Limite de importações simultâneas atingido"));
+        }
+    }
+    
+    /**
+     * Lista as importações recentes, incluindo as em andamento
+     * GET /api/users/import
+     */
+    @GetMapping
+    public ResponseEntity<List<UserImportJob>> getImports() {
+        return ResponseEntity.ok(userImportService.getJobs());
+    }
+    
+    /**
+     * Progresso de uma importação
+     * GET /api/users/import/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<UserImportJob> getImport(@PathVariable String id) {
+        return userImportService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
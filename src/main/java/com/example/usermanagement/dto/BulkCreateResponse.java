@@ -0,0 +1,42 @@
+package com.example.usermanagement.dto;
+
+import java.util.List;
+
+/**
+ * Resposta da criação de usuários em massa, com o resultado de cada item e o tempo gasto
+ * gerando os hashes das senhas (que domina o tempo total e não depende do banco)
+ */
+public class BulkCreateResponse {
+    
+    private final long created;
+    private final long failed;
+    private final long hashingMillis;
+    private final List<BulkItemResult> results;
+    
+    public BulkCreateResponse(List<BulkItemResult> results) {
+        this(results, 0);
+    }
+    
+    public BulkCreateResponse(List<BulkItemResult> results, long hashingMillis) {
+        this.results = results;
+        this.hashingMillis = hashingMillis;
+        this.created = results.stream().filter(r -> r.getStatus() == BulkItemResult.Status.CREATED).count();
+        this.failed = results.size() - created;
+    }
+    
+    public long getCreated() {
+        return created;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public long getHashingMillis() {
+        return hashingMillis;
+    }
+    
+    public List<BulkItemResult> getResults() {
+        return results;
+    }
+}
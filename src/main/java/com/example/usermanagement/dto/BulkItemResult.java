@@ -0,0 +1,59 @@
+package com.example.usermanagement.dto;
+
+/**
+ * Resultado de um item de uma operação em massa
+ */
+public class BulkItemResult {
+    
+    /**
+     * Situação do item
+     */
+    public enum Status {
+        CREATED, FAILED
+    }
+    
+    private final int index;
+    private final Status status;
+    private final Long id;
+    private final String email;
+    private final String error;
+    
+    private BulkItemResult(int index, Status status, Long id, String email, String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.email = email;
+        this.error = error;
+    }
+    
+    public static BulkItemResult created(int index, Long id, String email) {
+        return new BulkItemResult(index, Status.CREATED, id, email, null);
+    }
+    
+    public static BulkItemResult failed(int index, String email, String error) {
+        return new BulkItemResult(index, Status.FAILED, null, email, error);
+    }
+    
+    /**
+     * Posição do item na entrada (começando em 0)
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.usermanagement.dto;
+
+/**
+ * Resultado de uma ativação, desativação ou remoção em massa
+ */
+public class BulkOperationResponse {
+    
+    private final long matched;
+    private final long affected;
+    
+    public BulkOperationResponse(long matched, long affected) {
+        this.matched = matched;
+        this.affected = affected;
+    }
+    
+    /**
+     * Número de usuários encontrados pelos IDs ou pelo filtro
+     */
+    public long getMatched() {
+        return matched;
+    }
+    
+    /**
+     * Número de linhas alteradas (usuários que já estavam no estado pedido não contam)
+     */
+    public long getAffected() {
+        return affected;
+    }
+}
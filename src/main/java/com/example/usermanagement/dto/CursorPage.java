@@ -0,0 +1,82 @@
+package com.example.usermanagement.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Página de resultados paginada por cursor (keyset/seek pagination)
+ *
+ * O cursor é opaco para o cliente: codifica a chave de ordenação e o ID do
+ * último item retornado, permitindo que a próxima página seja buscada com
+ * {@code WHERE (chave, id) > (:chave, :id)} em vez de OFFSET.
+ */
+public class CursorPage<T> {
+    
+    private static final String SEPARATOR = ":";
+    
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+    
+    public CursorPage(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+    
+    /**
+     * Codifica um cursor a partir da chave de ordenação e do ID
+     * @param sortKey chave de ordenação (null quando a ordenação é apenas por ID)
+     * @param id ID do último item da página
+     * @return cursor opaco em Base64 URL-safe
+     */
+    public static String encodeCursor(Object sortKey, Long id) {
+        String raw = sortKey == null ? String.valueOf(id) : sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodifica um cursor em suas partes [chave de ordenação, id] ou [id]
+     * @param cursor cursor opaco
+     * @return partes do cursor
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index < 0) {
+                return new String[] {raw};
+            }
+            return new String[] {raw.substring(0, index), raw.substring(index + 1)};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.usermanagement.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resumo do dashboard: totais, distribuição por faixa etária e usuários alterados
+ * recentemente, todos calculados no banco (o tamanho não depende do número de usuários)
+ */
+public class DashboardSummary {
+    
+    private final long totalUsers;
+    private final long activeUsers;
+    private final long inactiveUsers;
+    private final List<AgeBucket> ageDistribution;
+    private final List<RecentUser> recentUsers;
+    
+    public DashboardSummary(long totalUsers, long activeUsers, long inactiveUsers,
+                            List<AgeBucket> ageDistribution, List<RecentUser> recentUsers) {
+        this.totalUsers = totalUsers;
+        this.activeUsers = activeUsers;
+        this.inactiveUsers = inactiveUsers;
+        this.ageDistribution = ageDistribution;
+        this.recentUsers = recentUsers;
+    }
+    
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+    
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+    
+    public long getInactiveUsers() {
+        return inactiveUsers;
+    }
+    
+    public List<AgeBucket> getAgeDistribution() {
+        return ageDistribution;
+    }
+    
+    public List<RecentUser> getRecentUsers() {
+        return recentUsers;
+    }
+    
+    /**
+     * Número de usuários em uma faixa etária
+     */
+    public static class AgeBucket {
+        private final String range;
+        private final long count;
+        
+        public AgeBucket(String range, long count) {
+            this.range = range;
+            this.count = count;
+        }
+        
+        public String getRange() {
+            return range;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+    }
+    
+    /**
+     * Usuário alterado recentemente (criado quando createdAt e updatedAt coincidem)
+     */
+    public static class RecentUser {
+        private final Long id;
+        private final String name;
+        private final Boolean active;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        
+        public RecentUser(Long id, String name, Boolean active, LocalDateTime createdAt, LocalDateTime updatedAt) {
+            this.id = id;
+            this.name = name;
+            this.active = active;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+        }
+        
+        public Long getId() {
+            return id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public Boolean getActive() {
+            return active;
+        }
+        
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+        
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
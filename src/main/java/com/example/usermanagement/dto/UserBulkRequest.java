@@ -0,0 +1,52 @@
+package com.example.usermanagement.dto;
+
+import java.util.List;
+
+/**
+ * Alvo de uma operação em massa: uma lista de IDs, um filtro ou todos os usuários
+ * (apenas um deles). Todos os usuários só são alvo com {@code all} explícito, nunca
+ * por um filtro vazio.
+ */
+public class UserBulkRequest {
+    
+    private List<Long> ids;
+    private UserFilter filter;
+    private boolean all;
+    
+    public UserBulkRequest() {
+    }
+    
+    public UserBulkRequest(List<Long> ids, UserFilter filter) {
+        this.ids = ids;
+        this.filter = filter;
+    }
+    
+    public UserBulkRequest(List<Long> ids, UserFilter filter, boolean all) {
+        this(ids, filter);
+        this.all = all;
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public UserFilter getFilter() {
+        return filter;
+    }
+    
+    public void setFilter(UserFilter filter) {
+        this.filter = filter;
+    }
+    
+    public boolean isAll() {
+        return all;
+    }
+    
+    public void setAll(boolean all) {
+        this.all = all;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.usermanagement.dto;
+
+import java.util.List;
+
+/**
+ * Alteração de usuários enviada pelo stream de eventos (evento {@code user})
+ */
+public class UserChangeNotification {
+    
+    private final String type;
+    private final List<Long> ids;
+    private final int count;
+    
+    public UserChangeNotification(String type, List<Long> ids, int count) {
+        this.type = type;
+        this.ids = ids;
+        this.count = count;
+    }
+    
+    /**
+     * Tipo de alteração (CREATED, UPDATED, ACTIVATED, DEACTIVATED ou DELETED)
+     */
+    public String getType() {
+        return type;
+    }
+    
+    /**
+     * IDs dos usuários alterados; null quando são muitos (nesse caso o cliente deve recarregar)
+     */
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    /**
+     * Número de usuários alterados
+     */
+    public int getCount() {
+        return count;
+    }
+}
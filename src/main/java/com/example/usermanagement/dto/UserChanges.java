@@ -0,0 +1,59 @@
+package com.example.usermanagement.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Alterações de usuários desde uma marca d'água (sincronização incremental)
+ *
+ * O cliente aplica os usuários alterados e remove os IDs removidos do que já tem
+ * e guarda a nova marca d'água para a próxima chamada. Quando {@code resync} é
+ * verdadeiro as listas vêm vazias e o cliente deve recarregar tudo antes de
+ * continuar a partir da nova marca d'água.
+ */
+public class UserChanges {
+    
+    private final List<UserSummary> users;
+    private final List<Long> deletedIds;
+    private final LocalDateTime watermark;
+    private final boolean resync;
+    
+    public UserChanges(List<UserSummary> users, List<Long> deletedIds, LocalDateTime watermark, boolean resync) {
+        this.users = users;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+        this.resync = resync;
+    }
+    
+    /**
+     * Resposta que pede ao cliente para recarregar tudo
+     */
+    public static UserChanges resync(LocalDateTime watermark) {
+        return new UserChanges(List.of(), List.of(), watermark, true);
+    }
+    
+    /**
+     * Usuários criados ou alterados, ordenados pela data da alteração
+     */
+    public List<UserSummary> getUsers() {
+        return users;
+    }
+    
+    /**
+     * IDs dos usuários removidos
+     */
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+    
+    /**
+     * Valor de {@code since} para a próxima chamada
+     */
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+    
+    public boolean isResync() {
+        return resync;
+    }
+}
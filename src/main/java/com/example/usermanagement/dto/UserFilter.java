@@ -0,0 +1,53 @@
+package com.example.usermanagement.dto;
+
+/**
+ * Filtro de usuários para as operações em massa
+ *
+ * Os critérios informados são combinados com E; ao menos um deve ser informado.
+ */
+public class UserFilter {
+    
+    private String name;
+    private Integer minAge;
+    private Integer maxAge;
+    private Boolean active;
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public Integer getMinAge() {
+        return minAge;
+    }
+    
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+    
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+    
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+    
+    public Boolean getActive() {
+        return active;
+    }
+    
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+    
+    /**
+     * Verifica se nenhum critério foi informado
+     */
+    public boolean isEmpty() {
+        return (name == null || name.isBlank()) && minAge == null && maxAge == null && active == null;
+    }
+}
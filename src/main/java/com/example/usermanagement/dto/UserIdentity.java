@@ -0,0 +1,35 @@
+package com.example.usermanagement.dto;
+
+/**
+ * Projeção com os campos de identificação do usuário (id, nome e email)
+ */
+public interface UserIdentity {
+    
+    Long getId();
+    
+    String getName();
+    
+    String getEmail();
+    
+    /**
+     * Cria uma identificação com os valores informados
+     */
+    static UserIdentity of(Long id, String name, String email) {
+        return new UserIdentity() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+            
+            @Override
+            public String getName() {
+                return name;
+            }
+            
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
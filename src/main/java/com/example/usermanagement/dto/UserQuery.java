@@ -0,0 +1,84 @@
+package com.example.usermanagement.dto;
+
+/**
+ * Critérios combinados de busca de usuários (GET /api/users/query)
+ *
+ * Todos os filtros são opcionais. A ordenação aceita os campos
+ * {@code id}, {@code name}, {@code age} e {@code createdAt}; ao ordenar por
+ * idade, usuários sem idade informada não são retornados.
+ */
+public class UserQuery {
+    
+    private String name;
+    private Integer minAge;
+    private Integer maxAge;
+    private Boolean active;
+    private String sort = "id";
+    private String direction = "asc";
+    private String after;
+    private Integer limit;
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public Integer getMinAge() {
+        return minAge;
+    }
+    
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+    
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+    
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+    
+    public Boolean getActive() {
+        return active;
+    }
+    
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+    
+    public String getSort() {
+        return sort;
+    }
+    
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+    
+    public String getDirection() {
+        return direction;
+    }
+    
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+    
+    public String getAfter() {
+        return after;
+    }
+    
+    public void setAfter(String after) {
+        this.after = after;
+    }
+    
+    public Integer getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.usermanagement.dto;
+
+/**
+ * Estatísticas enviadas pelo stream de eventos (evento {@code stats}): os totais
+ * atuais e a variação acumulada desde o último envio para o mesmo cliente
+ */
+public class UserStatsNotification {
+    
+    private final long totalUsers;
+    private final long activeUsers;
+    private final long inactiveUsers;
+    private final long activeDelta;
+    private final long inactiveDelta;
+    
+    public UserStatsNotification(long totalUsers, long activeUsers, long inactiveUsers,
+                                 long activeDelta, long inactiveDelta) {
+        this.totalUsers = totalUsers;
+        this.activeUsers = activeUsers;
+        this.inactiveUsers = inactiveUsers;
+        this.activeDelta = activeDelta;
+        this.inactiveDelta = inactiveDelta;
+    }
+    
+    /**
+     * Combina uma notificação ainda não enviada com uma mais nova: os totais da
+     * mais nova e a soma das variações
+     */
+    public UserStatsNotification merge(UserStatsNotification newer) {
+        return new UserStatsNotification(newer.totalUsers, newer.activeUsers, newer.inactiveUsers,
+                activeDelta + newer.activeDelta, inactiveDelta + newer.inactiveDelta);
+    }
+    
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+    
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+    
+    public long getInactiveUsers() {
+        return inactiveUsers;
+    }
+    
+    public long getActiveDelta() {
+        return activeDelta;
+    }
+    
+    public long getInactiveDelta() {
+        return inactiveDelta;
+    }
+}
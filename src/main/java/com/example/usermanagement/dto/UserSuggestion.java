@@ -0,0 +1,32 @@
+package com.example.usermanagement.dto;
+
+/**
+ * Sugestão de autocomplete com os dados mínimos do usuário
+ */
+public class UserSuggestion implements UserIdentity {
+    
+    private final Long id;
+    private final String name;
+    private final String email;
+    
+    public UserSuggestion(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+    
+    @Override
+    public Long getId() {
+        return id;
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public String getEmail() {
+        return email;
+    }
+}
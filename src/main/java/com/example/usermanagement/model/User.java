@@ -1,5 +1,12 @@
 package com.example.usermanagement.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import javax.persistence.*;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
@@ -7,16 +14,62 @@ import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Locale;
 
 /**
  * Entidade User que representa um usuário no sistema
+ *
+ * Os índices cobrem os filtros usados pelo {@link com.example.usermanagement.repository.UserRepository}:
+ * status (com o ID, para contagem e paginação por cursor), faixa etária (com o ID, na
+ * ordem da paginação por idade) e datas de criação e alteração (esta em ordem
+ * decrescente, para os usuários alterados mais recentemente).
+ *
+ * O email é único e buscado sem diferenciar maiúsculas pela coluna {@code email_normalized},
+ * preenchida nos callbacks de gravação: a busca continua sendo um acesso pontual ao
+ * índice único, sem {@code LOWER(email)}.
+ *
+ * Usuários, papéis e a resolução email → ID ficam no cache de segundo nível do
+ * Hibernate (regiões configuradas em {@link com.example.usermanagement.config.EntityCacheConfig}):
+ * buscas pelo ID ou pelo email (login e autenticação) que acertam o cache não acessam o banco.
  */
 @Entity
-@Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.EMAIL_CACHE_REGION)
+@Table(name = "users",
+       uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email_normalized"),
+       indexes = {
+           @Index(name = "idx_users_active_id", columnList = "active, id"),
+           @Index(name = "idx_users_age_id", columnList = "age, id"),
+           @Index(name = "idx_users_created_at", columnList = "created_at"),
+           @Index(name = "idx_users_updated_at", columnList = "updated_at DESC")
+       })
 public class User {
     
+    /**
+     * Nome da constraint de unicidade do email normalizado
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    
+    /**
+     * Número de usuários cujos papéis são carregados por consulta
+     */
+    public static final int ROLES_BATCH_SIZE = 100;
+    
+    /**
+     * Regiões do cache de segundo nível: usuários pelo ID, papéis por usuário e IDs pelo email
+     */
+    public static final String CACHE_REGION = "users";
+    public static final String ROLES_CACHE_REGION = "user_roles";
+    public static final String EMAIL_CACHE_REGION = "users_by_email";
+    
+    /**
+     * IDs vêm de uma sequence com o otimizador pooled: cada ida ao banco reserva
+     * um bloco de 50 valores, e o Hibernate pode agrupar os INSERTs em lotes JDBC
+     * (o que não é possível com IDENTITY)
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Nome é obrigatório")
@@ -26,9 +79,17 @@ public class User {
     
     @NotBlank(message = "Email é obrigatório")
     @Email(message = "Email deve ter um formato válido")
-    @Column(name = "email", nullable = false, unique = true)
+    @Column(name = "email", nullable = false)
     private String email;
     
+    /**
+     * Email sem espaços nas pontas e em minúsculas ({@link #normalizeEmail(String)}),
+     * chave única e natural id usado nas buscas por email
+     */
+    @NaturalId(mutable = true)
+    @Column(name = "email_normalized", nullable = false)
+    private String normalizedEmail;
+    
     @Size(min = 6, max = 20, message = "Telefone deve ter entre 6 e 20 caracteres")
     @Column(name = "phone")
     private String phone;
@@ -50,9 +111,17 @@ public class User {
     @Column(name = "password", nullable = false)
     private String password;
     
+    /**
+     * Os papéis de vários usuários carregados na mesma consulta são buscados em
+     * lotes de {@link #ROLES_BATCH_SIZE} ({@code user_id IN (...)}), em vez de uma
+     * consulta por usuário
+     */
     @ElementCollection(targetClass = Role.class, fetch = FetchType.EAGER)
+    @BatchSize(size = ROLES_BATCH_SIZE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ROLES_CACHE_REGION)
     @Enumerated(EnumType.STRING)
-    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
+    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"),
+                     indexes = @Index(name = "idx_user_roles_user_id", columnList = "user_id"))
     @Column(name = "role")
     private Set<Role> roles = new HashSet<>();
     
@@ -97,6 +166,11 @@ public class User {
         this.email = email;
     }
     
+    @JsonIgnore
+    public String getNormalizedEmail() {
+        return normalizedEmail;
+    }
+    
     public String getPhone() {
         return phone;
     }
@@ -154,9 +228,29 @@ public class User {
     }
     
     // Métodos de callback JPA
+    @PrePersist
+    public void prePersist() {
+        // Carimbadas na gravação, e não na construção do objeto, para que a sincronização
+        // incremental não perca usuários criados antes e gravados depois (importação em lotes).
+        // updatedAt é a data da última alteração, inclusive a criação
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+        this.normalizedEmail = normalizeEmail(email);
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.normalizedEmail = normalizeEmail(email);
+    }
+    
+    /**
+     * Forma do email usada na unicidade e nas buscas: sem espaços nas pontas e em minúsculas
+     * @param email email como informado (pode ser null)
+     * @return email normalizado, ou null
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
     
     @Override
@@ -0,0 +1,78 @@
+package com.example.usermanagement.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Contadores de usuários mantidos em uma única linha da tabela user_stats
+ *
+ * Atualizados na mesma transação das escritas do
+ * {@link com.example.usermanagement.service.UserService} e recalculados
+ * periodicamente pelo {@link com.example.usermanagement.service.UserStatsService},
+ * para que as estatísticas sejam lidas sem contar a tabela de usuários.
+ */
+@Entity
+@Table(name = "user_stats")
+public class UserCounters {
+    
+    /**
+     * ID da única linha de contadores
+     */
+    public static final long ID = 1L;
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "active_users", nullable = false)
+    private long activeUsers;
+    
+    @Column(name = "inactive_users", nullable = false)
+    private long inactiveUsers;
+    
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+    
+    protected UserCounters() {
+    }
+    
+    public UserCounters(long activeUsers, long inactiveUsers) {
+        this.id = ID;
+        this.activeUsers = activeUsers;
+        this.inactiveUsers = inactiveUsers;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+    
+    public void setActiveUsers(long activeUsers) {
+        this.activeUsers = activeUsers;
+    }
+    
+    public long getInactiveUsers() {
+        return inactiveUsers;
+    }
+    
+    public void setInactiveUsers(long inactiveUsers) {
+        this.inactiveUsers = inactiveUsers;
+    }
+    
+    public long getTotalUsers() {
+        return activeUsers + inactiveUsers;
+    }
+    
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+    
+    public void setReconciledAt(LocalDateTime reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.usermanagement.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Registro da remoção de um usuário (tabela user_tombstones)
+ *
+ * Gravado na mesma transação da remoção pelo
+ * {@link com.example.usermanagement.service.UserService}, para que a sincronização
+ * incremental informe aos clientes os usuários que deixaram de existir. Os registros
+ * mais antigos que o prazo de retenção são removidos pelo
+ * {@link com.example.usermanagement.service.UserChangesService}.
+ */
+@Entity
+@Table(name = "user_tombstones",
+       indexes = @Index(name = "idx_user_tombstones_deleted_at", columnList = "deleted_at"))
+public class UserTombstone {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    protected UserTombstone() {
+    }
+    
+    public UserTombstone(Long userId, LocalDateTime deletedAt) {
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
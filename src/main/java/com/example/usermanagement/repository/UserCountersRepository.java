@@ -0,0 +1,42 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.UserCounters;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+/**
+ * Repositório da linha de contadores de usuários (tabela user_stats)
+ */
+@Repository
+public interface UserCountersRepository extends JpaRepository<UserCounters, Long> {
+    
+    /**
+     * Soma os deltas aos contadores com um único UPDATE; a linha fica bloqueada
+     * até o fim da transação, então escritas concorrentes não perdem incrementos
+     * @param id ID da linha de contadores
+     * @param activeDelta variação de usuários ativos
+     * @param inactiveDelta variação de usuários inativos
+     * @return número de linhas alteradas (0 se a linha ainda não foi criada)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE UserCounters c SET c.activeUsers = c.activeUsers + :activeDelta, " +
+           "c.inactiveUsers = c.inactiveUsers + :inactiveDelta WHERE c.id = :id")
+    int increment(@Param("id") Long id, @Param("activeDelta") long activeDelta,
+                  @Param("inactiveDelta") long inactiveDelta);
+    
+    /**
+     * Busca a linha de contadores bloqueando-a para escrita (SELECT ... FOR UPDATE)
+     * @param id ID da linha de contadores
+     * @return Optional contendo os contadores se a linha existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM UserCounters c WHERE c.id = :id")
+    Optional<UserCounters> findForUpdate(@Param("id") Long id);
+}
@@ -1,33 +1,94 @@
 package com.example.usermanagement.repository;
 
+import com.example.usermanagement.dto.DashboardSummary;
+import com.example.usermanagement.dto.UserIdentity;
+import com.example.usermanagement.dto.UserSummary;
 import com.example.usermanagement.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para operações de banco de dados da entidade User
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserRepositoryCustom {
     
     /**
-     * Busca usuário por email
-     * @param email email do usuário
-     * @return Optional contendo o usuário se encontrado
+     * Retorna, dentre os emails normalizados informados, os que já estão cadastrados
+     * @param emails emails normalizados ({@link User#normalizeEmail(String)}) a serem verificados
+     * @return emails normalizados já existentes
      */
-    Optional<User> findByEmail(String email);
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query("SELECT u.normalizedEmail FROM User u WHERE u.normalizedEmail IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
     
     /**
-     * Verifica se existe um usuário com o email informado
-     * @param email email a ser verificado
-     * @return true se o email já existe, false caso contrário
+     * Altera o status de ativação dos usuários informados com um único UPDATE.
+     * Não passa pelo ciclo de vida das entidades, por isso updatedAt é informado.
+     * @param ids IDs dos usuários
+     * @param active novo status
+     * @param updatedAt data da alteração
+     * @return número de usuários cujo status mudou
      */
-    boolean existsByEmail(String email);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.active = :active, u.updatedAt = :updatedAt " +
+           "WHERE u.id IN :ids AND u.active <> :active")
+    int updateActiveByIdIn(@Param("ids") Collection<Long> ids, @Param("active") boolean active,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Remove os usuários informados com um único DELETE; os papéis devem ter sido
+     * removidos antes com {@link UserRepositoryCustom#deleteRolesByUserIdIn(Collection)}
+     * @param ids IDs dos usuários
+     * @return número de usuários removidos
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Resumo de todos os usuários, ordenados por ID (listagens)
+     * @return resumo dos usuários
+     */
+    @Query(SUMMARY_SELECT + "ORDER BY u.id")
+    List<UserSummary> findAllSummaries();
+    
+    /**
+     * Resumo dos usuários ativos, ordenados por ID (listagens)
+     * @return resumo dos usuários ativos
+     */
+    @Query(SUMMARY_SELECT + "WHERE u.active = true ORDER BY u.id")
+    List<UserSummary> findActiveSummaries();
+    
+    /**
+     * Resumo dos usuários na faixa etária (listagens)
+     * @param minAge idade mínima
+     * @param maxAge idade máxima
+     * @return resumo dos usuários na faixa etária, ordenados por idade e ID
+     */
+    @Query(SUMMARY_SELECT + "WHERE u.age BETWEEN :minAge AND :maxAge ORDER BY u.age, u.id")
+    List<UserSummary> findSummariesByAgeBetween(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge);
+    
+    /**
+     * Resumo dos usuários com os IDs informados (hidratação dos resultados dos índices em memória)
+     * @param ids IDs dos usuários
+     * @return resumo dos usuários encontrados, ordenados por ID
+     */
+    @Query(SUMMARY_SELECT + "WHERE u.id IN :ids ORDER BY u.id")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
     
     /**
      * Busca usuários ativos
@@ -59,14 +120,130 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByAgeBetween(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge);
     
     /**
-     * Conta usuários ativos
+     * Conta usuários ativos e inativos em uma única consulta
+     * @return pares [active, quantidade], um por status existente
+     */
+    @Query("SELECT u.active, COUNT(u) FROM User u GROUP BY u.active")
+    List<Object[]> countGroupByActive();
+    
+    /**
+     * Conta, dentre os usuários informados, os que estão ativos
+     * @param ids IDs dos usuários
      * @return número de usuários ativos
      */
-    long countByActiveTrue();
+    long countByIdInAndActiveTrue(Collection<Long> ids);
+    
+    /**
+     * Conta usuários por faixa etária em uma única consulta agrupada
+     * (0: 18-25, 1: 26-35, 2: 36-50, 3: acima de 50; menores de 18 e sem idade não entram)
+     * @return pares [faixa, quantidade], um por faixa com usuários
+     */
+    @Query("SELECT CASE WHEN u.age <= 25 THEN 0 WHEN u.age <= 35 THEN 1 WHEN u.age <= 50 THEN 2 ELSE 3 END, " +
+           "COUNT(u) FROM User u WHERE u.age >= 18 " +
+           "GROUP BY CASE WHEN u.age <= 25 THEN 0 WHEN u.age <= 35 THEN 1 WHEN u.age <= 50 THEN 2 ELSE 3 END")
+    List<Object[]> countByAgeBucket();
+    
+    /**
+     * Usuários alterados (ou criados) mais recentemente
+     * @param pageable limite de resultados
+     * @return usuários ordenados do mais recente para o mais antigo
+     */
+    @Query("SELECT new com.example.usermanagement.dto.DashboardSummary$RecentUser(" +
+           "u.id, u.name, u.active, u.createdAt, u.updatedAt) FROM User u ORDER BY u.updatedAt DESC")
+    List<DashboardSummary.RecentUser> findRecentlyUpdated(Pageable pageable);
+    
+    /**
+     * Resumo dos usuários criados ou alterados após a data informada (sincronização incremental)
+     * @param since data de referência (exclusiva)
+     * @param pageable limite de resultados
+     * @return resumo dos usuários ordenados pela data da alteração e ID
+     */
+    @Query(SUMMARY_SELECT + "WHERE u.updatedAt > :since ORDER BY u.updatedAt, u.id")
+    List<UserSummary> findSummariesChangedAfter(@Param("since") LocalDateTime since, Pageable pageable);
+    
+    /**
+     * Busca a próxima página de usuários após o ID informado (keyset pagination)
+     * @param afterId ID do último usuário da página anterior
+     * @param pageable limite de resultados
+     * @return resumo dos usuários com ID maior que afterId, ordenados por ID
+     */
+    @Query(SUMMARY_SELECT + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Busca a próxima página de usuários ativos após o ID informado
+     * @param afterId ID do último usuário da página anterior
+     * @param pageable limite de resultados
+     * @return resumo dos usuários ativos com ID maior que afterId, ordenados por ID
+     */
+    @Query(SUMMARY_SELECT + "WHERE u.active = true AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findActivePageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Busca a próxima página de usuários por faixa etária após o par (idade, ID) informado
+     * @param minAge idade mínima
+     * @param maxAge idade máxima
+     * @param afterAge idade do último usuário da página anterior
+     * @param afterId ID do último usuário da página anterior
+     * @param pageable limite de resultados
+     * @return resumo dos usuários na faixa etária após (afterAge, afterId), ordenados por idade e ID
+     */
+    @Query(SUMMARY_SELECT + "WHERE u.age BETWEEN :minAge AND :maxAge " +
+           "AND (u.age > :afterAge OR (u.age = :afterAge AND u.id > :afterId)) " +
+           "ORDER BY u.age, u.id")
+    List<UserSummary> findByAgeBetweenPageAfter(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge,
+                                                @Param("afterAge") Integer afterAge, @Param("afterId") Long afterId,
+                                                Pageable pageable);
+    
+    /**
+     * Percorre todos os usuários com um cursor forward-only do banco de dados.
+     * Os papéis vêm na mesma consulta (join fetch): no cursor o Hibernate não os
+     * carrega em lotes, o que faria uma consulta por usuário exportado.
+     * O cache de segundo nível é ignorado: a exportação lê todos os usuários uma vez e,
+     * passando pelo cache, substituiria as entradas usadas pelas requisições.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     * @return stream de usuários ordenados por ID
+     */
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles ORDER BY u.id")
+    Stream<User> streamAllByOrderByIdAsc();
+    
+    /**
+     * Percorre ID, nome e email de todos os usuários sem carregar as entidades.
+     * Usado para construir índices em memória; deve ser consumido dentro de uma transação.
+     * @return stream com a identificação dos usuários
+     */
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email FROM User u")
+    Stream<UserIdentity> streamIdentitiesBy();
+    
+    /**
+     * Percorre os emails normalizados de todos os usuários sem carregar as entidades.
+     * Usado para construir o filtro de emails; deve ser consumido dentro de uma transação.
+     * @return stream com os emails normalizados
+     */
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT u.normalizedEmail FROM User u")
+    Stream<String> streamEmailsBy();
+    
+    /**
+     * Tamanho do lote buscado do banco a cada ida ao cursor de exportação
+     */
+    int EXPORT_FETCH_SIZE = 500;
     
     /**
-     * Conta usuários inativos
-     * @return número de usuários inativos
+     * Início das consultas de listagem: seleciona apenas as colunas do {@link UserSummary}
      */
-    long countByActiveFalse();
+    String SUMMARY_SELECT = "SELECT new com.example.usermanagement.dto.UserSummary(u.id, u.name, u.email, " +
+            "u.phone, u.age, u.active, u.createdAt, u.updatedAt) FROM User u ";
 }
@@ -0,0 +1,61 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.dto.UserIdentity;
+import com.example.usermanagement.dto.UserSummary;
+import com.example.usermanagement.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consultas de usuários que não são expressas por métodos derivados do Spring Data
+ */
+public interface UserRepositoryCustom {
+    
+    /**
+     * Busca usuário por email, sem diferenciar maiúsculas, pelo natural id (o email
+     * normalizado): com o cache de segundo nível, um acerto resolve o ID e o usuário
+     * (com os papéis) sem acessar o banco
+     * @param email email do usuário
+     * @return Optional contendo o usuário se encontrado
+     */
+    Optional<User> findByEmail(String email);
+    
+    /**
+     * Verifica, sem diferenciar maiúsculas, se existe um usuário com o email informado,
+     * com uma consulta pontual ao índice único do email normalizado
+     * @param email email a ser verificado
+     * @return true se o email já existe, false caso contrário
+     */
+    boolean existsByEmail(String email);
+    
+    /**
+     * Busca o resumo dos usuários que atendem ao critério (sem a senha e sem a consulta dos
+     * papéis), ordenados e limitados em uma única consulta (sem a consulta de contagem
+     * executada por {@code findAll(Specification, Pageable)})
+     * @param spec critério de filtragem
+     * @param sort ordenação
+     * @param limit número máximo de resultados
+     * @return resumo dos usuários encontrados
+     */
+    List<UserSummary> findSummaries(Specification<User> spec, Sort sort, int limit);
+    
+    /**
+     * Busca ID, nome e email dos usuários que atendem ao critério, sem carregar as entidades
+     * @param spec critério de filtragem (null para todos os usuários)
+     * @return identificação dos usuários encontrados, ordenados por ID
+     */
+    List<UserIdentity> findIdentities(Specification<User> spec);
+    
+    /**
+     * Remove os papéis dos usuários informados com um único DELETE
+     * (a remoção em massa de usuários não passa pela coleção de papéis da entidade).
+     * Só a região de cache dos papéis é invalidada, e não todo o cache de segundo nível
+     * @param ids IDs dos usuários
+     * @return número de papéis removidos
+     */
+    int deleteRolesByUserIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,127 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.dto.UserIdentity;
+import com.example.usermanagement.dto.UserSummary;
+import com.example.usermanagement.model.User;
+import org.springframework.data.domain.Sort;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Implementação das consultas customizadas de usuários com a Criteria API, a busca pelo
+ * natural id e a remoção dos papéis em massa
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class)
+                .loadOptional(User.normalizeEmail(email));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+        return !entityManager.createQuery("SELECT u.id FROM User u WHERE u.normalizedEmail = :email", Long.class)
+                .setParameter("email", User.normalizeEmail(email))
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+    
+    @Override
+    public List<UserSummary> findSummaries(Specification<User> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserSummary> query = cb.createQuery(UserSummary.class);
+        Root<User> root = query.from(User.class);
+        
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.construct(UserSummary.class, root.get("id"), root.get("name"), root.get("email"),
+                        root.get("phone"), root.get("age"), root.get("active"), root.get("createdAt"),
+                        root.get("updatedAt")))
+                .orderBy(toOrders(sort, root, cb));
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    /**
+     * Converte a ordenação em ORDER BY. A Criteria API não tem NULLS FIRST/LAST: um atributo
+     * com {@link Sort.NullHandling#NULLS_LAST} é precedido por um CASE que põe os nulos no fim
+     */
+    private static List<Order> toOrders(Sort sort, Root<User> root, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<Object> path = root.get(order.getProperty());
+            if (order.getNullHandling() == Sort.NullHandling.NULLS_LAST) {
+                orders.add(cb.asc(cb.<Integer>selectCase().when(cb.isNull(path), 1).otherwise(0)));
+            }
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        return orders;
+    }
+    
+    @Override
+    public List<UserIdentity> findIdentities(Specification<User> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> root = query.from(User.class);
+        
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(root.get("id"), root.get("name"), root.get("email")).orderBy(cb.asc(root.get("id")));
+        
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultList().stream()
+                .map(tuple -> UserIdentity.of(tuple.get(0, Long.class), tuple.get(1, String.class),
+                        tuple.get(2, String.class)))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    @Transactional
+    public int deleteRolesByUserIdIn(Collection<Long> ids) {
+        entityManager.flush();
+        return entityManager.createNativeQuery("DELETE FROM user_roles WHERE user_id IN :ids")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("user_roles")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+}
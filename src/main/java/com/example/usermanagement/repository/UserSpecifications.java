@@ -0,0 +1,103 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Predicate;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Critérios reutilizáveis para consultas combinadas de usuários.
+ * Critérios com valor nulo não restringem a consulta.
+ */
+public final class UserSpecifications {
+    
+    private UserSpecifications() {
+    }
+    
+    /**
+     * Usuários com um dos IDs informados
+     */
+    public static Specification<User> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids == null ? null : root.get("id").in(ids);
+    }
+    
+    /**
+     * Usuários cujo nome contém o texto informado (case insensitive)
+     */
+    public static Specification<User> nameContains(String name) {
+        return (root, query, cb) -> name == null || name.isBlank() ? null
+                : cb.like(cb.lower(root.get("name")), "%" + name.trim().toLowerCase(Locale.ROOT) + "%");
+    }
+    
+    /**
+     * Usuários com idade maior ou igual à informada
+     */
+    public static Specification<User> ageAtLeast(Integer minAge) {
+        return (root, query, cb) -> minAge == null ? null : cb.greaterThanOrEqualTo(root.get("age"), minAge);
+    }
+    
+    /**
+     * Usuários com idade menor ou igual à informada
+     */
+    public static Specification<User> ageAtMost(Integer maxAge) {
+        return (root, query, cb) -> maxAge == null ? null : cb.lessThanOrEqualTo(root.get("age"), maxAge);
+    }
+    
+    /**
+     * Usuários com o status de ativação informado
+     */
+    public static Specification<User> hasActive(Boolean active) {
+        return (root, query, cb) -> active == null ? null : cb.equal(root.get("active"), active);
+    }
+    
+    /**
+     * Usuários posicionados após (chave, id) na ordenação informada (keyset pagination)
+     * @param field atributo de ordenação
+     * @param value valor da chave de ordenação do último item da página anterior
+     * @param id ID do último item da página anterior
+     * @param descending true se a ordenação for decrescente
+     */
+    public static <T extends Comparable<? super T>> Specification<User> after(String field, T value, Long id,
+                                                                             boolean descending) {
+        return (root, query, cb) -> {
+            if (id == null) {
+                return null;
+            }
+            if ("id".equals(field)) {
+                return descending ? cb.lessThan(root.get("id"), id) : cb.greaterThan(root.get("id"), id);
+            }
+            if (descending) {
+                return cb.or(cb.lessThan(root.<T>get(field), value),
+                        cb.and(cb.equal(root.get(field), value), cb.lessThan(root.get("id"), id)));
+            }
+            return cb.or(cb.greaterThan(root.<T>get(field), value),
+                    cb.and(cb.equal(root.get(field), value), cb.greaterThan(root.get("id"), id)));
+        };
+    }
+    
+    /**
+     * Como {@link #after}, para um atributo que aceita nulos ordenado com os nulos por último
+     * (nas duas direções), seguidos pelo ID
+     * @param field atributo de ordenação
+     * @param value valor da chave do último item da página anterior; null se ele já estava entre os nulos
+     * @param id ID do último item da página anterior
+     * @param descending true se a ordenação for decrescente
+     */
+    public static <T extends Comparable<? super T>> Specification<User> afterNullsLast(String field, T value, Long id,
+                                                                                      boolean descending) {
+        return (root, query, cb) -> {
+            if (id == null) {
+                return null;
+            }
+            Predicate afterId = descending ? cb.lessThan(root.get("id"), id) : cb.greaterThan(root.get("id"), id);
+            if (value == null) {
+                return cb.and(cb.isNull(root.get(field)), afterId);
+            }
+            Predicate afterValue = descending ? cb.lessThan(root.<T>get(field), value)
+                    : cb.greaterThan(root.<T>get(field), value);
+            return cb.or(afterValue, cb.and(cb.equal(root.get(field), value), afterId), cb.isNull(root.get(field)));
+        };
+    }
+}
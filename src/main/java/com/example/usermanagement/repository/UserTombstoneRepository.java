@@ -0,0 +1,52 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.UserTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório dos registros de remoção de usuários (tabela user_tombstones)
+ */
+@Repository
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+    
+    /**
+     * Registra a remoção dos usuários informados com um único INSERT ... SELECT;
+     * deve ser chamado antes de removê-los (IDs inexistentes são ignorados). Escrito
+     * em HQL porque uma consulta nativa, sem as tabelas afetadas declaradas, faria o
+     * Hibernate esvaziar todas as regiões do cache de segundo nível
+     * @param ids IDs dos usuários
+     * @param deletedAt data da remoção
+     * @return número de registros gravados
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO UserTombstone (userId, deletedAt) " +
+           "SELECT u.id, :deletedAt FROM User u WHERE u.id IN :ids")
+    int insertForUserIdIn(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    /**
+     * IDs dos usuários removidos após a data informada
+     * @param since data de referência (exclusiva)
+     * @param pageable limite de resultados
+     * @return IDs ordenados pela data da remoção
+     */
+    @Query("SELECT t.userId FROM UserTombstone t WHERE t.deletedAt > :since ORDER BY t.deletedAt")
+    List<Long> findUserIdsDeletedAfter(@Param("since") LocalDateTime since, Pageable pageable);
+    
+    /**
+     * Remove os registros anteriores à data informada
+     * @param before data limite (exclusiva)
+     * @return número de registros removidos
+     */
+    @Modifying
+    @Query("DELETE FROM UserTombstone t WHERE t.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,111 @@
+package com.example.usermanagement.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor incremental de CSV (RFC 4180): lê um registro por vez, sem carregar a
+ * entrada em memória. Aceita campos entre aspas com vírgulas, quebras de linha e
+ * aspas duplicadas ({@code ""}), e linhas terminadas em LF ou CRLF.
+ */
+public class CsvReader implements Closeable {
+    
+    private static final int BUFFER_SIZE = 8192;
+    
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long line = 1;
+    
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+    
+    /**
+     * Lê o próximo registro
+     * @return campos do registro, ou null no fim da entrada
+     * @throws IOException se ocorrer erro de leitura ou se houver aspas não fechadas
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        long startLine = line;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Aspas não fechadas no registro iniciado na linha " + startLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    line++;
+                }
+                int last = field.length() - 1;
+                if (!wasQuoted && last >= 0 && field.charAt(last) == '\r') {
+                    field.setLength(last);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r' || !wasQuoted) {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+    
+    /**
+     * Linha atual da entrada (começando em 1)
+     */
+    public long getLine() {
+        return line;
+    }
+    
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -22,12 +23,28 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserPrincipalCache principalCache;
+    
+    @Autowired
+    private UserEmailFilter emailFilter;
+    
+    /**
+     * Carrega o usuário pelo email, usando o cache de principals
+     */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        UserDetails cached = principalCache.get(email, this::loadFromDatabase);
+        // Retorna uma cópia: o AuthenticationManager apaga a senha do principal após o login
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
+    
+    private UserPrincipalCache.Loaded loadFromDatabase(String email) {
+        // Emails que certamente não existem são recusados sem consulta
+        User user = (emailFilter.mightContain(email) ? userRepository.findByEmail(email) : Optional.<User>empty())
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
         
-        return org.springframework.security.core.userdetails.User.builder()
+        UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
                 .username(user.getEmail())
                 .password(user.getPassword())
                 .authorities(getAuthorities(user))
@@ -36,6 +53,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .credentialsExpired(false)
                 .disabled(!user.getActive())
                 .build();
+        return new UserPrincipalCache.Loaded(user.getId(), userDetails);
     }
     
     /**
@@ -0,0 +1,67 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.DashboardSummary;
+import com.example.usermanagement.model.UserCounters;
+import com.example.usermanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monta o resumo do dashboard com agregações feitas no banco, sem trazer a lista de usuários
+ */
+@Service
+@Transactional(readOnly = true)
+public class DashboardService {
+    
+    /**
+     * Número padrão e máximo de usuários recentes no resumo
+     */
+    public static final int DEFAULT_RECENT_USERS = 5;
+    public static final int MAX_RECENT_USERS = 50;
+    
+    /**
+     * Rótulos das faixas etárias, na ordem dos índices retornados por
+     * {@link UserRepository#countByAgeBucket()}
+     */
+    static final String[] AGE_RANGES = {"18-25", "26-35", "36-50", "50+"};
+    
+    private final UserRepository userRepository;
+    private final UserStatsService statsService;
+    
+    @Autowired
+    public DashboardService(UserRepository userRepository, UserStatsService statsService) {
+        this.userRepository = userRepository;
+        this.statsService = statsService;
+    }
+    
+    /**
+     * Retorna os totais (da linha de contadores), a distribuição por faixa etária
+     * (uma consulta agrupada) e os usuários alterados mais recentemente (pelo índice de updated_at)
+     * @param recent número de usuários recentes (limitado a {@link #MAX_RECENT_USERS})
+     * @return resumo do dashboard
+     */
+    public DashboardSummary getSummary(int recent) {
+        UserCounters counters = statsService.getStats();
+        
+        long[] counts = new long[AGE_RANGES.length];
+        for (Object[] row : userRepository.countByAgeBucket()) {
+            counts[((Number) row[0]).intValue()] = (Long) row[1];
+        }
+        List<DashboardSummary.AgeBucket> ageDistribution = new ArrayList<>(AGE_RANGES.length);
+        for (int i = 0; i < AGE_RANGES.length; i++) {
+            ageDistribution.add(new DashboardSummary.AgeBucket(AGE_RANGES[i], counts[i]));
+        }
+        
+        int limit = Math.max(0, Math.min(recent, MAX_RECENT_USERS));
+        List<DashboardSummary.RecentUser> recentUsers = limit == 0 ? List.of()
+                : userRepository.findRecentlyUpdated(PageRequest.of(0, limit));
+        
+        return new DashboardSummary(counters.getTotalUsers(), counters.getActiveUsers(),
+                counters.getInactiveUsers(), ageDistribution, recentUsers);
+    }
+}
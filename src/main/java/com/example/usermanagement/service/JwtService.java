@@ -1,18 +1,24 @@
 package com.example.usermanagement.service;
 
-import io.jsonwebtoken.Claims;
+import com.example.usermanagement.model.User;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Serviço para gerenciamento de tokens JWT
@@ -20,60 +26,87 @@ import java.util.function.Function;
 @Service
 public class JwtService {
     
-    @Value("${jwt.secret:mySecretKey}")
-    private String secret;
-    
-    @Value("${jwt.expiration:86400000}") // 24 horas
-    private Long expiration;
-    
     /**
-     * Extrai o username (email) do token
+     * Claims com as roles (sem o prefixo ROLE_) e o status de ativação do usuário
      */
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public static final String ROLES_CLAIM = "roles";
+    public static final String ACTIVE_CLAIM = "active";
+    
+    private static final String ROLE_PREFIX = "ROLE_";
+    
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expiration; // em milissegundos, 24 horas por padrão
+    private final VerifiedTokenCache tokenCache;
+    
+    public JwtService(String secret, long expiration) {
+        this(secret, expiration, new VerifiedTokenCache(0, 0));
     }
     
-    /**
-     * Extrai a data de expiração do token
-     */
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    @Autowired
+    public JwtService(@Value("${jwt.secret:mySecretKey}") String secret,
+                      @Value("${jwt.expiration:86400000}") long expiration,
+                      VerifiedTokenCache tokenCache) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.expiration = expiration;
+        this.tokenCache = tokenCache;
     }
     
     /**
-     * Extrai uma claim específica do token
+     * Verifica a assinatura e a expiração do token uma única vez e expõe suas claims.
+     * Tokens já verificados e ainda válidos são servidos pelo {@link VerifiedTokenCache}.
+     * @throws JwtException se o token é inválido, foi adulterado ou está expirado
+     * @throws IllegalArgumentException se o token está vazio
      */
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        VerifiedToken verified = VerifiedToken.of(parser.parseClaimsJws(token).getBody());
+        tokenCache.put(token, verified);
+        return verified;
     }
     
     /**
-     * Extrai todas as claims do token
+     * Extrai o username (email) do token
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String extractUsername(String token) {
+        return verify(token).getSubject();
     }
     
     /**
-     * Verifica se o token está expirado
+     * Extrai a data de expiração do token
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Date extractExpiration(String token) {
+        return verify(token).getExpiration();
     }
     
     /**
-     * Gera um token para o usuário
+     * Gera um token para o usuário, incluindo roles e status como claims
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith(ROLE_PREFIX)
+                        ? authority.substring(ROLE_PREFIX.length()) : authority)
+                .collect(Collectors.toList()));
+        claims.put(ACTIVE_CLAIM, userDetails.isEnabled());
         return createToken(claims, userDetails.getUsername());
     }
     
+    /**
+     * Gera um token para a entidade do usuário, incluindo roles e status como claims
+     */
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, user.getRoles().stream().map(Enum::name).collect(Collectors.toList()));
+        claims.put(ACTIVE_CLAIM, Boolean.TRUE.equals(user.getActive()));
+        return createToken(claims, user.getEmail());
+    }
+    
     /**
      * Gera um token para o email
      */
@@ -91,7 +124,7 @@ public class JwtService {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
@@ -99,8 +132,14 @@ public class JwtService {
      * Valida o token
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(verify(token), userDetails);
+    }
+    
+    /**
+     * Valida um token já verificado para o usuário
+     */
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject().equals(userDetails.getUsername()) && !token.isExpired();
     }
     
     /**
@@ -108,17 +147,38 @@ public class JwtService {
      */
     public Boolean validateToken(String token) {
         try {
-            return !isTokenExpired(token);
+            return !verify(token).isExpired();
         } catch (Exception e) {
             return false;
         }
     }
     
     /**
-     * Obtém a chave de assinatura
+     * Monta os detalhes do usuário apenas a partir das claims verificadas do token,
+     * sem consultar o banco de dados
+     * @return detalhes do usuário, ou null se o token não contém as claims de roles e status
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public UserDetails extractUserDetails(String token) {
+        return extractUserDetails(verify(token));
+    }
+    
+    /**
+     * Monta os detalhes do usuário a partir de um token já verificado
+     * @return detalhes do usuário, ou null se o token não contém as claims de roles e status
+     */
+    public UserDetails extractUserDetails(VerifiedToken token) {
+        if (!token.hasAuthorityClaims()) {
+            return null;
+        }
+        
+        Collection<GrantedAuthority> authorities = token.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role))
+                .collect(Collectors.toList());
+        return org.springframework.security.core.userdetails.User.builder()
+                .username(token.getSubject())
+                .password("")
+                .authorities(authorities)
+                .disabled(!token.getActive())
+                .build();
     }
 }
@@ -0,0 +1,43 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.UserIdentity;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Evento publicado pelo UserService após uma criação, ativação, desativação ou
+ * remoção em massa, com a identificação de todos os usuários atingidos. Permite que os
+ * caches e índices sejam invalidados de uma vez, em vez de um evento por usuário.
+ * Os ouvintes devem usar {@code @TransactionalEventListener}.
+ */
+public class UserBulkChangedEvent {
+    
+    private final UserChangedEvent.Type type;
+    private final List<UserIdentity> users;
+    
+    public UserBulkChangedEvent(UserChangedEvent.Type type, List<UserIdentity> users) {
+        this.type = type;
+        this.users = users;
+    }
+    
+    /**
+     * Tipo de alteração (CREATED, ACTIVATED, DEACTIVATED ou DELETED)
+     */
+    public UserChangedEvent.Type getType() {
+        return type;
+    }
+    
+    public List<UserIdentity> getUsers() {
+        return users;
+    }
+    
+    public List<Long> getUserIds() {
+        return users.stream().map(UserIdentity::getId).collect(Collectors.toList());
+    }
+    
+    public Set<String> getEmails() {
+        return users.stream().map(UserIdentity::getEmail).collect(Collectors.toSet());
+    }
+}
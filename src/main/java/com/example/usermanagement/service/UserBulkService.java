@@ -0,0 +1,215 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.BulkCreateResponse;
+import com.example.usermanagement.dto.BulkItemResult;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço para criação de usuários em massa
+ *
+ * A entrada (array JSON ou NDJSON) é lida em streaming e processada em blocos
+ * de {@link #CHUNK_SIZE} usuários. Cada bloco é validado, tem os emails
+ * duplicados descartados (na própria entrada e no banco, com uma única
+ * consulta), tem as senhas convertidas em hash no {@link PasswordHashingService}
+ * e é gravado em uma transação com INSERTs em lotes JDBC. Cada item recebe o seu
+ * resultado; falhas não interrompem os demais itens.
+ */
+@Service
+public class UserBulkService {
+    
+    public static final int CHUNK_SIZE = 500;
+    
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final UserEmailFilter emailFilter;
+    private final PasswordHashingService passwordHashingService;
+    private final Validator validator;
+    private final ObjectReader userReader;
+    
+    @Autowired
+    public UserBulkService(UserService userService, UserRepository userRepository, UserEmailFilter emailFilter,
+                           PasswordHashingService passwordHashingService, Validator validator,
+                           ObjectMapper objectMapper) {
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.emailFilter = emailFilter;
+        this.passwordHashingService = passwordHashingService;
+        this.validator = validator;
+        this.userReader = objectMapper.readerFor(User.class);
+    }
+    
+    /**
+     * Cria os usuários lidos da entrada
+     * @param in array JSON ou um objeto JSON por linha (não é fechado por este método)
+     * @return resultado de cada item, na ordem da entrada
+     * @throws IOException se ocorrer erro de leitura
+     */
+    public BulkCreateResponse createUsers(InputStream in) throws IOException {
+        List<BulkItemResult> results = new ArrayList<>();
+        LongAdder hashingNanos = new LongAdder();
+        Set<String> seenEmails = new HashSet<>();
+        List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+        
+        try (MappingIterator<User> users = userReader.readValues(in)) {
+            int index = 0;
+            while (true) {
+                User user;
+                try {
+                    if (!users.hasNextValue()) {
+                        break;
+                    }
+                    user = users.nextValue();
+                } catch (JsonParseException e) {
+                    // JSON malformado: não é possível continuar a leitura
+                    results.add(BulkItemResult.failed(index, null, "JSON inválido: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    results.add(BulkItemResult.failed(index++, null, "Dados inválidos: " + e.getOriginalMessage()));
+                    continue;
+                }
+                
+                String error = validate(user, seenEmails);
+                if (error != null) {
+                    results.add(BulkItemResult.failed(index++, user.getEmail(), error));
+                    continue;
+                }
+                chunk.add(new Item(index++, user));
+                if (chunk.size() == CHUNK_SIZE) {
+                    results.addAll(createChunk(chunk, hashingNanos));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(createChunk(chunk, hashingNanos));
+        }
+        
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return new BulkCreateResponse(results, TimeUnit.NANOSECONDS.toMillis(hashingNanos.sum()));
+    }
+    
+    private String validate(User user, Set<String> seenEmails) {
+        String error = validate(user);
+        if (error == null && !seenEmails.add(User.normalizeEmail(user.getEmail()))) {
+            return "Email duplicado na requisição: " + user.getEmail();
+        }
+        return error;
+    }
+    
+    /**
+     * Valida o usuário com as mesmas restrições da entidade
+     * @return mensagens das violações, ou null se o usuário é válido
+     */
+    public String validate(User user) {
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    /**
+     * Grava um bloco: descarta os emails já cadastrados, gera o hash das senhas dos demais e
+     * os insere em uma transação. Só os emails que o filtro de emails não descarta são
+     * consultados no banco.
+     * @param chunk usuários já validados e sem emails repetidos entre si, com as senhas em texto
+     * @return resultado de cada item (não necessariamente na ordem do bloco)
+     */
+    public List<BulkItemResult> createChunk(List<Item> chunk) {
+        return createChunk(chunk, new LongAdder());
+    }
+    
+    private List<BulkItemResult> createChunk(List<Item> chunk, LongAdder hashingNanos) {
+        List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        List<String> candidates = chunk.stream()
+                .map(item -> User.normalizeEmail(item.user.getEmail()))
+                .filter(emailFilter::mightContain)
+                .collect(Collectors.toList());
+        Set<String> existing = candidates.isEmpty() ? Set.of()
+                : new HashSet<>(userRepository.findExistingEmails(candidates));
+        
+        List<Item> pending = new ArrayList<>(chunk.size());
+        for (Item item : chunk) {
+            if (existing.contains(User.normalizeEmail(item.user.getEmail()))) {
+                results.add(BulkItemResult.failed(item.index, item.user.getEmail(),
+                        new EmailAlreadyInUseException(item.user.getEmail()).getMessage()));
+            } else {
+                pending.add(item);
+            }
+        }
+        if (pending.isEmpty()) {
+            return results;
+        }
+        
+        long start = System.nanoTime();
+        List<String> hashes = passwordHashingService.encodeAll(pending.stream()
+                .map(item -> item.user.getPassword())
+                .collect(Collectors.toList()));
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).user.setPassword(hashes.get(i));
+        }
+        hashingNanos.add(System.nanoTime() - start);
+        
+        try {
+            List<User> saved = userService.createUsers(pending.stream().map(item -> item.user)
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < saved.size(); i++) {
+                results.add(BulkItemResult.created(pending.get(i).index, saved.get(i).getId(), saved.get(i).getEmail()));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Um email foi cadastrado por outra requisição entre a consulta e o INSERT:
+            // o lote foi desfeito, então os itens são gravados um a um
+            for (Item item : pending) {
+                item.user.setId(null);
+                results.add(createOne(item));
+            }
+        }
+        return results;
+    }
+    
+    private BulkItemResult createOne(Item item) {
+        try {
+            User saved = userService.createUser(item.user);
+            return BulkItemResult.created(item.index, saved.getId(), saved.getEmail());
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+            return BulkItemResult.failed(item.index, item.user.getEmail(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Usuário com a sua posição na entrada
+     */
+    public static final class Item {
+        private final int index;
+        private final User user;
+        
+        public Item(int index, User user) {
+            this.index = index;
+            this.user = user;
+        }
+    }
+}
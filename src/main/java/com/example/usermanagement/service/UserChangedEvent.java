@@ -0,0 +1,60 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+
+/**
+ * Evento publicado pelo UserService a cada alteração de usuário.
+ * Os ouvintes devem usar {@code @TransactionalEventListener} para reagir
+ * somente após o commit da transação.
+ */
+public class UserChangedEvent {
+    
+    /**
+     * Tipo de alteração
+     */
+    public enum Type {
+        CREATED, UPDATED, ACTIVATED, DEACTIVATED, DELETED
+    }
+    
+    private final Type type;
+    private final Long userId;
+    private final User user;
+    private final String previousEmail;
+    
+    public UserChangedEvent(Type type, Long userId, User user, String previousEmail) {
+        this.type = type;
+        this.userId = userId;
+        this.user = user;
+        this.previousEmail = previousEmail;
+    }
+    
+    public static UserChangedEvent of(Type type, User user) {
+        return new UserChangedEvent(type, user.getId(), user, user.getEmail());
+    }
+    
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(Type.DELETED, userId, null, null);
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    /**
+     * Estado do usuário após a alteração (null quando o usuário foi removido)
+     */
+    public User getUser() {
+        return user;
+    }
+    
+    /**
+     * Email do usuário antes da alteração (null quando o usuário foi removido)
+     */
+    public String getPreviousEmail() {
+        return previousEmail;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.UserChanges;
+import com.example.usermanagement.dto.UserSummary;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.repository.UserTombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Sincronização incremental: usuários alterados e removidos desde uma marca d'água
+ *
+ * As alterações vêm do índice de updated_at (carimbado em toda escrita, inclusive
+ * nas em massa) e as remoções da tabela user_tombstones. A marca d'água devolvida
+ * fica {@code users.changes.overlap-ms} antes do início da consulta: uma transação
+ * que carimbou a data antes da consulta mas ainda não tinha feito commit aparece
+ * na chamada seguinte, e o cliente recebe algumas alterações repetidas, que são
+ * idempotentes. Os registros de remoção são mantidos por
+ * {@code users.changes.tombstone-retention-hours}; marcas d'água mais antigas
+ * que isso, ou com mais alterações que o limite, recebem um pedido de resync.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserChangesService {
+    
+    /**
+     * Número padrão e máximo de alterações por resposta; acima disso o cliente recarrega tudo
+     */
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 2000;
+    
+    private final UserRepository userRepository;
+    private final UserTombstoneRepository tombstoneRepository;
+    private final Duration overlap;
+    private final Duration tombstoneRetention;
+    
+    @Autowired
+    public UserChangesService(UserRepository userRepository, UserTombstoneRepository tombstoneRepository,
+                              @Value("${users.changes.overlap-ms:5000}") long overlapMillis,
+                              @Value("${users.changes.tombstone-retention-hours:168}") long retentionHours) {
+        this.userRepository = userRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.overlap = Duration.ofMillis(overlapMillis);
+        this.tombstoneRetention = Duration.ofHours(retentionHours);
+    }
+    
+    /**
+     * Busca as alterações desde a marca d'água
+     * @param since marca d'água da chamada anterior (null para obter apenas a marca d'água inicial)
+     * @param limit número máximo de alterações
+     * @return usuários alterados, IDs removidos e a nova marca d'água
+     * @throws IllegalArgumentException se a marca d'água for inválida
+     */
+    public UserChanges getChanges(String since, Integer limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime watermark = now.minus(overlap);
+        if (since == null || since.isEmpty()) {
+            return UserChanges.resync(watermark);
+        }
+        LocalDateTime sinceTime;
+        try {
+            sinceTime = LocalDateTime.parse(since);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Marca d'água inválida: " + since);
+        }
+        if (sinceTime.isBefore(now.minus(tombstoneRetention))) {
+            // Remoções desse período podem já ter sido descartadas
+            return UserChanges.resync(watermark);
+        }
+        
+        int max = limit == null || limit < 1 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        List<UserSummary> users = userRepository.findSummariesChangedAfter(sinceTime, PageRequest.of(0, max + 1));
+        if (users.size() > max) {
+            return UserChanges.resync(watermark);
+        }
+        List<Long> deletedIds = tombstoneRepository.findUserIdsDeletedAfter(sinceTime,
+                PageRequest.of(0, max - users.size() + 1));
+        if (users.size() + deletedIds.size() > max) {
+            return UserChanges.resync(watermark);
+        }
+        return new UserChanges(users, deletedIds, watermark, false);
+    }
+    
+    /**
+     * Remove os registros de remoção mais antigos que o prazo de retenção
+     * @return número de registros removidos
+     */
+    @Transactional
+    @Scheduled(initialDelayString = "${users.changes.prune-interval-ms:3600000}",
+               fixedDelayString = "${users.changes.prune-interval-ms:3600000}")
+    public int pruneTombstones() {
+        return tombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minus(tombstoneRetention));
+    }
+}
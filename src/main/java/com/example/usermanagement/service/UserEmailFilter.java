@@ -0,0 +1,349 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom em memória dos emails cadastrados, para responder sem consultar o
+ * banco que um email não existe
+ *
+ * Um resultado negativo de {@link #mightContain(String)} é definitivo: o email nunca foi
+ * adicionado ao filtro e a busca por ele no banco não encontraria nada. Um positivo
+ * pode ser falso, com probabilidade próxima de {@code users.email-filter.false-positive-rate},
+ * e então a consulta é feita normalmente. Os emails são normalizados como na coluna
+ * {@code email_normalized}, a mesma chave usada nas buscas por email.
+ *
+ * O filtro é construído na inicialização a partir dos emails do banco e dimensionado para
+ * {@code users.email-filter.expected-emails} emails (ou o número atual de usuários, se
+ * maior), limitado a {@code users.email-filter.max-bytes}; com 0 emails esperados fica
+ * desativado e todas as buscas vão ao banco. O {@link UserService} adiciona os emails antes
+ * de gravá-los (um rollback só deixa um falso positivo). Uma reconstrução não enxerga as
+ * gravações ainda não commitadas: os emails adicionados em transações em andamento ficam
+ * registrados até o fim da transação e são copiados para o novo filtro antes da troca, e
+ * os commits que terminam durante a leitura adicionam o email também ao filtro em
+ * construção. Assim um email commitado está sempre no filtro. Emails removidos ou
+ * substituídos não podem ser retirados de um filtro de Bloom: eles são contados, e o filtro
+ * é reconstruído quando metade das entradas está obsoleta ou a taxa estimada de falsos
+ * positivos passa do dobro da configurada.
+ * Até a primeira construção terminar, todo email é tratado como possivelmente cadastrado.
+ */
+@Component
+public class UserEmailFilter {
+    
+    /**
+     * Folga sobre o número atual de usuários ao dimensionar o filtro, para o crescimento
+     */
+    private static final double GROWTH_FACTOR = 1.25;
+    
+    private final UserRepository userRepository;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private final long maxBits;
+    
+    private volatile Bits bits;
+    // Filtro em construção: recebe também os emails adicionados durante a reconstrução
+    private Bits building;
+    // Emails adicionados por transações ainda não terminadas, com o número de transações
+    private final Map<String, Integer> uncommitted = new HashMap<>();
+    private final Object rebuildLock = new Object();
+    
+    private final AtomicLong removed = new AtomicLong();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    
+    public UserEmailFilter(UserRepository userRepository,
+                           @Value("${users.email-filter.expected-emails:100000}") long expectedEmails,
+                           @Value("${users.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${users.email-filter.max-bytes:8388608}") long maxBytes) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("users.email-filter.false-positive-rate deve estar entre 0 e 1");
+        }
+        this.userRepository = userRepository;
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxBits = Math.max(Long.SIZE, maxBytes * Byte.SIZE);
+    }
+    
+    public boolean isEnabled() {
+        return expectedEmails > 0;
+    }
+    
+    /**
+     * Indica se o filtro já foi construído e responde negativos definitivos
+     */
+    public boolean isReady() {
+        return bits != null;
+    }
+    
+    /**
+     * Verifica se o email pode estar cadastrado
+     * @param email email a ser verificado
+     * @return false somente se o email certamente não está cadastrado
+     */
+    public boolean mightContain(String email) {
+        Bits current = bits;
+        if (current == null || email == null) {
+            return true;
+        }
+        boolean result = current.mightContain(normalize(email));
+        (result ? positives : negatives).increment();
+        return result;
+    }
+    
+    /**
+     * Adiciona um email ao filtro; deve ser chamado antes de o email ser gravado
+     */
+    public void put(String email) {
+        if (email != null) {
+            putAll(List.of(email));
+        }
+    }
+    
+    /**
+     * Adiciona vários emails ao filtro; deve ser chamado antes de os emails serem gravados.
+     * Dentro de uma transação, os emails ficam registrados como não commitados até o seu fim.
+     */
+    public synchronized void putAll(Collection<String> emails) {
+        List<String> normalized = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            if (email != null) {
+                normalized.add(normalize(email));
+            }
+        }
+        for (String email : normalized) {
+            add(email);
+        }
+        if (!normalized.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            normalized.forEach(email -> uncommitted.merge(email, 1, Integer::sum));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    completed(normalized);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Fim da transação que gravou os emails: se uma reconstrução está lendo o banco, o
+     * commit pode ter acontecido depois do início da leitura, então o email vai também
+     * para o filtro em construção
+     */
+    private synchronized void completed(List<String> emails) {
+        for (String email : emails) {
+            if (building != null) {
+                building.put(email);
+            }
+            uncommitted.computeIfPresent(email, (key, count) -> count == 1 ? null : count - 1);
+        }
+    }
+    
+    private void add(String normalized) {
+        if (bits != null) {
+            bits.put(normalized);
+        }
+        if (building != null) {
+            building.put(normalized);
+        }
+    }
+    
+    /**
+     * Registra emails que deixaram de existir (usuários removidos ou emails alterados),
+     * que continuam no filtro até a próxima reconstrução
+     */
+    public void removed(long count) {
+        if (count > 0) {
+            removed.addAndGet(count);
+        }
+    }
+    
+    /**
+     * Constrói o filtro a partir dos emails do banco. Os emails adicionados durante a
+     * leitura e os de transações ainda não commitadas entram também no novo filtro, que
+     * substitui o atual ao final.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            long capacity = Math.max(expectedEmails, (long) (userRepository.count() * GROWTH_FACTOR));
+            Bits next = Bits.create(capacity, falsePositiveRate, maxBits);
+            synchronized (this) {
+                building = next;
+            }
+            try (Stream<String> emails = userRepository.streamEmailsBy()) {
+                emails.forEach(email -> next.put(normalize(email)));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    building = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                uncommitted.keySet().forEach(next::put);
+                bits = next;
+                building = null;
+                removed.set(0);
+            }
+        }
+        rebuilds.increment();
+    }
+    
+    /**
+     * Reconstrói o filtro, no intervalo configurado, se ele estiver saturado
+     * @return true se o filtro foi reconstruído
+     */
+    @Scheduled(initialDelayString = "${users.email-filter.check-interval-ms:600000}",
+               fixedDelayString = "${users.email-filter.check-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public boolean rebuildIfSaturated() {
+        Bits current = bits;
+        if (current == null) {
+            return false;
+        }
+        boolean stale = removed.get() * 2 > current.entries.get();
+        if (!stale && current.estimatedFalsePositiveRate() <= falsePositiveRate * 2) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+    
+    /**
+     * Dimensões, ocupação e efetividade do filtro
+     */
+    public Map<String, Object> stats() {
+        Bits current = bits;
+        long negativeCount = negatives.sum();
+        long positiveCount = positives.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("ready", current != null);
+        stats.put("expectedEmails", expectedEmails);
+        stats.put("falsePositiveRate", falsePositiveRate);
+        if (current != null) {
+            stats.put("bytes", current.size / Byte.SIZE);
+            stats.put("hashFunctions", current.hashes);
+            stats.put("entries", current.entries.get());
+            stats.put("estimatedFalsePositiveRate", current.estimatedFalsePositiveRate());
+        }
+        stats.put("removed", removed.get());
+        stats.put("negatives", negativeCount);
+        stats.put("positives", positiveCount);
+        stats.put("negativeRate", negativeCount + positiveCount == 0 ? 0.0
+                : (double) negativeCount / (negativeCount + positiveCount));
+        stats.put("rebuilds", rebuilds.sum());
+        return stats;
+    }
+    
+    static String normalize(String email) {
+        return User.normalizeEmail(email);
+    }
+    
+    /**
+     * Vetor de bits com k posições por email, obtidas por hashing duplo
+     */
+    static final class Bits {
+        
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+        private final AtomicLong entries = new AtomicLong();
+        
+        private Bits(long size, int hashes) {
+            this.words = new AtomicLongArray((int) (size / Long.SIZE));
+            this.size = size;
+            this.hashes = hashes;
+        }
+        
+        /**
+         * Tamanho ótimo m = -n·ln(p) / ln(2)², limitado a maxBits e arredondado para
+         * palavras de 64 bits, e k = (m / n)·ln(2) funções de hash
+         */
+        static Bits create(long capacity, double falsePositiveRate, long maxBits) {
+            long n = Math.max(1, capacity);
+            double optimal = -n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            long limit = Math.min(maxBits, (long) Integer.MAX_VALUE * Long.SIZE);
+            long size = (Math.min((long) Math.ceil(optimal), limit) + Long.SIZE - 1) / Long.SIZE * Long.SIZE;
+            int hashes = (int) Math.max(1, Math.round((double) size / n * Math.log(2)));
+            return new Bits(size, hashes);
+        }
+        
+        void put(String email) {
+            long h1 = hash(email, 0x9E3779B97F4A7C15L);
+            long h2 = hash(email, 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long index = Math.floorMod(h1 + i * h2, size);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long value;
+                do {
+                    value = words.get(word);
+                } while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+            }
+            entries.incrementAndGet();
+        }
+        
+        boolean mightContain(String email) {
+            long h1 = hash(email, 0x9E3779B97F4A7C15L);
+            long h2 = hash(email, 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long index = Math.floorMod(h1 + i * h2, size);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /**
+         * Taxa de falsos positivos pela fração de bits ligados: (bits ligados / m)^k
+         */
+        double estimatedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / size, hashes);
+        }
+        
+        /**
+         * Hash de 64 bits dos caracteres com a finalização do MurmurHash3
+         */
+        private static long hash(String value, long seed) {
+            long h = seed ^ value.length();
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Métricas do cache de segundo nível de usuários, papéis e emails, a partir das
+ * estatísticas do Hibernate ({@code hibernate.generate_statistics})
+ */
+@Component
+public class UserEntityCache {
+    
+    private static final List<String> REGIONS = List.of(User.CACHE_REGION, User.ROLES_CACHE_REGION,
+            User.EMAIL_CACHE_REGION);
+    
+    private final SessionFactory sessionFactory;
+    
+    public UserEntityCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+    
+    public boolean isEnabled() {
+        return sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+    }
+    
+    /**
+     * Acertos, faltas e inserções por região, e o número de comandos JDBC preparados
+     */
+    public Map<String, Object> stats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        if (isEnabled()) {
+            for (String region : REGIONS) {
+                CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+                long hits = regionStatistics.getHitCount();
+                long misses = regionStatistics.getMissCount();
+                Map<String, Object> regionStats = new LinkedHashMap<>();
+                regionStats.put("hits", hits);
+                regionStats.put("misses", misses);
+                regionStats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+                regionStats.put("puts", regionStatistics.getPutCount());
+                stats.put(region, regionStats);
+            }
+        }
+        stats.put("jdbcStatements", statistics.getPrepareStatementCount());
+        return stats;
+    }
+}
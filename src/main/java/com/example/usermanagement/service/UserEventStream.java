@@ -0,0 +1,326 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.UserChangeNotification;
+import com.example.usermanagement.dto.UserStatsNotification;
+import com.example.usermanagement.model.UserCounters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stream de eventos (Server-Sent Events) com as alterações de usuários e as estatísticas
+ *
+ * As conexões são requisições assíncronas: enquanto não há evento, nenhuma thread
+ * fica presa a elas. As alterações chegam após o commit pelos eventos do
+ * {@link UserService} e são entregues por um pool pequeno, uma tarefa por cliente
+ * com eventos pendentes. As estatísticas são lidas uma vez por rajada de alterações
+ * (e não uma vez por cliente) e, se o cliente ainda não recebeu a anterior, substituem-na
+ * somando as variações. Um cliente que acumula mais alterações que o limite da fila
+ * recebe um único evento {@code resync} (e deve recarregar os dados); um cliente que
+ * não recebe nada durante um intervalo inteiro de heartbeat é desconectado.
+ */
+@Component
+public class UserEventStream {
+    
+    /**
+     * Número máximo de IDs em uma notificação de alteração; acima disso só o total é enviado
+     */
+    public static final int MAX_IDS_PER_EVENT = 100;
+    
+    private final UserStatsService statsService;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final int retryAfterSeconds;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong pendingActiveDelta = new AtomicLong();
+    private final AtomicLong pendingInactiveDelta = new AtomicLong();
+    private final AtomicBoolean statsScheduled = new AtomicBoolean();
+    
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder statsReads = new LongAdder();
+    
+    @Autowired
+    public UserEventStream(UserStatsService statsService,
+                           @Value("${users.events.threads:2}") int threads,
+                           @Value("${users.events.queue-capacity:64}") int queueCapacity,
+                           @Value("${users.events.max-subscribers:1000}") int maxSubscribers,
+                           @Value("${users.events.timeout-ms:1800000}") long timeoutMillis,
+                           @Value("${users.events.retry-after-seconds:30}") int retryAfterSeconds) {
+        this.statsService = statsService;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "user-events-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+    
+    /**
+     * Abre uma conexão; o primeiro evento são as estatísticas atuais
+     * @return emitter a ser devolvido pelo controller
+     * @throws RejectedExecutionException se o limite de conexões foi atingido
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RejectedExecutionException("Limite de conexões do stream de eventos atingido");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        
+        UserCounters counters = statsService.getStats();
+        subscriber.offerStats(new UserStatsNotification(counters.getTotalUsers(), counters.getActiveUsers(),
+                counters.getInactiveUsers(), 0, 0));
+        return emitter;
+    }
+    
+    /**
+     * Publica a alteração de um usuário após o commit
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        broadcast(new UserChangeNotification(event.getType().name(), List.of(event.getUserId()), 1));
+    }
+    
+    /**
+     * Publica uma alteração em massa após o commit; com muitos usuários, apenas o total
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UserBulkChangedEvent event) {
+        int count = event.getUsers().size();
+        broadcast(new UserChangeNotification(event.getType().name(),
+                count <= MAX_IDS_PER_EVENT ? event.getUserIds() : null, count));
+    }
+    
+    /**
+     * Acumula a variação dos contadores e agenda uma única leitura das estatísticas
+     * para todas as alterações que chegarem até ela ser executada
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatsChanged(UserStatsChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        pendingActiveDelta.addAndGet(event.getActiveDelta());
+        pendingInactiveDelta.addAndGet(event.getInactiveDelta());
+        if (statsScheduled.compareAndSet(false, true)) {
+            executor.execute(this::broadcastStats);
+        }
+    }
+    
+    /**
+     * Envia um heartbeat (comentário SSE), que também detecta conexões encerradas
+     * e desconecta os clientes que não receberam o heartbeat anterior
+     */
+    @Scheduled(initialDelayString = "${users.events.heartbeat-ms:20000}",
+               fixedDelayString = "${users.events.heartbeat-ms:20000}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::offerHeartbeat);
+    }
+    
+    /**
+     * Métricas do stream
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("sent", sent.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("statsReads", statsReads.sum());
+        return stats;
+    }
+    
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+    
+    private void broadcast(UserChangeNotification notification) {
+        subscribers.forEach(subscriber -> subscriber.offerChange(notification));
+    }
+    
+    private void broadcastStats() {
+        statsScheduled.set(false);
+        long activeDelta = pendingActiveDelta.getAndSet(0);
+        long inactiveDelta = pendingInactiveDelta.getAndSet(0);
+        UserCounters counters = statsService.getStats();
+        statsReads.increment();
+        UserStatsNotification notification = new UserStatsNotification(counters.getTotalUsers(),
+                counters.getActiveUsers(), counters.getInactiveUsers(), activeDelta, inactiveDelta);
+        subscribers.forEach(subscriber -> subscriber.offerStats(notification));
+    }
+    
+    /**
+     * Conexão de um cliente com os eventos ainda não enviados a ele
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final ArrayDeque<UserChangeNotification> changes = new ArrayDeque<>();
+        private UserStatsNotification stats;
+        private boolean resync;
+        private boolean heartbeat;
+        private boolean closed;
+        
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        void offerChange(UserChangeNotification change) {
+            synchronized (this) {
+                if (closed || resync) {
+                    // Com um resync pendente o cliente vai recarregar tudo
+                    return;
+                }
+                if (changes.size() < queueCapacity) {
+                    changes.add(change);
+                } else {
+                    changes.clear();
+                    resync = true;
+                    coalesced.increment();
+                }
+            }
+            schedule();
+        }
+        
+        void offerStats(UserStatsNotification notification) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                stats = stats == null ? notification : stats.merge(notification);
+            }
+            schedule();
+        }
+        
+        void offerHeartbeat() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (heartbeat) {
+                    drop();
+                    return;
+                }
+                heartbeat = true;
+            }
+            schedule();
+        }
+        
+        /**
+         * Agenda o envio, se ainda não houver uma tarefa de envio para este cliente
+         */
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+        
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = next();
+                    if (event == null) {
+                        draining.set(false);
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                    sent.increment();
+                } catch (IOException | IllegalStateException e) {
+                    // Conexão encerrada pelo cliente ou pelo timeout
+                    synchronized (this) {
+                        closed = true;
+                        draining.set(false);
+                    }
+                    subscribers.remove(this);
+                    return;
+                }
+            }
+        }
+        
+        private SseEmitter.SseEventBuilder next() {
+            if (closed) {
+                return null;
+            }
+            if (resync) {
+                resync = false;
+                return SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON);
+            }
+            UserChangeNotification change = changes.poll();
+            if (change != null) {
+                return SseEmitter.event().name("user").data(change, MediaType.APPLICATION_JSON);
+            }
+            if (stats != null) {
+                UserStatsNotification notification = stats;
+                stats = null;
+                return SseEmitter.event().name("stats").data(notification, MediaType.APPLICATION_JSON);
+            }
+            if (heartbeat) {
+                heartbeat = false;
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return null;
+        }
+        
+        /**
+         * Desconecta o cliente lento; o complete roda no pool porque espera um envio em andamento
+         */
+        private void drop() {
+            closed = true;
+            changes.clear();
+            stats = null;
+            subscribers.remove(this);
+            dropped.increment();
+            executor.execute(emitter::complete);
+        }
+    }
+}
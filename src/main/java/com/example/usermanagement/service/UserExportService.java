@@ -0,0 +1,88 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Serviço para exportação em streaming dos usuários no formato NDJSON
+ *
+ * Os usuários são lidos por um cursor forward-only e cada entidade é
+ * descartada do contexto de persistência assim que é escrita, mantendo o uso
+ * de memória constante independentemente do tamanho da tabela. A leitura não
+ * passa pelo cache de segundo nível, para não substituir as entradas usadas
+ * pelas requisições. O hash da senha não é exportado.
+ */
+@Service
+public class UserExportService {
+    
+    private static final byte[] NEWLINE = {'\n'};
+    
+    private final UserRepository userRepository;
+    private final ObjectWriter userWriter;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.userWriter = objectMapper.copy()
+                .addMixIn(User.class, ExportedUser.class)
+                .writerFor(User.class);
+    }
+    
+    /**
+     * Escreve todos os usuários, um objeto JSON por linha
+     * @param out stream de saída (não é fechado por este método)
+     * @return número de usuários exportados
+     * @throws IOException se ocorrer erro de escrita
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream out) throws IOException {
+        // O hint da consulta só vale ao abrir o cursor; as linhas lidas depois usam o modo da sessão
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        long count = 0;
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                out.write(userWriter.writeValueAsBytes(user));
+                out.write(NEWLINE);
+                entityManager.detach(user);
+                
+                if (++count % UserRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        out.flush();
+        return count;
+    }
+    
+    /**
+     * Campos do usuário omitidos na exportação
+     */
+    @JsonIgnoreProperties({"password"})
+    private abstract static class ExportedUser {
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.BulkItemResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progresso de uma importação de usuários (GET /api/users/import/{id})
+ *
+ * Os contadores são atualizados pela leitura do CSV e pela gravação dos lotes
+ * enquanto a importação roda; apenas as primeiras {@link #MAX_ERRORS} falhas
+ * são guardadas, para que o uso de memória não dependa do tamanho do arquivo.
+ */
+public class UserImportJob {
+    
+    public static final int MAX_ERRORS = 100;
+    
+    /**
+     * Situação da importação
+     */
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+    
+    private final String id = UUID.randomUUID().toString();
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger queuedBatches = new AtomicInteger();
+    private final List<BulkItemResult> errors = new ArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String message;
+    
+    public String getId() {
+        return id;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+    
+    /**
+     * Linhas de dados lidas do CSV (sem o cabeçalho)
+     */
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+    
+    public long getImported() {
+        return imported.get();
+    }
+    
+    public long getFailed() {
+        return failed.get();
+    }
+    
+    /**
+     * Lotes lidos que aguardam gravação
+     */
+    public int getQueuedBatches() {
+        return queuedBatches.get();
+    }
+    
+    /**
+     * Linhas lidas por segundo desde o início
+     */
+    public double getRowsPerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return rowsRead.get() * 1000.0 / millis;
+    }
+    
+    /**
+     * Motivo da falha da importação (null se não falhou)
+     */
+    public String getMessage() {
+        return message;
+    }
+    
+    /**
+     * Primeiras falhas por linha; {@code index} é o número da linha de dados (começando em 1)
+     */
+    public synchronized List<BulkItemResult> getErrors() {
+        return new ArrayList<>(errors);
+    }
+    
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+    
+    void batchQueued() {
+        queuedBatches.incrementAndGet();
+    }
+    
+    void batchWritten() {
+        queuedBatches.decrementAndGet();
+    }
+    
+    void record(BulkItemResult result) {
+        if (result.getStatus() == BulkItemResult.Status.CREATED) {
+            imported.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+            synchronized (this) {
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add(result);
+                }
+            }
+        }
+    }
+    
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+    
+    void fail(String message) {
+        this.message = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+}
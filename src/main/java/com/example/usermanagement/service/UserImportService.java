@@ -0,0 +1,295 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.BulkItemResult;
+import com.example.usermanagement.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importação de usuários a partir de CSV em streaming
+ *
+ * A thread da requisição lê o CSV incrementalmente, valida cada linha com as
+ * restrições da entidade e monta lotes de tamanho fixo, descartando emails
+ * repetidos dentro do lote. Os lotes passam por uma fila limitada para uma
+ * thread de gravação, que gera o hash das senhas e os insere pelo
+ * {@link UserBulkService} (emails já cadastrados, inclusive por lotes anteriores
+ * do mesmo arquivo, viram falhas da linha). Quando a gravação não acompanha a leitura a fila enche e a leitura
+ * bloqueia, o que segura o envio do cliente: a memória usada depende apenas do
+ * tamanho do lote e da fila, não do tamanho do arquivo.
+ *
+ * O número de importações simultâneas é limitado; acima dele a importação é
+ * rejeitada com {@link RejectedExecutionException}.
+ */
+@Service
+public class UserImportService {
+    
+    /**
+     * Colunas obrigatórias do cabeçalho; as opcionais são phone, age e active
+     */
+    public static final List<String> REQUIRED_COLUMNS = List.of("name", "email", "password");
+    
+    /**
+     * Marcador de fim da entrada na fila de lotes
+     */
+    private static final List<UserBulkService.Item> END_OF_INPUT = Collections.emptyList();
+    
+    private final UserBulkService userBulkService;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int historySize;
+    private final int retryAfterSeconds;
+    private final ThreadPoolExecutor writers;
+    private final Map<String, UserImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>());
+    
+    public UserImportService(UserBulkService userBulkService,
+                             @Value("${users.import.batch-size:500}") int batchSize,
+                             @Value("${users.import.queue-capacity:4}") int queueCapacity,
+                             @Value("${users.import.max-concurrent:2}") int maxConcurrent,
+                             @Value("${users.import.history-size:20}") int historySize,
+                             @Value("${users.import.retry-after-seconds:30}") int retryAfterSeconds) {
+        this.userBulkService = userBulkService;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.historySize = historySize;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger counter = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    /**
+     * Importa os usuários do CSV; retorna quando todas as linhas foram gravadas
+     * @param in CSV em UTF-8 com cabeçalho (não é fechado por este método)
+     * @return situação final da importação
+     * @throws RejectedExecutionException se o limite de importações simultâneas foi atingido
+     */
+    public UserImportJob importCsv(InputStream in) {
+        UserImportJob job = new UserImportJob();
+        BlockingQueue<List<UserBulkService.Item>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Future<?> writer = writers.submit(() -> write(job, queue));
+        register(job);
+        
+        try {
+            read(job, new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8)), queue, writer);
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            job.fail(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Importação interrompida");
+        } finally {
+            finish(job, queue, writer);
+        }
+        return job;
+    }
+    
+    /**
+     * Busca uma importação recente pelo ID
+     */
+    public Optional<UserImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+    
+    /**
+     * Importações recentes, da mais nova para a mais antiga
+     */
+    public List<UserImportJob> getJobs() {
+        List<UserImportJob> recent;
+        synchronized (jobs) {
+            recent = new ArrayList<>(jobs.values());
+        }
+        recent.sort(Comparator.comparing(UserImportJob::getStartedAt).reversed());
+        return recent;
+    }
+    
+    /**
+     * Segundos sugeridos no header Retry-After quando uma importação é rejeitada
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+    
+    private void read(UserImportJob job, CsvReader csv, BlockingQueue<List<UserBulkService.Item>> queue,
+                      Future<?> writer) throws IOException, InterruptedException {
+        Map<String, Integer> columns = readHeader(csv.readRecord());
+        List<UserBulkService.Item> batch = new ArrayList<>(batchSize);
+        Set<String> batchEmails = new HashSet<>();
+        int row = 0;
+        
+        for (List<String> record = csv.readRecord(); record != null; record = csv.readRecord()) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            row++;
+            job.rowRead();
+            
+            User user = new User();
+            String error = toUser(record, columns, user);
+            if (error == null) {
+                error = userBulkService.validate(user);
+            }
+            if (error == null && !batchEmails.add(User.normalizeEmail(user.getEmail()))) {
+                error = "Email duplicado no arquivo: " + user.getEmail();
+            }
+            if (error != null) {
+                job.record(BulkItemResult.failed(row, user.getEmail(), error));
+                continue;
+            }
+            
+            batch.add(new UserBulkService.Item(row, user));
+            if (batch.size() == batchSize) {
+                enqueue(job, queue, batch, writer);
+                batch = new ArrayList<>(batchSize);
+                batchEmails.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            enqueue(job, queue, batch, writer);
+        }
+    }
+    
+    private Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV vazio");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("O cabeçalho do CSV deve conter as colunas " + REQUIRED_COLUMNS);
+            }
+        }
+        return columns;
+    }
+    
+    /**
+     * Preenche o usuário com os campos da linha
+     * @return mensagem de erro de conversão, ou null
+     */
+    private String toUser(List<String> record, Map<String, Integer> columns, User user) {
+        user.setName(field(record, columns, "name"));
+        user.setEmail(field(record, columns, "email"));
+        user.setPassword(field(record, columns, "password"));
+        user.setPhone(field(record, columns, "phone"));
+        
+        String age = field(record, columns, "age");
+        if (age != null) {
+            try {
+                user.setAge(Integer.valueOf(age));
+            } catch (NumberFormatException e) {
+                return "Idade inválida: " + age;
+            }
+        }
+        String active = field(record, columns, "active");
+        if (active != null) {
+            if (!"true".equalsIgnoreCase(active) && !"false".equalsIgnoreCase(active)) {
+                return "Valor inválido para active: " + active;
+            }
+            user.setActive(Boolean.valueOf(active));
+        }
+        return null;
+    }
+    
+    private String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    /**
+     * Entrega o lote à gravação, bloqueando enquanto a fila está cheia (backpressure)
+     */
+    private void enqueue(UserImportJob job, BlockingQueue<List<UserBulkService.Item>> queue,
+                         List<UserBulkService.Item> batch, Future<?> writer) throws InterruptedException {
+        job.batchQueued();
+        while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                throw new IllegalStateException("A gravação dos lotes foi interrompida");
+            }
+        }
+    }
+    
+    /**
+     * Grava os lotes da fila até o marcador de fim da entrada
+     */
+    private void write(UserImportJob job, BlockingQueue<List<UserBulkService.Item>> queue) {
+        try {
+            List<UserBulkService.Item> batch;
+            while ((batch = queue.take()) != END_OF_INPUT) {
+                for (BulkItemResult result : userBulkService.createChunk(batch)) {
+                    job.record(result);
+                }
+                job.batchWritten();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Sinaliza o fim da entrada e aguarda a gravação dos lotes pendentes
+     */
+    private void finish(UserImportJob job, BlockingQueue<List<UserBulkService.Item>> queue, Future<?> writer) {
+        try {
+            while (!writer.isDone() && !queue.offer(END_OF_INPUT, 100, TimeUnit.MILLISECONDS)) {
+                // aguarda espaço na fila para o marcador de fim
+            }
+            writer.get();
+            if (job.getStatus() == UserImportJob.Status.RUNNING) {
+                job.complete();
+            }
+        } catch (ExecutionException e) {
+            job.fail("Erro ao gravar os usuários: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.cancel(true);
+            job.fail("Importação interrompida");
+        }
+    }
+    
+    private void register(UserImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            jobs.values().removeIf(j -> jobs.size() > historySize && j.getStatus() != UserImportJob.Status.RUNNING);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+}
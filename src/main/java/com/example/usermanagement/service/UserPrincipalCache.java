@@ -0,0 +1,235 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache dos detalhes de autenticação (principal) dos usuários, indexado pelo email
+ *
+ * Evita a consulta ao banco e a montagem das authorities a cada requisição
+ * autenticada. As entradas são invalidadas pelos {@link UserChangedEvent} de
+ * atualização, ativação, desativação e remoção publicados pelo
+ * {@link UserService}. Como proteção contra invalidações perdidas (outra
+ * instância da aplicação ou alteração direta no banco), nenhuma entrada é usada
+ * por mais de {@code users.principal-cache.max-age-seconds}: esse é o prazo
+ * máximo para uma desativação valer. O cache guarda no máximo
+ * {@code users.principal-cache.max-size} usuários: ao atingir o limite as
+ * entradas vencidas são descartadas e, se necessário, uma fração das demais.
+ * Com qualquer um dos dois valores em 0 o cache fica desativado.
+ *
+ * Faltas simultâneas para o mesmo email fazem uma única consulta: a primeira
+ * requisição carrega o usuário e as demais aguardam o mesmo resultado.
+ */
+@Component
+public class UserPrincipalCache {
+    
+    private final long maxAgeNanos;
+    private final int maxSize;
+    private final Map<String, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public UserPrincipalCache(@Value("${users.principal-cache.max-age-seconds:30}") long maxAgeSeconds,
+                              @Value("${users.principal-cache.max-size:10000}") int maxSize) {
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+        this.maxSize = maxSize;
+    }
+    
+    public boolean isEnabled() {
+        return maxAgeNanos > 0 && maxSize > 0;
+    }
+    
+    /**
+     * Retorna os detalhes do usuário, carregando-os com o loader em caso de falta
+     * @param email email do usuário
+     * @param loader carrega o usuário do banco; exceções são repassadas a todos os que aguardam
+     * @return detalhes do usuário (o objeto em cache é compartilhado e não deve ser alterado)
+     */
+    public UserDetails get(String email, Function<String, Loaded> loader) {
+        if (!isEnabled()) {
+            return loader.apply(email).userDetails;
+        }
+        // Emails que diferem só em maiúsculas são o mesmo usuário e a mesma entrada
+        email = User.normalizeEmail(email);
+        
+        while (true) {
+            CompletableFuture<Entry> future = entries.get(email);
+            if (future == null) {
+                if (entries.size() >= maxSize) {
+                    shrink(System.nanoTime());
+                }
+                CompletableFuture<Entry> created = new CompletableFuture<>();
+                future = entries.putIfAbsent(email, created);
+                if (future == null) {
+                    misses.increment();
+                    return load(email, created, loader).userDetails;
+                }
+            }
+            
+            Entry entry;
+            try {
+                entry = future.join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+            if (System.nanoTime() - entry.loadedAt < maxAgeNanos) {
+                hits.increment();
+                return entry.userDetails;
+            }
+            // Entrada vencida: descarta e recarrega
+            entries.remove(email, future);
+        }
+    }
+    
+    /**
+     * Remove um usuário do cache
+     */
+    public void invalidate(String email) {
+        if (email != null && entries.remove(User.normalizeEmail(email)) != null) {
+            invalidations.increment();
+        }
+    }
+    
+    /**
+     * Invalida o usuário após o commit de qualquer alteração que afete a autenticação
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getType() == UserChangedEvent.Type.CREATED) {
+            return;
+        }
+        invalidate(event.getPreviousEmail());
+        if (event.getUser() != null) {
+            invalidate(event.getUser().getEmail());
+        }
+        if (event.getType() == UserChangedEvent.Type.DELETED) {
+            // O evento de remoção só traz o ID
+            entries.entrySet().removeIf(e -> {
+                CompletableFuture<Entry> future = e.getValue();
+                boolean matches = future.isDone() && !future.isCompletedExceptionally()
+                        && event.getUserId().equals(future.join().userId);
+                if (matches) {
+                    invalidations.increment();
+                }
+                return matches;
+            });
+        }
+    }
+    
+    /**
+     * Invalida os usuários ativados, desativados ou removidos em massa após o commit
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UserBulkChangedEvent event) {
+        if (event.getType() != UserChangedEvent.Type.CREATED) {
+            event.getEmails().forEach(this::invalidate);
+        }
+    }
+    
+    public void clear() {
+        entries.clear();
+    }
+    
+    /**
+     * Métricas do cache
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("maxAgeSeconds", TimeUnit.NANOSECONDS.toSeconds(maxAgeNanos));
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("invalidations", invalidations.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+    
+    /**
+     * Libera espaço: remove as entradas vencidas e, se o cache continuar cheio,
+     * cerca de 10% das demais (as cargas em andamento não são descartadas)
+     */
+    private void shrink(long now) {
+        entries.values().removeIf(future -> {
+            boolean expired = future.isDone() && (future.isCompletedExceptionally()
+                    || now - future.join().loadedAt >= maxAgeNanos);
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<CompletableFuture<Entry>> iterator = entries.values().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            if (iterator.next().isDone()) {
+                iterator.remove();
+                evictions.increment();
+                excess--;
+            }
+        }
+    }
+    
+    private Entry load(String email, CompletableFuture<Entry> future, Function<String, Loaded> loader) {
+        try {
+            Loaded loaded = loader.apply(email);
+            Entry entry = new Entry(loaded.userId, loaded.userDetails, System.nanoTime());
+            future.complete(entry);
+            return entry;
+        } catch (RuntimeException | Error e) {
+            // Falhas (ex.: usuário inexistente) não ficam em cache
+            entries.remove(email, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    private static RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+    
+    /**
+     * Resultado do carregamento de um usuário
+     */
+    public static final class Loaded {
+        private final Long userId;
+        private final UserDetails userDetails;
+        
+        public Loaded(Long userId, UserDetails userDetails) {
+            this.userId = userId;
+            this.userDetails = userDetails;
+        }
+    }
+    
+    private static final class Entry {
+        private final Long userId;
+        private final UserDetails userDetails;
+        private final long loadedAt;
+        
+        Entry(Long userId, UserDetails userDetails, long loadedAt) {
+            this.userId = userId;
+            this.userDetails = userDetails;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
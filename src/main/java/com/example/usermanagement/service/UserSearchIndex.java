@@ -0,0 +1,460 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.UserIdentity;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas em memória sobre o nome e o email dos usuários
+ *
+ * Substitui o {@code LOWER(name) LIKE '%x%'}, que não usa índice e varre a
+ * tabela inteira a cada busca. As listas de IDs por trigrama são imutáveis,
+ * de modo que as leituras não precisam de lock: cada uma é dividida em
+ * segmentos ordenados de até {@link Postings#SEGMENT_SIZE} IDs, e uma escrita
+ * copia apenas os segmentos que altera. As escritas em lote agrupam as
+ * alterações por trigrama e aplicam cada lista uma única vez. Os candidatos obtidos pela interseção dos trigramas
+ * são sempre confirmados contra o texto indexado, então o resultado é igual
+ * ao da consulta LIKE.
+ *
+ * O índice é construído na inicialização e mantido atualizado pelos
+ * {@link UserChangedEvent} publicados pelo {@link UserService} após o commit.
+ */
+@Component
+public class UserSearchIndex {
+    
+    private static final int GRAM_SIZE = 3;
+    private static final long[] EMPTY = new long[0];
+    
+    private final UserRepository userRepository;
+    
+    private final Map<String, Postings> nameGrams = new ConcurrentHashMap<>();
+    private final Map<String, Postings> emailGrams = new ConcurrentHashMap<>();
+    private final Map<Long, String[]> documents = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public UserSearchIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * Reconstrói o índice a partir do banco de dados
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        Map<String, List<Long>> names = new HashMap<>();
+        Map<String, List<Long>> emails = new HashMap<>();
+        Map<Long, String[]> docs = new HashMap<>();
+        
+        try (Stream<UserIdentity> users = userRepository.streamIdentitiesBy()) {
+            users.forEach(user -> {
+                String name = normalize(user.getName());
+                String email = normalize(user.getEmail());
+                docs.put(user.getId(), new String[] {name, email});
+                for (String gram : grams(name)) {
+                    names.computeIfAbsent(gram, g -> new ArrayList<>()).add(user.getId());
+                }
+                for (String gram : grams(email)) {
+                    emails.computeIfAbsent(gram, g -> new ArrayList<>()).add(user.getId());
+                }
+            });
+        }
+        
+        nameGrams.clear();
+        emailGrams.clear();
+        documents.clear();
+        names.forEach((gram, ids) -> nameGrams.put(gram, Postings.of(toSortedArray(ids))));
+        emails.forEach((gram, ids) -> emailGrams.put(gram, Postings.of(toSortedArray(ids))));
+        documents.putAll(docs);
+    }
+    
+    /**
+     * Mantém o índice atualizado após o commit das alterações de usuários
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getType() == UserChangedEvent.Type.DELETED) {
+            remove(event.getUserId());
+        } else {
+            User user = event.getUser();
+            put(user.getId(), user.getName(), user.getEmail());
+        }
+    }
+    
+    /**
+     * Atualiza o índice com os usuários criados ou removidos em massa após o commit
+     * (ativação e desativação não alteram o índice)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UserBulkChangedEvent event) {
+        if (event.getType() == UserChangedEvent.Type.CREATED) {
+            putAll(event.getUsers());
+        } else if (event.getType() == UserChangedEvent.Type.DELETED) {
+            removeAll(event.getUserIds());
+        }
+    }
+    
+    /**
+     * Adiciona ou atualiza um usuário no índice
+     */
+    public void put(Long id, String name, String email) {
+        putAll(List.of(UserIdentity.of(id, name, email)));
+    }
+    
+    /**
+     * Adiciona ou atualiza vários usuários no índice, aplicando cada lista de
+     * trigrama alterada uma única vez
+     */
+    public synchronized void putAll(Collection<? extends UserIdentity> identities) {
+        Changes names = new Changes();
+        Changes emails = new Changes();
+        for (UserIdentity user : identities) {
+            Long id = user.getId();
+            String name = normalize(user.getName());
+            String email = normalize(user.getEmail());
+            String[] previous = documents.get(id);
+            if (previous != null && previous[0].equals(name) && previous[1].equals(email)) {
+                continue;
+            }
+            if (previous != null) {
+                names.remove(previous[0], id);
+                emails.remove(previous[1], id);
+            }
+            documents.put(id, new String[] {name, email});
+            names.add(name, id);
+            emails.add(email, id);
+        }
+        names.applyTo(nameGrams);
+        emails.applyTo(emailGrams);
+    }
+    
+    /**
+     * Remove vários usuários do índice, aplicando cada lista de trigrama
+     * alterada uma única vez
+     */
+    public synchronized void removeAll(Collection<Long> ids) {
+        Changes names = new Changes();
+        Changes emails = new Changes();
+        for (Long id : ids) {
+            String[] previous = documents.remove(id);
+            if (previous != null) {
+                names.remove(previous[0], id);
+                emails.remove(previous[1], id);
+            }
+        }
+        names.applyTo(nameGrams);
+        emails.applyTo(emailGrams);
+    }
+    
+    /**
+     * Remove um usuário do índice
+     */
+    public void remove(Long id) {
+        removeAll(List.of(id));
+    }
+    
+    /**
+     * Busca os IDs dos usuários cujo nome contém o texto (case insensitive)
+     * @param text texto a ser buscado
+     * @return IDs em ordem crescente
+     */
+    public long[] searchNames(String text) {
+        return search(nameGrams, 0, text);
+    }
+    
+    /**
+     * Busca os IDs dos usuários cujo email contém o texto (case insensitive)
+     * @param text texto a ser buscado
+     * @return IDs em ordem crescente
+     */
+    public long[] searchEmails(String text) {
+        return search(emailGrams, 1, text);
+    }
+    
+    /**
+     * Número de usuários indexados
+     */
+    public int size() {
+        return documents.size();
+    }
+    
+    private long[] search(Map<String, Postings> index, int field, String text) {
+        String query = normalize(text);
+        if (query.length() < GRAM_SIZE) {
+            // Textos curtos não formam trigramas: varre os documentos em memória
+            return documents.entrySet().stream()
+                    .filter(entry -> entry.getValue()[field].contains(query))
+                    .mapToLong(Map.Entry::getKey)
+                    .sorted()
+                    .toArray();
+        }
+        
+        List<Postings> postings = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Postings ids = index.get(gram);
+            if (ids == null) {
+                return EMPTY;
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Postings::size));
+        
+        long[] candidates = postings.get(0).toArray();
+        for (int i = 1; i < postings.size() && candidates.length > 0; i++) {
+            candidates = postings.get(i).retainAll(candidates);
+        }
+        
+        return Arrays.stream(candidates)
+                .filter(id -> {
+                    String[] document = documents.get(id);
+                    return document != null && document[field].contains(query);
+                })
+                .toArray();
+    }
+    
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+    
+    private static long[] toSortedArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+    
+    /**
+     * Alterações de um lote agrupadas por trigrama; para cada ID vale a última
+     * operação (true para inclusão)
+     */
+    private static final class Changes {
+        
+        private final Map<String, Map<Long, Boolean>> byGram = new HashMap<>();
+        
+        void add(String text, Long id) {
+            record(text, id, true);
+        }
+        
+        void remove(String text, Long id) {
+            record(text, id, false);
+        }
+        
+        private void record(String text, Long id, boolean added) {
+            for (String gram : grams(text)) {
+                byGram.computeIfAbsent(gram, g -> new TreeMap<>()).put(id, added);
+            }
+        }
+        
+        void applyTo(Map<String, Postings> index) {
+            byGram.forEach((gram, changes) -> {
+                long[] adds = select(changes, true);
+                long[] removes = select(changes, false);
+                index.compute(gram, (g, ids) -> {
+                    Postings result = (ids == null ? Postings.EMPTY : ids).apply(adds, removes);
+                    return result.size() == 0 ? null : result;
+                });
+            });
+        }
+        
+        private static long[] select(Map<Long, Boolean> changes, boolean added) {
+            return changes.entrySet().stream()
+                    .filter(entry -> entry.getValue() == added)
+                    .mapToLong(Map.Entry::getKey)
+                    .toArray();
+        }
+    }
+    
+    /**
+     * Lista imutável e ordenada de IDs de um trigrama, dividida em segmentos
+     * consecutivos para que uma alteração copie só os segmentos afetados
+     */
+    static final class Postings {
+        
+        static final int SEGMENT_SIZE = 1024;
+        static final Postings EMPTY = new Postings(new long[0][], 0);
+        
+        private final long[][] segments;
+        private final int size;
+        
+        private Postings(long[][] segments, int size) {
+            this.segments = segments;
+            this.size = size;
+        }
+        
+        static Postings of(long[] sortedIds) {
+            List<long[]> segments = new ArrayList<>();
+            split(sortedIds, segments);
+            return new Postings(segments.toArray(new long[0][]), sortedIds.length);
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        int segmentCount() {
+            return segments.length;
+        }
+        
+        long[] toArray() {
+            long[] result = new long[size];
+            int position = 0;
+            for (long[] segment : segments) {
+                System.arraycopy(segment, 0, result, position, segment.length);
+                position += segment.length;
+            }
+            return result;
+        }
+        
+        /**
+         * Aplica inclusões e remoções (ordenadas e sem repetição); os segmentos
+         * sem alterações são compartilhados com a lista original
+         */
+        Postings apply(long[] adds, long[] removes) {
+            if (adds.length == 0 && removes.length == 0) {
+                return this;
+            }
+            if (segments.length == 0) {
+                return of(adds);
+            }
+            List<long[]> result = new ArrayList<>(segments.length + 1);
+            int total = 0;
+            int a = 0;
+            int r = 0;
+            for (int s = 0; s < segments.length; s++) {
+                // Cada segmento recebe os IDs menores que o início do próximo
+                long upper = s + 1 < segments.length ? segments[s + 1][0] : Long.MAX_VALUE;
+                int addsEnd = a;
+                while (addsEnd < adds.length && adds[addsEnd] < upper) {
+                    addsEnd++;
+                }
+                int removesEnd = r;
+                while (removesEnd < removes.length && removes[removesEnd] < upper) {
+                    removesEnd++;
+                }
+                long[] segment = segments[s];
+                if (addsEnd > a || removesEnd > r) {
+                    segment = merge(segment, adds, a, addsEnd, removes, r, removesEnd);
+                    append(segment, result);
+                } else {
+                    result.add(segment);
+                }
+                total += segment.length;
+                a = addsEnd;
+                r = removesEnd;
+            }
+            return new Postings(result.toArray(new long[0][]), total);
+        }
+        
+        /**
+         * Interseção com IDs ordenados, pulando os segmentos que não os alcançam
+         */
+        long[] retainAll(long[] ids) {
+            long[] result = new long[Math.min(ids.length, size)];
+            int i = 0;
+            int k = 0;
+            for (long[] segment : segments) {
+                if (i == ids.length) {
+                    break;
+                }
+                if (segment[segment.length - 1] < ids[i]) {
+                    continue;
+                }
+                int j = 0;
+                while (i < ids.length && j < segment.length) {
+                    if (ids[i] < segment[j]) {
+                        i++;
+                    } else if (ids[i] > segment[j]) {
+                        j++;
+                    } else {
+                        result[k++] = ids[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            return Arrays.copyOf(result, k);
+        }
+        
+        private static long[] merge(long[] segment, long[] adds, int addsFrom, int addsTo,
+                                    long[] removes, int removesFrom, int removesTo) {
+            long[] result = new long[segment.length + addsTo - addsFrom];
+            int i = 0;
+            int a = addsFrom;
+            int r = removesFrom;
+            int k = 0;
+            while (i < segment.length || a < addsTo) {
+                long next;
+                if (a == addsTo || (i < segment.length && segment[i] < adds[a])) {
+                    next = segment[i++];
+                } else if (i < segment.length && segment[i] == adds[a]) {
+                    next = segment[i++];
+                    a++;
+                } else {
+                    next = adds[a++];
+                }
+                while (r < removesTo && removes[r] < next) {
+                    r++;
+                }
+                if (r < removesTo && removes[r] == next) {
+                    continue;
+                }
+                result[k++] = next;
+            }
+            return k == result.length ? result : Arrays.copyOf(result, k);
+        }
+        
+        /**
+         * Adiciona um segmento alterado: divide os que cresceram demais e junta
+         * ao anterior os que as remoções deixaram pequenos
+         */
+        private static void append(long[] segment, List<long[]> segments) {
+            if (segment.length > 2 * SEGMENT_SIZE) {
+                split(segment, segments);
+                return;
+            }
+            if (segment.length == 0) {
+                return;
+            }
+            int last = segments.size() - 1;
+            if (last >= 0 && segments.get(last).length + segment.length <= SEGMENT_SIZE) {
+                long[] previous = segments.get(last);
+                long[] joined = Arrays.copyOf(previous, previous.length + segment.length);
+                System.arraycopy(segment, 0, joined, previous.length, segment.length);
+                segments.set(last, joined);
+            } else {
+                segments.add(segment);
+            }
+        }
+        
+        private static void split(long[] ids, List<long[]> segments) {
+            for (int from = 0; from < ids.length; from += SEGMENT_SIZE) {
+                segments.add(Arrays.copyOfRange(ids, from, Math.min(ids.length, from + SEGMENT_SIZE)));
+            }
+        }
+    }
+}
@@ -1,13 +1,37 @@
 package com.example.usermanagement.service;
 
+import com.example.usermanagement.dto.BulkOperationResponse;
+import com.example.usermanagement.dto.CursorPage;
+import com.example.usermanagement.dto.UserBulkRequest;
+import com.example.usermanagement.dto.UserFilter;
+import com.example.usermanagement.dto.UserIdentity;
+import com.example.usermanagement.dto.UserQuery;
+import com.example.usermanagement.dto.UserSuggestion;
+import com.example.usermanagement.dto.UserSummary;
 import com.example.usermanagement.model.User;
 import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.repository.UserSpecifications;
+import com.example.usermanagement.repository.UserTombstoneRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Serviço para gerenciar operações de usuários
@@ -16,33 +40,117 @@ import java.util.Optional;
 @Transactional
 public class UserService {
     
+    /**
+     * Tamanho padrão e máximo de página para a paginação por cursor
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    /**
+     * Número padrão e máximo de sugestões do autocomplete
+     */
+    public static final int DEFAULT_SUGGESTIONS = 10;
+    public static final int MAX_SUGGESTIONS = 50;
+    
+    /**
+     * Número máximo de IDs por comando nas operações em massa (limite da cláusula IN)
+     */
+    public static final int BULK_CHUNK_SIZE = 1000;
+    
+    /**
+     * Campos aceitos para ordenação na busca combinada
+     */
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "age", "createdAt");
+    
+    /**
+     * Chave de ordenação de um cursor cujo último item não tem idade
+     */
+    private static final String NULL_CURSOR_KEY = "";
+    
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserSearchIndex searchIndex;
+    private final UserSuggestIndex suggestIndex;
+    private final UserStatsService statsService;
+    private final UserTombstoneRepository tombstoneRepository;
+    private final UserEmailFilter emailFilter;
     
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                       UserSearchIndex searchIndex, UserSuggestIndex suggestIndex,
+                       UserStatsService statsService, UserTombstoneRepository tombstoneRepository,
+                       UserEmailFilter emailFilter) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.statsService = statsService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.emailFilter = emailFilter;
     }
     
     /**
-     * Cria um novo usuário
+     * Cria um novo usuário com um único INSERT; a unicidade do email é garantida
+     * pela constraint do banco, sem consulta prévia
      * @param user dados do usuário
      * @return usuário criado
-     * @throws IllegalArgumentException se o email já existe
+     * @throws EmailAlreadyInUseException se o email já existe
      */
     public User createUser(User user) {
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new IllegalArgumentException("Email já está em uso: " + user.getEmail());
+        emailFilter.put(user.getEmail());
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConstraintViolation(e)) {
+                throw new EmailAlreadyInUseException(user.getEmail());
+            }
+            throw e;
         }
-        return userRepository.save(user);
+        statsService.adjust(savedUser.getActive() ? 1 : 0, savedUser.getActive() ? 0 : 1);
+        eventPublisher.publishEvent(UserChangedEvent.of(UserChangedEvent.Type.CREATED, savedUser));
+        return savedUser;
+    }
+    
+    /**
+     * Cria vários usuários em uma única transação; os INSERTs são enviados em lotes JDBC
+     * @param users usuários já validados e com emails ainda não cadastrados
+     * @return usuários criados
+     * @throws DataIntegrityViolationException se algum email já existe (nenhum usuário é criado)
+     */
+    public List<User> createUsers(List<User> users) {
+        emailFilter.putAll(users.stream().map(User::getEmail).collect(Collectors.toList()));
+        List<User> savedUsers = userRepository.saveAll(users);
+        userRepository.flush();
+        long active = savedUsers.stream().filter(User::getActive).count();
+        statsService.adjust(active, savedUsers.size() - active);
+        publishBulkChange(UserChangedEvent.Type.CREATED, savedUsers.stream()
+                .map(user -> UserIdentity.of(user.getId(), user.getName(), user.getEmail()))
+                .collect(Collectors.toList()));
+        return savedUsers;
+    }
+    
+    /**
+     * Verifica se a violação de integridade veio da constraint de unicidade do email
+     */
+    static boolean isEmailConstraintViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String constraintName = ((ConstraintViolationException) cause).getConstraintName();
+                return constraintName != null
+                        && constraintName.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+            }
+        }
+        return false;
     }
     
     /**
      * Busca todos os usuários
-     * @return lista de todos os usuários
+     * @return resumo de todos os usuários, ordenados por ID
      */
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserSummary> getAllUsers() {
+        return userRepository.findAllSummaries();
     }
     
     /**
@@ -56,12 +164,16 @@ public class UserService {
     }
     
     /**
-     * Busca usuário por email
+     * Busca usuário por email; emails que certamente não existem, segundo o filtro de
+     * emails, são respondidos sem consulta
      * @param email email do usuário
      * @return Optional contendo o usuário se encontrado
      */
     @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
+        if (!emailFilter.mightContain(email)) {
+            return Optional.empty();
+        }
         return userRepository.findByEmail(email);
     }
     
@@ -77,10 +189,20 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
         
         // Verifica se o email está sendo alterado e se já existe
-        if (!existingUser.getEmail().equals(userData.getEmail()) && 
+        // Só a troca por outro email é verificada: mudar apenas maiúsculas mantém o mesmo email normalizado
+        boolean emailChanged = !User.normalizeEmail(existingUser.getEmail())
+                .equals(User.normalizeEmail(userData.getEmail()));
+        if (emailChanged && emailFilter.mightContain(userData.getEmail()) &&
             userRepository.existsByEmail(userData.getEmail())) {
             throw new IllegalArgumentException("Email já está em uso: " + userData.getEmail());
         }
+        if (emailChanged) {
+            emailFilter.put(userData.getEmail());
+            emailFilter.removed(1);
+        }
+        
+        String previousEmail = existingUser.getEmail();
+        boolean previousActive = existingUser.getActive();
         
         // Atualiza os campos
         existingUser.setName(userData.getName());
@@ -89,7 +211,11 @@ public class UserService {
         existingUser.setAge(userData.getAge());
         existingUser.setActive(userData.getActive());
         
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        adjustActiveStats(previousActive, Boolean.TRUE.equals(savedUser.getActive()));
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.UPDATED, savedUser.getId(),
+                savedUser, previousEmail));
+        return savedUser;
     }
     
     /**
@@ -102,8 +228,12 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
         
+        boolean previousActive = user.getActive();
         user.setActive(false);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        adjustActiveStats(previousActive, false);
+        eventPublisher.publishEvent(UserChangedEvent.of(UserChangedEvent.Type.DEACTIVATED, savedUser));
+        return savedUser;
     }
     
     /**
@@ -116,67 +246,405 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
         
+        boolean previousActive = user.getActive();
         user.setActive(true);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        adjustActiveStats(previousActive, true);
+        eventPublisher.publishEvent(UserChangedEvent.of(UserChangedEvent.Type.ACTIVATED, savedUser));
+        return savedUser;
     }
     
     /**
-     * Remove um usuário permanentemente
+     * Remove um usuário permanentemente, registrando a remoção para a sincronização incremental
      * @param id ID do usuário
      * @throws IllegalArgumentException se o usuário não for encontrado
      */
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new IllegalArgumentException("Usuário não encontrado com ID: " + id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com ID: " + id));
+        tombstoneRepository.insertForUserIdIn(List.of(id), LocalDateTime.now());
+        userRepository.delete(user);
+        emailFilter.removed(1);
+        statsService.adjust(user.getActive() ? -1 : 0, user.getActive() ? 0 : -1);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(id));
+    }
+    
+    /**
+     * Ativa em massa os usuários indicados pelos IDs ou pelo filtro
+     * @param request lista de IDs, filtro ou todos os usuários
+     * @return número de usuários encontrados e de usuários ativados
+     * @throws IllegalArgumentException se não houver exatamente um alvo (IDs, filtro ou all)
+     */
+    public BulkOperationResponse activateUsers(UserBulkRequest request) {
+        return updateActive(request, true);
+    }
+    
+    /**
+     * Desativa em massa os usuários indicados pelos IDs ou pelo filtro
+     * @param request lista de IDs, filtro ou todos os usuários
+     * @return número de usuários encontrados e de usuários desativados
+     * @throws IllegalArgumentException se não houver exatamente um alvo (IDs, filtro ou all)
+     */
+    public BulkOperationResponse deactivateUsers(UserBulkRequest request) {
+        return updateActive(request, false);
+    }
+    
+    /**
+     * Remove em massa os usuários indicados pelos IDs ou pelo filtro.
+     * As remoções são registradas e os papéis e os usuários removidos com um comando
+     * cada por bloco de {@link #BULK_CHUNK_SIZE} usuários; IDs inexistentes são ignorados.
+     * @param request lista de IDs, filtro ou todos os usuários
+     * @return número de usuários encontrados e de usuários removidos
+     * @throws IllegalArgumentException se não houver exatamente um alvo (IDs, filtro ou all)
+     */
+    public BulkOperationResponse deleteUsers(UserBulkRequest request) {
+        List<UserIdentity> users = findBulkTargets(request);
+        LocalDateTime now = LocalDateTime.now();
+        long affected = 0;
+        long activeDeleted = 0;
+        for (List<Long> ids : chunkIds(users)) {
+            activeDeleted += userRepository.countByIdInAndActiveTrue(ids);
+            tombstoneRepository.insertForUserIdIn(ids, now);
+            userRepository.deleteRolesByUserIdIn(ids);
+            affected += userRepository.deleteByIdIn(ids);
+        }
+        emailFilter.removed(affected);
+        statsService.adjust(-activeDeleted, -(affected - activeDeleted));
+        publishBulkChange(UserChangedEvent.Type.DELETED, users);
+        return new BulkOperationResponse(users.size(), affected);
+    }
+    
+    /**
+     * Altera o status com um UPDATE por bloco de {@link #BULK_CHUNK_SIZE} usuários
+     */
+    private BulkOperationResponse updateActive(UserBulkRequest request, boolean active) {
+        List<UserIdentity> users = findBulkTargets(request);
+        LocalDateTime now = LocalDateTime.now();
+        long affected = 0;
+        for (List<Long> ids : chunkIds(users)) {
+            affected += userRepository.updateActiveByIdIn(ids, active, now);
+        }
+        // Só as linhas cujo status mudou são contadas pelo UPDATE
+        statsService.adjust(active ? affected : -affected, active ? -affected : affected);
+        publishBulkChange(active ? UserChangedEvent.Type.ACTIVATED : UserChangedEvent.Type.DEACTIVATED, users);
+        return new BulkOperationResponse(users.size(), affected);
+    }
+    
+    /**
+     * Busca a identificação dos usuários alvo de uma operação em massa,
+     * usada tanto nos comandos quanto na invalidação dos caches
+     */
+    private List<UserIdentity> findBulkTargets(UserBulkRequest request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        UserFilter filter = request.getFilter();
+        boolean hasFilter = filter != null && !filter.isEmpty();
+        int targets = (hasIds ? 1 : 0) + (hasFilter ? 1 : 0) + (request.isAll() ? 1 : 0);
+        if (targets != 1) {
+            throw new IllegalArgumentException(
+                    "Informe a lista de IDs, um filtro com ao menos um critério ou \"all\": true");
+        }
+        
+        if (request.isAll()) {
+            return userRepository.findIdentities(null);
+        }
+        if (hasFilter) {
+            return userRepository.findIdentities(Specification.where(UserSpecifications.nameContains(filter.getName()))
+                    .and(UserSpecifications.ageAtLeast(filter.getMinAge()))
+                    .and(UserSpecifications.ageAtMost(filter.getMaxAge()))
+                    .and(UserSpecifications.hasActive(filter.getActive())));
+        }
+        List<Long> ids = request.getIds().stream().distinct().collect(Collectors.toList());
+        List<UserIdentity> users = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(i, Math.min(i + BULK_CHUNK_SIZE, ids.size()));
+            users.addAll(userRepository.findIdentities(UserSpecifications.idIn(chunk)));
+        }
+        return users;
+    }
+    
+    private List<List<Long>> chunkIds(List<UserIdentity> users) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < users.size(); i += BULK_CHUNK_SIZE) {
+            chunks.add(users.subList(i, Math.min(i + BULK_CHUNK_SIZE, users.size())).stream()
+                    .map(UserIdentity::getId)
+                    .collect(Collectors.toList()));
+        }
+        return chunks;
+    }
+    
+    /**
+     * Move um usuário entre os contadores de ativos e inativos se o status mudou
+     */
+    private void adjustActiveStats(boolean previousActive, boolean active) {
+        if (previousActive != active) {
+            statsService.adjust(active ? 1 : -1, active ? -1 : 1);
+        }
+    }
+    
+    private void publishBulkChange(UserChangedEvent.Type type, List<UserIdentity> users) {
+        if (!users.isEmpty()) {
+            eventPublisher.publishEvent(new UserBulkChangedEvent(type, users));
         }
-        userRepository.deleteById(id);
     }
     
     /**
      * Busca usuários ativos
-     * @return lista de usuários ativos
+     * @return resumo dos usuários ativos, ordenados por ID
      */
     @Transactional(readOnly = true)
-    public List<User> getActiveUsers() {
-        return userRepository.findByActiveTrue();
+    public List<UserSummary> getActiveUsers() {
+        return userRepository.findActiveSummaries();
     }
     
     /**
-     * Busca usuários por nome
+     * Busca usuários por nome usando o índice de trigramas em memória
      * @param name nome ou parte do nome
-     * @return lista de usuários que contêm o nome
+     * @return resumo dos usuários que contêm o nome, ordenados por ID
      */
     @Transactional(readOnly = true)
-    public List<User> searchUsersByName(String name) {
-        return userRepository.findByNameContainingIgnoreCase(name);
+    public List<UserSummary> searchUsersByName(String name) {
+        return hydrate(searchIndex.searchNames(name));
+    }
+    
+    /**
+     * Sugere usuários cujo nome, palavra do nome ou email começa com o prefixo (autocomplete)
+     * @param prefix prefixo digitado
+     * @param limit número máximo de sugestões
+     * @return sugestões com id, nome e email
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<UserSuggestion> suggestUsers(String prefix, Integer limit) {
+        int max = limit == null ? DEFAULT_SUGGESTIONS : Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return suggestIndex.suggest(prefix, max);
     }
     
     /**
      * Busca usuários por faixa etária
      * @param minAge idade mínima
      * @param maxAge idade máxima
-     * @return lista de usuários na faixa etária
+     * @return resumo dos usuários na faixa etária, ordenados por idade e ID
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummary> getUsersByAgeRange(Integer minAge, Integer maxAge) {
+        return userRepository.findSummariesByAgeBetween(minAge, maxAge);
+    }
+    
+    /**
+     * Busca uma página de usuários ordenada por ID
+     * @param after cursor da página anterior (null para a primeira página)
+     * @param limit tamanho da página
+     * @return página de usuários com o cursor da próxima página
      */
     @Transactional(readOnly = true)
-    public List<User> getUsersByAgeRange(Integer minAge, Integer maxAge) {
-        return userRepository.findByAgeBetween(minAge, maxAge);
+    public CursorPage<UserSummary> getUsersPage(String after, Integer limit) {
+        int pageSize = normalizeLimit(limit);
+        List<UserSummary> users = userRepository.findPageAfter(decodeIdCursor(after), PageRequest.of(0, pageSize + 1));
+        return toIdPage(users, pageSize);
     }
     
     /**
-     * Conta usuários ativos
-     * @return número de usuários ativos
+     * Busca uma página de usuários ativos ordenada por ID
+     * @param after cursor da página anterior (null para a primeira página)
+     * @param limit tamanho da página
+     * @return página de usuários ativos com o cursor da próxima página
      */
     @Transactional(readOnly = true)
-    public long countActiveUsers() {
-        return userRepository.countByActiveTrue();
+    public CursorPage<UserSummary> getActiveUsersPage(String after, Integer limit) {
+        int pageSize = normalizeLimit(limit);
+        List<UserSummary> users = userRepository.findActivePageAfter(decodeIdCursor(after), PageRequest.of(0, pageSize + 1));
+        return toIdPage(users, pageSize);
     }
     
     /**
-     * Conta usuários inativos
-     * @return número de usuários inativos
+     * Busca uma página de usuários por nome ordenada por ID
+     * @param name nome ou parte do nome
+     * @param after cursor da página anterior (null para a primeira página)
+     * @param limit tamanho da página
+     * @return página de usuários que contêm o nome com o cursor da próxima página
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummary> searchUsersByNamePage(String name, String after, Integer limit) {
+        int pageSize = normalizeLimit(limit);
+        long afterId = decodeIdCursor(after);
+        long[] ids = Arrays.stream(searchIndex.searchNames(name))
+                .filter(id -> id > afterId)
+                .limit(pageSize + 1L)
+                .toArray();
+        return toIdPage(hydrate(ids), pageSize);
+    }
+    
+    /**
+     * Busca uma página de usuários por faixa etária ordenada por (idade, ID)
+     * @param minAge idade mínima
+     * @param maxAge idade máxima
+     * @param after cursor da página anterior (null para a primeira página)
+     * @param limit tamanho da página
+     * @return página de usuários na faixa etária com o cursor da próxima página
      */
     @Transactional(readOnly = true)
-    public long countInactiveUsers() {
-        return userRepository.countByActiveFalse();
+    public CursorPage<UserSummary> getUsersByAgeRangePage(Integer minAge, Integer maxAge, String after, Integer limit) {
+        int pageSize = normalizeLimit(limit);
+        Integer afterAge = Integer.MIN_VALUE;
+        Long afterId = 0L;
+        if (after != null && !after.isEmpty()) {
+            String[] parts = CursorPage.decodeCursor(after);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido: " + after);
+            }
+            afterAge = parseCursorPart(parts[0], after).intValue();
+            afterId = parseCursorPart(parts[1], after);
+        }
+        
+        List<UserSummary> users = userRepository.findByAgeBetweenPageAfter(minAge, maxAge, afterAge, afterId,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = users.size() > pageSize;
+        List<UserSummary> items = hasMore ? users.subList(0, pageSize) : users;
+        String nextCursor = null;
+        if (hasMore) {
+            UserSummary last = items.get(items.size() - 1);
+            nextCursor = CursorPage.encodeCursor(last.getAge(), last.getId());
+        }
+        return new CursorPage<>(items, nextCursor, pageSize);
+    }
+    
+    /**
+     * Busca usuários combinando filtros, ordenação e paginação por cursor
+     * em uma única consulta SQL
+     * @param criteria critérios de busca
+     * @return página de usuários com o cursor da próxima página
+     * @throws IllegalArgumentException se a ordenação ou o cursor forem inválidos
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummary> queryUsers(UserQuery criteria) {
+        String sortField = criteria.getSort() == null ? "id" : criteria.getSort();
+        if (!SORTABLE_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Campo de ordenação inválido: " + sortField);
+        }
+        boolean descending = "desc".equalsIgnoreCase(criteria.getDirection());
+        int pageSize = normalizeLimit(criteria.getLimit());
+        
+        Specification<User> spec = Specification.where(UserSpecifications.nameContains(criteria.getName()))
+                .and(UserSpecifications.ageAtLeast(criteria.getMinAge()))
+                .and(UserSpecifications.ageAtMost(criteria.getMaxAge()))
+                .and(UserSpecifications.hasActive(criteria.getActive()));
+        if (criteria.getAfter() != null && !criteria.getAfter().isEmpty()) {
+            spec = spec.and(afterCursor(sortField, criteria.getAfter(), descending));
+        }
+        
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort;
+        if ("id".equals(sortField)) {
+            sort = Sort.by(direction, "id");
+        } else if ("age".equals(sortField)) {
+            // Usuários sem idade continuam no resultado, depois dos demais nas duas direções
+            sort = Sort.by(new Sort.Order(direction, "age").nullsLast()).and(Sort.by(direction, "id"));
+        } else {
+            sort = Sort.by(direction, sortField).and(Sort.by(direction, "id"));
+        }
+        
+        List<UserSummary> users = userRepository.findSummaries(spec, sort, pageSize + 1);
+        boolean hasMore = users.size() > pageSize;
+        List<UserSummary> items = hasMore ? users.subList(0, pageSize) : users;
+        String nextCursor = null;
+        if (hasMore) {
+            UserSummary last = items.get(items.size() - 1);
+            nextCursor = CursorPage.encodeCursor("id".equals(sortField) ? null : sortKey(last, sortField),
+                    last.getId());
+        }
+        return new CursorPage<>(items, nextCursor, pageSize);
+    }
+    
+    /**
+     * Converte o cursor da busca combinada em um critério de keyset
+     */
+    private Specification<User> afterCursor(String sortField, String after, boolean descending) {
+        String[] parts = CursorPage.decodeCursor(after);
+        if ("id".equals(sortField)) {
+            if (parts.length != 1) {
+                throw new IllegalArgumentException("Cursor inválido: " + after);
+            }
+            return UserSpecifications.after("id", 0L, parseCursorPart(parts[0], after), descending);
+        }
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Cursor inválido: " + after);
+        }
+        Long afterId = parseCursorPart(parts[1], after);
+        try {
+            switch (sortField) {
+                case "name":
+                    return UserSpecifications.after(sortField, parts[0], afterId, descending);
+                case "age":
+                    Integer afterAge = NULL_CURSOR_KEY.equals(parts[0]) ? null : Integer.valueOf(parts[0]);
+                    return UserSpecifications.afterNullsLast(sortField, afterAge, afterId, descending);
+                default:
+                    return UserSpecifications.after(sortField, LocalDateTime.parse(parts[0]), afterId, descending);
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + after);
+        }
+    }
+    
+    private Object sortKey(UserSummary user, String sortField) {
+        switch (sortField) {
+            case "name":
+                return user.getName();
+            case "age":
+                return user.getAge() == null ? NULL_CURSOR_KEY : user.getAge();
+            default:
+                return user.getCreatedAt();
+        }
+    }
+    
+    /**
+     * Carrega o resumo dos IDs encontrados em um índice, ordenados por ID
+     */
+    private List<UserSummary> hydrate(long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> idList = Arrays.stream(ids).boxed().collect(Collectors.toList());
+        return userRepository.findSummariesByIdIn(idList);
+    }
+    
+    /**
+     * Limita o tamanho da página entre 1 e MAX_PAGE_SIZE
+     */
+    private int normalizeLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    /**
+     * Decodifica um cursor ordenado apenas por ID
+     */
+    private Long decodeIdCursor(String after) {
+        if (after == null || after.isEmpty()) {
+            return 0L;
+        }
+        String[] parts = CursorPage.decodeCursor(after);
+        if (parts.length != 1) {
+            throw new IllegalArgumentException("Cursor inválido: " + after);
+        }
+        return parseCursorPart(parts[0], after);
+    }
+    
+    private Long parseCursorPart(String part, String cursor) {
+        try {
+            return Long.valueOf(part);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+    
+    /**
+     * Monta a página a partir de uma consulta que buscou pageSize + 1 itens
+     */
+    private CursorPage<UserSummary> toIdPage(List<UserSummary> users, int pageSize) {
+        boolean hasMore = users.size() > pageSize;
+        List<UserSummary> items = hasMore ? users.subList(0, pageSize) : users;
+        String nextCursor = hasMore ? CursorPage.encodeCursor(null, items.get(items.size() - 1).getId()) : null;
+        return new CursorPage<>(items, nextCursor, pageSize);
     }
 }
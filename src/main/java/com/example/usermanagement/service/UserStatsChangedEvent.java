@@ -0,0 +1,25 @@
+package com.example.usermanagement.service;
+
+/**
+ * Evento publicado pelo UserStatsService quando os contadores de usuários mudam,
+ * com a variação de ativos e inativos. Os ouvintes devem usar
+ * {@code @TransactionalEventListener} para reagir somente após o commit.
+ */
+public class UserStatsChangedEvent {
+    
+    private final long activeDelta;
+    private final long inactiveDelta;
+    
+    public UserStatsChangedEvent(long activeDelta, long inactiveDelta) {
+        this.activeDelta = activeDelta;
+        this.inactiveDelta = inactiveDelta;
+    }
+    
+    public long getActiveDelta() {
+        return activeDelta;
+    }
+    
+    public long getInactiveDelta() {
+        return inactiveDelta;
+    }
+}
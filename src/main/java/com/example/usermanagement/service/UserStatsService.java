@@ -0,0 +1,101 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.UserCounters;
+import com.example.usermanagement.repository.UserCountersRepository;
+import com.example.usermanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estatísticas de usuários a partir da linha de contadores (tabela user_stats)
+ *
+ * As leituras buscam uma única linha pela chave primária, independentemente do
+ * tamanho da tabela de usuários. Os contadores são ajustados pelo
+ * {@link UserService} na mesma transação de cada escrita e recalculados na
+ * inicialização e periodicamente, corrigindo alterações feitas fora do serviço.
+ * Cada variação é publicada como {@link UserStatsChangedEvent}.
+ */
+@Service
+@Transactional
+public class UserStatsService {
+    
+    private final UserCountersRepository countersRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    public UserStatsService(UserCountersRepository countersRepository, UserRepository userRepository,
+                            ApplicationEventPublisher eventPublisher) {
+        this.countersRepository = countersRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    /**
+     * Retorna os contadores de usuários; se a linha ainda não existe, ela é calculada
+     * @return contadores de usuários ativos e inativos
+     */
+    public UserCounters getStats() {
+        return countersRepository.findById(UserCounters.ID).orElseGet(this::reconcile);
+    }
+    
+    /**
+     * Soma as variações aos contadores na transação corrente
+     * @param activeDelta variação de usuários ativos
+     * @param inactiveDelta variação de usuários inativos
+     */
+    public void adjust(long activeDelta, long inactiveDelta) {
+        if (activeDelta != 0 || inactiveDelta != 0) {
+            // Sem a linha não há o que ajustar: a reconciliação a cria com a contagem real
+            countersRepository.increment(UserCounters.ID, activeDelta, inactiveDelta);
+            eventPublisher.publishEvent(new UserStatsChangedEvent(activeDelta, inactiveDelta));
+        }
+    }
+    
+    /**
+     * Reconciliação na inicialização e a cada intervalo configurado
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${users.stats.reconcile-interval-ms:300000}",
+               fixedDelayString = "${users.stats.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+    
+    /**
+     * Recalcula os contadores com uma única consulta agrupada por status.
+     * A linha é bloqueada antes da contagem: escritas em andamento terminam antes
+     * (e entram na contagem) ou esperam e somam seu delta depois.
+     * @return contadores recalculados
+     */
+    public UserCounters reconcile() {
+        UserCounters counters = countersRepository.findForUpdate(UserCounters.ID)
+                .orElseGet(() -> new UserCounters(0, 0));
+        long active = 0;
+        long inactive = 0;
+        for (Object[] row : userRepository.countGroupByActive()) {
+            if (Boolean.TRUE.equals(row[0])) {
+                active = (Long) row[1];
+            } else {
+                inactive = (Long) row[1];
+            }
+        }
+        long activeDelta = active - counters.getActiveUsers();
+        long inactiveDelta = inactive - counters.getInactiveUsers();
+        counters.setActiveUsers(active);
+        counters.setInactiveUsers(inactive);
+        counters.setReconciledAt(LocalDateTime.now());
+        UserCounters saved = countersRepository.save(counters);
+        if (activeDelta != 0 || inactiveDelta != 0) {
+            eventPublisher.publishEvent(new UserStatsChangedEvent(activeDelta, inactiveDelta));
+        }
+        return saved;
+    }
+}
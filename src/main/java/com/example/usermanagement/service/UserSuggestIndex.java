@@ -0,0 +1,385 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.UserIdentity;
+import com.example.usermanagement.dto.UserSuggestion;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Índice de prefixos para autocomplete de nomes e emails
+ *
+ * As chaves (nome completo, cada palavra do nome em diante e email) ficam em
+ * arrays ordenados e imutáveis; a busca por prefixo é uma busca binária
+ * seguida de uma varredura sequencial. As escritas não alteram o array base:
+ * vão para um pequeno delta, também imutável e substituído por cópia, que é
+ * intercalado ao base (em tempo linear, sem reordenar) quando cresce além do
+ * limite configurado. As leituras apenas capturam o estado atual (uma
+ * referência volátil) e nunca bloqueiam.
+ */
+@Component
+public class UserSuggestIndex {
+    
+    private final UserRepository userRepository;
+    private final int compactThreshold;
+    
+    private final Map<Long, UserSuggestion> users = new ConcurrentHashMap<>();
+    private final Map<Long, String[]> pending = new HashMap<>();
+    private volatile State state = new State(Snapshot.EMPTY, Snapshot.EMPTY, Collections.emptySet());
+    
+    @Autowired
+    public UserSuggestIndex(UserRepository userRepository,
+                            @Value("${users.suggest.compact-threshold:1024}") int compactThreshold) {
+        this.userRepository = userRepository;
+        this.compactThreshold = compactThreshold;
+    }
+    
+    /**
+     * Reconstrói o índice a partir do banco de dados
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        List<Entry> entries = new ArrayList<>();
+        Map<Long, UserSuggestion> loaded = new HashMap<>();
+        try (Stream<UserIdentity> identities = userRepository.streamIdentitiesBy()) {
+            identities.forEach(user -> {
+                loaded.put(user.getId(), new UserSuggestion(user.getId(), user.getName(), user.getEmail()));
+                for (String key : keys(user.getName(), user.getEmail())) {
+                    entries.add(new Entry(key, user.getId()));
+                }
+            });
+        }
+        users.clear();
+        users.putAll(loaded);
+        pending.clear();
+        state = new State(Snapshot.of(entries), Snapshot.EMPTY, Collections.emptySet());
+    }
+    
+    /**
+     * Mantém o índice atualizado após o commit das alterações de usuários
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getType() == UserChangedEvent.Type.DELETED) {
+            remove(event.getUserId());
+        } else {
+            User user = event.getUser();
+            put(user.getId(), user.getName(), user.getEmail());
+        }
+    }
+    
+    /**
+     * Atualiza o índice com os usuários criados ou removidos em massa após o commit
+     * (ativação e desativação não alteram o índice)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UserBulkChangedEvent event) {
+        if (event.getType() == UserChangedEvent.Type.CREATED) {
+            putAll(event.getUsers());
+        } else if (event.getType() == UserChangedEvent.Type.DELETED) {
+            removeAll(event.getUserIds());
+        }
+    }
+    
+    /**
+     * Adiciona ou atualiza um usuário no índice
+     */
+    public synchronized void put(Long id, String name, String email) {
+        users.put(id, new UserSuggestion(id, name, email));
+        pending.put(id, keys(name, email).toArray(new String[0]));
+        publishPending();
+    }
+    
+    /**
+     * Adiciona ou atualiza vários usuários no índice com uma única publicação do delta
+     */
+    public synchronized void putAll(Collection<? extends UserIdentity> identities) {
+        for (UserIdentity user : identities) {
+            users.put(user.getId(), new UserSuggestion(user.getId(), user.getName(), user.getEmail()));
+            pending.put(user.getId(), keys(user.getName(), user.getEmail()).toArray(new String[0]));
+        }
+        publishPending();
+    }
+    
+    /**
+     * Remove um usuário do índice
+     */
+    public synchronized void remove(Long id) {
+        users.remove(id);
+        pending.put(id, new String[0]);
+        publishPending();
+    }
+    
+    /**
+     * Remove vários usuários do índice com uma única publicação do delta
+     */
+    public synchronized void removeAll(Collection<Long> ids) {
+        for (Long id : ids) {
+            users.remove(id);
+            pending.put(id, new String[0]);
+        }
+        publishPending();
+    }
+    
+    /**
+     * Busca os usuários cujo nome, alguma palavra do nome ou email começa com o prefixo
+     * @param prefix prefixo (case insensitive)
+     * @param limit número máximo de sugestões
+     * @return sugestões em ordem alfabética da chave encontrada
+     */
+    public List<UserSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        State current = state;
+        Snapshot base = current.base;
+        Snapshot delta = current.delta;
+        int i = base.lowerBound(normalized);
+        int j = delta.lowerBound(normalized);
+        
+        Set<Long> seen = new LinkedHashSet<>();
+        while (seen.size() < limit) {
+            boolean baseMatches = i < base.size() && base.keys[i].startsWith(normalized);
+            boolean deltaMatches = j < delta.size() && delta.keys[j].startsWith(normalized);
+            if (!baseMatches && !deltaMatches) {
+                break;
+            }
+            if (deltaMatches && (!baseMatches || delta.compareAt(j, base, i) <= 0)) {
+                seen.add(delta.ids[j++]);
+            } else {
+                long id = base.ids[i++];
+                if (!current.overridden.contains(id)) {
+                    seen.add(id);
+                }
+            }
+        }
+        
+        List<UserSuggestion> suggestions = new ArrayList<>(seen.size());
+        for (Long id : seen) {
+            UserSuggestion suggestion = users.get(id);
+            if (suggestion != null) {
+                suggestions.add(suggestion);
+            }
+        }
+        return suggestions;
+    }
+    
+    /**
+     * Número de chaves indexadas (base + delta)
+     */
+    public int size() {
+        State current = state;
+        return current.base.size() + current.delta.size();
+    }
+    
+    /**
+     * Estimativa do uso de memória do índice em bytes
+     */
+    public long estimatedMemoryBytes() {
+        State current = state;
+        long bytes = current.base.estimatedBytes() + current.delta.estimatedBytes();
+        for (UserSuggestion user : users.values()) {
+            // nó do mapa + Long + objeto UserSuggestion + as duas Strings
+            bytes += 32 + 16 + 24 + stringBytes(user.getName()) + stringBytes(user.getEmail());
+        }
+        return bytes;
+    }
+    
+    /**
+     * Publica um novo delta com as alterações pendentes, mesclando-as ao base quando
+     * o delta ultrapassa o limite
+     */
+    private void publishPending() {
+        List<Entry> entries = new ArrayList<>();
+        pending.forEach((id, keys) -> {
+            for (String key : keys) {
+                entries.add(new Entry(key, id));
+            }
+        });
+        
+        State current = state;
+        Snapshot delta = Snapshot.of(entries);
+        if (pending.size() < compactThreshold) {
+            state = new State(current.base, delta, new HashSet<>(pending.keySet()));
+            return;
+        }
+        
+        // Compactação: intercala em uma passada o base (sem os usuários alterados) e o
+        // delta, ambos já ordenados, sem reordenar o índice inteiro
+        state = new State(Snapshot.merge(current.base, delta, pending.keySet()), Snapshot.EMPTY,
+                Collections.emptySet());
+        pending.clear();
+    }
+    
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Chaves de um usuário: o nome a partir de cada palavra e o email
+     */
+    static Set<String> keys(String name, String email) {
+        Set<String> keys = new LinkedHashSet<>();
+        String normalizedName = normalize(name);
+        for (int i = 0; i < normalizedName.length(); i++) {
+            if (i == 0 || (normalizedName.charAt(i - 1) == ' ' && normalizedName.charAt(i) != ' ')) {
+                keys.add(normalizedName.substring(i));
+            }
+        }
+        String normalizedEmail = normalize(email);
+        if (!normalizedEmail.isEmpty()) {
+            keys.add(normalizedEmail);
+        }
+        return keys;
+    }
+    
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+    
+    /**
+     * Par (chave, id) usado na construção dos arrays ordenados
+     */
+    private static final class Entry implements Comparable<Entry> {
+        private final String key;
+        private final long id;
+        
+        Entry(String key, long id) {
+            this.key = key;
+            this.id = id;
+        }
+        
+        @Override
+        public int compareTo(Entry other) {
+            int result = key.compareTo(other.key);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+    }
+    
+    /**
+     * Arrays paralelos e imutáveis de chaves e IDs ordenados por chave
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new long[0]);
+        
+        final String[] keys;
+        final long[] ids;
+        
+        private Snapshot(String[] keys, long[] ids) {
+            this.keys = keys;
+            this.ids = ids;
+        }
+        
+        static Snapshot of(List<Entry> entries) {
+            Entry[] sorted = entries.toArray(new Entry[0]);
+            Arrays.sort(sorted);
+            String[] keys = new String[sorted.length];
+            long[] ids = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = sorted[i].key;
+                ids[i] = sorted[i].id;
+            }
+            return new Snapshot(keys, ids);
+        }
+        
+        /**
+         * Intercala dois snapshots ordenados em tempo linear, descartando do base as
+         * entradas dos IDs substituídos
+         */
+        static Snapshot merge(Snapshot base, Snapshot delta, Set<Long> overridden) {
+            String[] keys = new String[base.size() + delta.size()];
+            long[] ids = new long[keys.length];
+            int size = 0;
+            int i = 0;
+            int j = 0;
+            while (i < base.size() || j < delta.size()) {
+                if (i < base.size() && overridden.contains(base.ids[i])) {
+                    i++;
+                } else if (j < delta.size() && (i == base.size() || delta.compareAt(j, base, i) <= 0)) {
+                    keys[size] = delta.keys[j];
+                    ids[size++] = delta.ids[j++];
+                } else {
+                    keys[size] = base.keys[i];
+                    ids[size++] = base.ids[i++];
+                }
+            }
+            return new Snapshot(Arrays.copyOf(keys, size), Arrays.copyOf(ids, size));
+        }
+        
+        int size() {
+            return keys.length;
+        }
+        
+        /**
+         * Primeira posição cuja chave é maior ou igual ao prefixo
+         */
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+        
+        /**
+         * Compara a entrada na posição informada com a entrada de outro snapshot (chave, id)
+         */
+        int compareAt(int index, Snapshot other, int otherIndex) {
+            int result = keys[index].compareTo(other.keys[otherIndex]);
+            return result != 0 ? result : Long.compare(ids[index], other.ids[otherIndex]);
+        }
+        
+        long estimatedBytes() {
+            long bytes = 16L + 8L * keys.length + 16L + 8L * ids.length;
+            for (String key : keys) {
+                bytes += stringBytes(key);
+            }
+            return bytes;
+        }
+    }
+    
+    /**
+     * Estado publicado para os leitores: base, delta e os IDs cujas entradas no
+     * base foram substituídas pelo delta
+     */
+    private static final class State {
+        final Snapshot base;
+        final Snapshot delta;
+        final Set<Long> overridden;
+        
+        State(Snapshot base, Snapshot delta, Set<Long> overridden) {
+            this.base = base;
+            this.delta = delta;
+            this.overridden = overridden;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Versão da tabela de usuários, para as ETags e o Last-Modified das leituras
+ *
+ * O número da versão é incrementado após o commit de cada alteração publicada pelo
+ * {@link UserService} (e de cada correção dos contadores pelo {@link UserStatsService}),
+ * de modo que uma requisição condicional pode ser respondida com 304 comparando
+ * apenas a versão em memória, sem ler o banco nem serializar a resposta. A versão é
+ * lida antes dos dados: uma leitura concorrente com um commit pode devolver dados
+ * mais novos que a ETag (o cliente só os baixa de novo), nunca mais antigos.
+ *
+ * As ETags incluem o instante de inicialização, para que uma ETag de antes de um
+ * reinício não coincida com a versão reiniciada. Alterações feitas fora do serviço
+ * (outra instância da aplicação ou o banco diretamente) não mudam a versão.
+ */
+@Component
+public class UserVersions {
+    
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicReference<Version> current = new AtomicReference<>(new Version(0, System.currentTimeMillis()));
+    
+    /**
+     * Versão atual; deve ser lida antes dos dados da resposta
+     */
+    public Version current() {
+        return current.get();
+    }
+    
+    /**
+     * Marca a tabela como alterada
+     */
+    public void increment() {
+        long now = System.currentTimeMillis();
+        current.updateAndGet(version -> new Version(version.number + 1, now));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        increment();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UserBulkChangedEvent event) {
+        increment();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatsChanged(UserStatsChangedEvent event) {
+        increment();
+    }
+    
+    /**
+     * Versão da linha de um usuário: o updatedAt, carimbado por todos os caminhos de escrita
+     */
+    static String rowVersion(User user) {
+        LocalDateTime updatedAt = user.getUpdatedAt() != null ? user.getUpdatedAt() : user.getCreatedAt();
+        if (updatedAt == null) {
+            return "0";
+        }
+        return Long.toString(ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), updatedAt),
+                Character.MAX_RADIX);
+    }
+    
+    /**
+     * Versão da tabela em um instante
+     */
+    public final class Version {
+        private final long number;
+        private final long modifiedAt;
+        
+        private Version(long number, long modifiedAt) {
+            this.number = number;
+            this.modifiedAt = modifiedAt;
+        }
+        
+        public long getNumber() {
+            return number;
+        }
+        
+        /**
+         * ETag das respostas que dependem apenas do conteúdo da tabela (listas e estatísticas)
+         */
+        public String getTag() {
+            return "\"" + prefix() + "\"";
+        }
+        
+        /**
+         * ETag fraca, para respostas equivalentes mas não idênticas, que dependem da tabela
+         * e de uma variante (por exemplo, o status do banco no health check)
+         */
+        public String getWeakTag(String variant) {
+            return "W/\"" + prefix() + "-" + variant + "\"";
+        }
+        
+        /**
+         * ETag de um usuário: a versão da tabela seguida do ID e da versão da linha
+         */
+        public String getUserTag(User user) {
+            return "\"" + prefix() + userPart(user.getId()) + rowVersion(user) + "\"";
+        }
+        
+        /**
+         * Last-Modified das respostas, ou -1 enquanto o segundo da última alteração não
+         * terminou: o If-Modified-Since tem precisão de segundos e não distinguiria uma
+         * alteração feita no mesmo segundo
+         */
+        public long getLastModified() {
+            long second = TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(modifiedAt));
+            return System.currentTimeMillis() - second >= TimeUnit.SECONDS.toMillis(1) ? second : -1;
+        }
+        
+        /**
+         * Procura no If-None-Match uma ETag do usuário emitida nesta versão da tabela
+         * @return a ETag encontrada, ou null
+         */
+        public String findUserTag(String ifNoneMatch, Long id) {
+            String prefix = "\"" + prefix() + userPart(id);
+            for (String tag : parseTags(ifNoneMatch)) {
+                if (tag.startsWith(prefix)) {
+                    return tag;
+                }
+            }
+            return null;
+        }
+        
+        /**
+         * Indica se o If-None-Match tem uma ETag do usuário com a versão atual da linha,
+         * ainda que emitida em outra versão da tabela (ou antes de um reinício)
+         */
+        public boolean matchesRow(String ifNoneMatch, User user) {
+            String suffix = userPart(user.getId()) + rowVersion(user) + "\"";
+            for (String tag : parseTags(ifNoneMatch)) {
+                if (tag.endsWith(suffix) && tag.chars().filter(c -> c == '-').count() == 3) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private String prefix() {
+            return epoch + "-" + number;
+        }
+        
+        private String userPart(Long id) {
+            return "-u" + id + "-";
+        }
+    }
+    
+    private static String[] parseTags(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return new String[0];
+        }
+        String[] tags = ifNoneMatch.split(",");
+        for (int i = 0; i < tags.length; i++) {
+            String tag = tags[i].trim();
+            tags[i] = tag.startsWith("W/") ? tag.substring(2) : tag;
+        }
+        return tags;
+    }
+}
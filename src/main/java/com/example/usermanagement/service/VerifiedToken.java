@@ -0,0 +1,85 @@
+package com.example.usermanagement.service;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Token JWT cuja assinatura já foi verificada
+ *
+ * Resultado de uma única verificação HMAC e de um único parse das claims;
+ * todos os dados usados na autenticação são lidos daqui, sem reprocessar o token.
+ */
+public final class VerifiedToken {
+    
+    private final String subject;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final List<String> roles;
+    private final Boolean active;
+    
+    private VerifiedToken(String subject, Date issuedAt, Date expiration, List<String> roles, Boolean active) {
+        this.subject = subject;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+        this.roles = roles;
+        this.active = active;
+    }
+    
+    /**
+     * Cria a partir das claims já verificadas pelo parser
+     */
+    static VerifiedToken of(Claims claims) {
+        Object roles = claims.get(JwtService.ROLES_CLAIM);
+        List<String> roleNames = roles instanceof List
+                ? Collections.unmodifiableList(((List<?>) roles).stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.toList()))
+                : null;
+        return new VerifiedToken(claims.getSubject(), claims.getIssuedAt(), claims.getExpiration(),
+                roleNames, claims.get(JwtService.ACTIVE_CLAIM, Boolean.class));
+    }
+    
+    /**
+     * Username (email) do token
+     */
+    public String getSubject() {
+        return subject;
+    }
+    
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+    
+    public Date getExpiration() {
+        return expiration;
+    }
+    
+    /**
+     * Roles sem o prefixo ROLE_, ou null se o token não tem a claim
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+    
+    /**
+     * Status de ativação do usuário, ou null se o token não tem a claim
+     */
+    public Boolean getActive() {
+        return active;
+    }
+    
+    /**
+     * Indica se o token carrega as claims de roles e status
+     */
+    public boolean hasAuthorityClaims() {
+        return roles != null && active != null;
+    }
+    
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.usermanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache limitado de tokens já verificados, indexado pelo SHA-256 do token
+ *
+ * Evita repetir a verificação HMAC e o parse das claims quando o cliente reutiliza
+ * o mesmo token em muitas requisições. Cada entrada expira no menor valor entre o
+ * TTL configurado e o {@code exp} do próprio token, então o cache nunca aceita um
+ * token expirado. As leituras são um simples {@code get} em um
+ * {@link ConcurrentHashMap}, sem lock; ao atingir o tamanho máximo as entradas
+ * expiradas são descartadas e, se necessário, uma fração das demais.
+ *
+ * O token em si não é armazenado, apenas o seu digest. Com
+ * {@code jwt.token-cache.max-size=0} o cache fica desativado.
+ *
+ * Descartar os tokens de um usuário alterado só força uma nova verificação: não há
+ * revogação de tokens. Com {@code jwt.auth-mode=claims} o token verificado de novo ainda
+ * traz as claims da emissão, então uma desativação só vale quando ele expira.
+ */
+@Component
+public class VerifiedTokenCache {
+    
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    });
+    
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public VerifiedTokenCache(@Value("${jwt.token-cache.max-size:0}") int maxSize,
+                              @Value("${jwt.token-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+    
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+    
+    /**
+     * Busca um token verificado ainda válido
+     * @return o token verificado, ou null se não está no cache ou expirou
+     */
+    public VerifiedToken get(String token) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            hits.increment();
+            return entry.token;
+        }
+        if (entry != null && entries.remove(key, entry)) {
+            evictions.increment();
+        }
+        misses.increment();
+        return null;
+    }
+    
+    /**
+     * Armazena um token recém-verificado
+     */
+    public void put(String token, VerifiedToken verified) {
+        if (!isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        if (verified.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, verified.getExpiration().getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            shrink(now);
+        }
+        entries.put(digest(token), new Entry(verified, expiresAt));
+    }
+    
+    /**
+     * Remove todos os tokens de um usuário
+     */
+    public void evictSubject(String subject) {
+        if (subject != null) {
+            evictSubjects(Set.of(subject));
+        }
+    }
+    
+    /**
+     * Remove todos os tokens dos usuários informados em uma única varredura
+     */
+    public void evictSubjects(Set<String> subjects) {
+        if (subjects.isEmpty()) {
+            return;
+        }
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (subjects.contains(iterator.next().token.getSubject())) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+    
+    /**
+     * Descarta os tokens de usuários alterados, desativados ou removidos após o commit
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getType() == UserChangedEvent.Type.CREATED || event.getType() == UserChangedEvent.Type.ACTIVATED) {
+            return;
+        }
+        evictSubject(event.getPreviousEmail());
+        if (event.getUser() != null) {
+            evictSubject(event.getUser().getEmail());
+        }
+    }
+    
+    /**
+     * Descarta os tokens dos usuários desativados ou removidos em massa após o commit
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UserBulkChangedEvent event) {
+        if (event.getType() == UserChangedEvent.Type.DEACTIVATED || event.getType() == UserChangedEvent.Type.DELETED) {
+            evictSubjects(event.getEmails());
+        }
+    }
+    
+    public void clear() {
+        entries.clear();
+    }
+    
+    /**
+     * Métricas do cache para dimensionamento
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+    
+    /**
+     * Libera espaço: remove as entradas expiradas e, se o cache continuar cheio,
+     * cerca de 10% das demais
+     */
+    private void shrink(long now) {
+        entries.values().removeIf(entry -> {
+            boolean expired = entry.expiresAt <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+    
+    private static String digest(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+    
+    private static final class Entry {
+        private final VerifiedToken token;
+        private final long expiresAt;
+        
+        Entry(VerifiedToken token, long expiresAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
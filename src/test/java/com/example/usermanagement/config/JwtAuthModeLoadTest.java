@@ -0,0 +1,137 @@
+package com.example.usermanagement.config;
+
+import com.example.usermanagement.service.CustomUserDetailsService;
+import com.example.usermanagement.service.JwtService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara a vazão do filtro JWT com e sem consulta ao banco por requisição
+ * (jwt.auth-mode=database, com os caches de principals e de entidades desativados, e jwt.auth-mode=claims).
+ * Só executa com -Dbenchmark=true; o número de requisições pode ser ajustado com -Dbenchmark.requests=100000.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "users.principal-cache.max-age-seconds=0",
+    "users.entity-cache.enabled=false",
+    "logging.level.org.hibernate=WARN",
+    "logging.level.com.example.usermanagement=WARN"
+})
+public class JwtAuthModeLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 10_000);
+    private static final int THREADS = 8;
+
+    @Autowired
+    private JwtRequestFilter jwtRequestFilter;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String token;
+
+    @BeforeClass
+    public static void checkEnabled() {
+        // Antes de subir o contexto, que sozinho já custa alguns segundos
+        Assume.assumeTrue("benchmark desativado (use -Dbenchmark=true)", Boolean.getBoolean("benchmark"));
+    }
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        token = jwtService.generateToken(userDetailsService.loadUserByUsername("admin@example.com"));
+    }
+
+    @After
+    public void tearDown() {
+        ReflectionTestUtils.setField(jwtRequestFilter, "authMode", "database");
+    }
+
+    @Test
+    public void testClaimsModeAuthenticatesWithoutDatabaseAccess() throws Exception {
+        double databaseRate = run("database");
+        long databaseQueries = statistics.getPrepareStatementCount();
+
+        double claimsRate = run("claims");
+        long claimsQueries = statistics.getPrepareStatementCount();
+
+        System.out.printf("%d requisições em %d threads: database %.0f req/s (%d consultas), "
+                + "claims %.0f req/s (%d consultas)%n",
+                REQUESTS, THREADS, databaseRate, databaseQueries, claimsRate, claimsQueries);
+        assertTrue(databaseQueries >= REQUESTS);
+        assertEquals(0, claimsQueries);
+    }
+
+    private double run(String mode) throws Exception {
+        ReflectionTestUtils.setField(jwtRequestFilter, "authMode", mode);
+        authenticate();
+        statistics.clear();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < REQUESTS / THREADS; i++) {
+                        authenticate();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return REQUESTS / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            assertNotNull(authentication);
+            assertTrue(authentication.getAuthorities().stream()
+                    .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN")));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.usermanagement.controller;
+
+import com.example.usermanagement.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compara a vazão de criação de usuários um a um (POST /api/users) com a
+ * criação em massa (POST /api/users/bulk). O tempo do hash das senhas, que só a
+ * criação em massa gera, é informado à parte e não entra na vazão. As vazões são
+ * apenas informadas; a verificação é sobre o número de comandos JDBC.
+ * Executado só com -Dbenchmark=true; o número de usuários pode ser ajustado com
+ * -Dbenchmark.users=100000.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate=WARN",
+    "logging.level.com.example.usermanagement=WARN"
+})
+public class UserBulkBenchmarkTest {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 2_000);
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("benchmark desativado (use -Dbenchmark=true)", Boolean.getBoolean("benchmark"));
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    public void testBulkCreationBatchesStatements() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long usersBefore = userRepository.count();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            mockMvc.perform(post("/api/users")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(userJson("single", i)))
+                    .andExpect(status().isCreated());
+        }
+        double singleRate = USERS / ((System.nanoTime() - start) / 1e9);
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < USERS; i++) {
+            body.append(userJson("bulk", i)).append('\n');
+        }
+        statistics.clear();
+        start = System.nanoTime();
+        String response = mockMvc.perform(post("/api/users/bulk")
+                .contentType("application/x-ndjson")
+                .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(USERS))
+                .andReturn().getResponse().getContentAsString();
+        long hashingMillis = ((Number) JsonPath.read(response, "$.hashingMillis")).longValue();
+        double bulkRate = USERS / ((System.nanoTime() - start) / 1e9 - hashingMillis / 1e3);
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("%d usuários: um a um %.0f inserções/s (%d comandos JDBC), em massa %.0f inserções/s "
+                + "(%d comandos JDBC, + %d ms de hash)%n",
+                USERS, singleRate, singleStatements, bulkRate, bulkStatements, hashingMillis);
+        assertEquals(usersBefore + 2L * USERS, userRepository.count());
+        // Um a um: ao menos um INSERT por usuário; em massa: INSERTs em lotes JDBC
+        assertTrue("um a um: " + singleStatements, singleStatements >= USERS);
+        assertTrue("em massa: " + bulkStatements, bulkStatements < USERS / 10);
+    }
+
+    private static String userJson(String prefix, int i) {
+        return "{\"name\":\"Usuário " + i + "\",\"email\":\"" + prefix + i
+                + "@email.com\",\"password\":\"secret123\"}";
+    }
+}
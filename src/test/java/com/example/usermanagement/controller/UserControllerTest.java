@@ -1,18 +1,40 @@
 package com.example.usermanagement.controller;
 
+import com.example.usermanagement.dto.BulkCreateResponse;
+import com.example.usermanagement.dto.BulkItemResult;
+import com.example.usermanagement.dto.BulkOperationResponse;
+import com.example.usermanagement.dto.CursorPage;
+import com.example.usermanagement.dto.UserBulkRequest;
+import com.example.usermanagement.dto.UserQuery;
+import com.example.usermanagement.dto.UserSuggestion;
+import com.example.usermanagement.dto.UserSummary;
 import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserCounters;
+import com.example.usermanagement.service.UserBulkService;
+import com.example.usermanagement.service.UserChangedEvent;
+import com.example.usermanagement.service.UserExportService;
 import com.example.usermanagement.service.UserService;
+import com.example.usermanagement.service.UserStatsService;
+import com.example.usermanagement.service.UserSuggestIndex;
+import com.example.usermanagement.service.UserVersions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -20,9 +42,13 @@ import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.junit.Assert.assertNotEquals;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
@@ -34,12 +60,28 @@ public class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserExportService userExportService;
+
+    @Mock
+    private UserSuggestIndex suggestIndex;
+
+    @Mock
+    private UserBulkService userBulkService;
+
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Spy
+    private UserVersions userVersions = new UserVersions();
+
     @InjectMocks
     private UserController userController;
 
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
     private User testUser;
+    private UserSummary testSummary;
 
     @Before
     public void setUp() {
@@ -50,6 +92,8 @@ public class UserControllerTest {
         testUser.setId(1L);
         testUser.setPhone("11999999999");
         testUser.setAge(30);
+        testSummary = new UserSummary(1L, "João Silva", "joao@email.com", "11999999999", 30, true,
+                LocalDateTime.now(), null);
     }
 
     @Test
@@ -84,7 +128,7 @@ public class UserControllerTest {
     @Test
     public void testGetAllUsers() throws Exception {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
+        List<UserSummary> users = Arrays.asList(testSummary);
         when(userService.getAllUsers()).thenReturn(users);
 
         // Act & Assert
@@ -92,7 +136,9 @@ public class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].name").value("João Silva"));
+                .andExpect(jsonPath("$[0].name").value("João Silva"))
+                .andExpect(jsonPath("$[0].password").doesNotExist())
+                .andExpect(jsonPath("$[0].roles").doesNotExist());
     }
 
     @Test
@@ -183,7 +229,7 @@ public class UserControllerTest {
     @Test
     public void testGetActiveUsers() throws Exception {
         // Arrange
-        List<User> activeUsers = Arrays.asList(testUser);
+        List<UserSummary> activeUsers = Arrays.asList(testSummary);
         when(userService.getActiveUsers()).thenReturn(activeUsers);
 
         // Act & Assert
@@ -196,7 +242,7 @@ public class UserControllerTest {
     @Test
     public void testSearchUsersByName() throws Exception {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
+        List<UserSummary> users = Arrays.asList(testSummary);
         when(userService.searchUsersByName("João")).thenReturn(users);
 
         // Act & Assert
@@ -210,7 +256,7 @@ public class UserControllerTest {
     @Test
     public void testGetUsersByAgeRange() throws Exception {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
+        List<UserSummary> users = Arrays.asList(testSummary);
         when(userService.getUsersByAgeRange(25, 35)).thenReturn(users);
 
         // Act & Assert
@@ -225,8 +271,7 @@ public class UserControllerTest {
     @Test
     public void testGetUserStats() throws Exception {
         // Arrange
-        when(userService.countActiveUsers()).thenReturn(5L);
-        when(userService.countInactiveUsers()).thenReturn(2L);
+        when(userStatsService.getStats()).thenReturn(new UserCounters(5, 2));
 
         // Act & Assert
         mockMvc.perform(get("/api/users/stats"))
@@ -235,4 +280,216 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.activeUsers").value(5))
                 .andExpect(jsonPath("$.inactiveUsers").value(2));
     }
+
+    @Test
+    public void testGetAllUsers_Paged() throws Exception {
+        // Arrange
+        CursorPage<UserSummary> page = new CursorPage<>(Arrays.asList(testSummary), "Mg", 1);
+        when(userService.getUsersPage(null, 1)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value("Mg"))
+                .andExpect(jsonPath("$.limit").value(1));
+    }
+
+    @Test
+    public void testGetAllUsers_InvalidCursor() throws Exception {
+        // Arrange
+        when(userService.getUsersPage("bad", null))
+                .thenThrow(new IllegalArgumentException("Cursor inválido: bad"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users")
+                .param("after", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido: bad"));
+    }
+
+    @Test
+    public void testExportUsers_StreamsNdjson() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(userExportService).exportUsers(any(OutputStream.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    public void testQueryUsers() throws Exception {
+        // Arrange
+        CursorPage<UserSummary> page = new CursorPage<>(Arrays.asList(testSummary), null, 50);
+        when(userService.queryUsers(any(UserQuery.class))).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/query")
+                .param("name", "João")
+                .param("minAge", "25")
+                .param("active", "true")
+                .param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("João Silva"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void testSuggestUsers() throws Exception {
+        // Arrange
+        when(userService.suggestUsers("jo", 5))
+                .thenReturn(Arrays.asList(new UserSuggestion(1L, "João Silva", "joao@email.com")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/suggest")
+                .param("prefix", "jo")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].name").value("João Silva"))
+                .andExpect(jsonPath("$[0].email").value("joao@email.com"))
+                .andExpect(jsonPath("$[0].active").doesNotExist());
+    }
+
+    @Test
+    public void testCreateUsersInBulk() throws Exception {
+        // Arrange
+        BulkCreateResponse response = new BulkCreateResponse(Arrays.asList(
+                BulkItemResult.created(0, 1L, "joao@email.com"),
+                BulkItemResult.failed(1, "maria@email.com", "Email já está em uso: maria@email.com")));
+        when(userBulkService.createUsers(any(InputStream.class))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/bulk")
+                .contentType("application/x-ndjson")
+                .content("{\"name\":\"João Silva\",\"email\":\"joao@email.com\"}\n"
+                        + "{\"name\":\"Maria\",\"email\":\"maria@email.com\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].id").value(1L))
+                .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.results[1].error").value("Email já está em uso: maria@email.com"));
+    }
+
+    @Test
+    public void testDeactivateUsersInBulk() throws Exception {
+        // Arrange
+        when(userService.deactivateUsers(any(UserBulkRequest.class))).thenReturn(new BulkOperationResponse(3, 2));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/users/bulk/deactivate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\":{\"name\":\"acme\",\"active\":true}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(3))
+                .andExpect(jsonPath("$.affected").value(2));
+    }
+
+    @Test
+    public void testDeleteUsersInBulk_WithoutTarget() throws Exception {
+        // Arrange
+        when(userService.deleteUsers(any(UserBulkRequest.class)))
+                .thenThrow(new IllegalArgumentException("Informe a lista de IDs, um filtro com ao menos um critério ou \"all\": true"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Informe a lista de IDs, um filtro com ao menos um critério ou \"all\": true"));
+    }
+
+    @Test
+    public void testGetAllUsers_NotModified() throws Exception {
+        // Arrange
+        when(userService.getAllUsers()).thenReturn(Arrays.asList(testSummary));
+        String etag = mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert: sem alterações, 304 sem consultar o serviço
+        mockMvc.perform(get("/api/users").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(userService, times(1)).getAllUsers();
+
+        // Act & Assert: após uma alteração, a lista é lida de novo
+        userVersions.onUserChanged(UserChangedEvent.deleted(2L));
+        mockMvc.perform(get("/api/users").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L));
+        verify(userService, times(2)).getAllUsers();
+    }
+
+    @Test
+    public void testGetUserById_NotModified() throws Exception {
+        // Arrange
+        testUser.setUpdatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
+        when(userService.getUserById(1L)).thenReturn(Optional.of(testUser));
+        String etag = mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert: nenhum usuário mudou, 304 sem ler o usuário
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        verify(userService, times(1)).getUserById(1L);
+
+        // Act & Assert: a ETag de um usuário não vale para outro
+        User other = new User("Maria Souza", "maria@email.com");
+        other.setId(2L);
+        other.setUpdatedAt(testUser.getUpdatedAt());
+        when(userService.getUserById(2L)).thenReturn(Optional.of(other));
+        mockMvc.perform(get("/api/users/2").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Maria Souza"));
+
+        // Act & Assert: outro usuário mudou, este não: 304 com a nova ETag
+        userVersions.onUserChanged(UserChangedEvent.deleted(2L));
+        String refreshed = mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, refreshed);
+
+        // Act & Assert: o próprio usuário mudou
+        testUser.setUpdatedAt(LocalDateTime.of(2024, 1, 15, 10, 31));
+        userVersions.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.UPDATED, testUser));
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, refreshed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("João Silva"));
+        verify(userService, times(3)).getUserById(1L);
+    }
+
+    @Test
+    public void testGetUserStats_NotModifiedSince() throws Exception {
+        // Arrange: o Last-Modified só é enviado depois que o segundo da última alteração termina
+        Thread.sleep(1000);
+        when(userStatsService.getStats()).thenReturn(new UserCounters(5, 2));
+        String lastModified = mockMvc.perform(get("/api/users/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/stats").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        verify(userStatsService, times(1)).getStats();
+    }
 }
@@ -0,0 +1,99 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.dto.UserSummary;
+import com.example.usermanagement.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara as linhas carregadas pela filtragem no cliente (findAll + filtro em memória)
+ * com a busca combinada executada no banco (GET /api/users/query)
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"
+})
+public class UserQueryBenchmarkTest {
+
+    private static final int USERS = 2000;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("Usuário " + i, "usuario" + i + "@email.com");
+            user.setPassword("secret123");
+            user.setAge(18 + i % 60);
+            user.setActive(i % 3 != 0);
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testCombinedQueryLoadsOnlyOnePage() {
+        // Abordagem atual: baixa tudo e filtra no cliente
+        List<User> clientSide = userRepository.findAll().stream()
+                .filter(u -> u.getName().toLowerCase().contains("usuário 1"))
+                .filter(u -> u.getAge() >= 30 && u.getAge() <= 40)
+                .filter(User::getActive)
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList());
+        long clientSideRows = statistics.getEntityLoadCount();
+        long clientSideStatements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        statistics.clear();
+
+        // Busca combinada no banco
+        Specification<User> spec = Specification.where(UserSpecifications.nameContains("usuário 1"))
+                .and(UserSpecifications.ageAtLeast(30))
+                .and(UserSpecifications.ageAtMost(40))
+                .and(UserSpecifications.hasActive(true));
+        List<UserSummary> serverSide = userRepository.findSummaries(spec, Sort.by("id"), PAGE_SIZE);
+        long serverSideEntities = statistics.getEntityLoadCount();
+        long serverSideStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("Filtragem no cliente: %d linhas carregadas, %d consultas%n",
+                clientSideRows, clientSideStatements);
+        System.out.printf("Busca combinada:      %d linhas retornadas, %d consultas%n",
+                serverSide.size(), serverSideStatements);
+
+        assertEquals(clientSide.stream().map(User::getId).collect(Collectors.toList()),
+                serverSide.stream().map(UserSummary::getId).collect(Collectors.toList()));
+        assertEquals(USERS, clientSideRows);
+        // Uma consulta que devolve só a página, como resumo, sem carregar entidades
+        assertEquals(PAGE_SIZE, serverSide.size());
+        assertEquals(1, serverSideStatements);
+        assertEquals(0, serverSideEntities);
+    }
+}
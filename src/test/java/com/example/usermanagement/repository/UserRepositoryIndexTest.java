@@ -0,0 +1,183 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Executa cada consulta do {@link UserRepository} (e do {@link UserTombstoneRepository}), captura o SQL gerado pelo
+ * Hibernate e verifica com EXPLAIN do H2 que nenhuma delas percorre a tabela
+ * inteira. As exceções são as consultas que leem todos os usuários por definição
+ * e a busca por trecho do nome, que não pode usar índice B-tree (atendida pelo
+ * {@link com.example.usermanagement.service.UserSearchIndex}).
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.example.usermanagement.repository.UserRepositoryIndexTest$SqlCapture"
+})
+public class UserRepositoryIndexTest {
+
+    private static final Set<String> FULL_SCANS_ALLOWED = Set.of(
+            "findByNameContainingIgnoreCase", "streamAllByOrderByIdAsc", "streamIdentitiesBy", "streamEmailsBy");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email, email_normalized, password, age, active, created_at) "
+                + "SELECT X, 'Usuário ' || X, 'User' || X || '@Email.com', 'user' || X || '@email.com', 'secret123', "
+                + "MOD(X, 80), MOD(X, 10) <> 0, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) SELECT X, 'USER' FROM SYSTEM_RANGE(1, 2000)");
+    }
+
+    @Test
+    public void testRepositoryQueriesUseIndexes() {
+        List<Long> ids = List.of(1L, 2L, 3L);
+        PageRequest page = PageRequest.of(0, 10);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByEmail", () -> userRepository.findByEmail("USER1@Email.com"));
+        queries.put("existsByEmail", () -> userRepository.existsByEmail("User1@email.com"));
+        queries.put("findExistingEmails", () -> userRepository.findExistingEmails(List.of("user1@email.com")));
+        queries.put("updateActiveByIdIn", () -> userRepository.updateActiveByIdIn(ids, true, LocalDateTime.now()));
+        queries.put("deleteRolesByUserIdIn", () -> userRepository.deleteRolesByUserIdIn(ids));
+        queries.put("deleteByIdIn", () -> userRepository.deleteByIdIn(ids));
+        queries.put("findAllSummaries", () -> userRepository.findAllSummaries());
+        queries.put("findActiveSummaries", () -> userRepository.findActiveSummaries());
+        queries.put("findSummariesByAgeBetween", () -> userRepository.findSummariesByAgeBetween(20, 30));
+        queries.put("findSummariesByIdIn", () -> userRepository.findSummariesByIdIn(ids));
+        queries.put("findByActiveTrue", () -> userRepository.findByActiveTrue());
+        queries.put("findByActiveFalse", () -> userRepository.findByActiveFalse());
+        queries.put("findByNameContainingIgnoreCase", () -> userRepository.findByNameContainingIgnoreCase("usu"));
+        queries.put("findByAgeBetween", () -> userRepository.findByAgeBetween(20, 30));
+        queries.put("countGroupByActive", () -> userRepository.countGroupByActive());
+        queries.put("countByIdInAndActiveTrue", () -> userRepository.countByIdInAndActiveTrue(ids));
+        queries.put("countByAgeBucket", () -> userRepository.countByAgeBucket());
+        queries.put("findRecentlyUpdated", () -> userRepository.findRecentlyUpdated(page));
+        queries.put("findSummariesChangedAfter",
+                () -> userRepository.findSummariesChangedAfter(LocalDateTime.now().minusMinutes(1), page));
+        queries.put("findPageAfter", () -> userRepository.findPageAfter(0L, page));
+        queries.put("findActivePageAfter", () -> userRepository.findActivePageAfter(0L, page));
+        queries.put("findByAgeBetweenPageAfter",
+                () -> userRepository.findByAgeBetweenPageAfter(20, 30, 20, 0L, page));
+        queries.put("streamAllByOrderByIdAsc", () -> {
+            try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+                users.limit(1).count();
+            }
+        });
+        queries.put("streamIdentitiesBy", () -> {
+            try (Stream<?> identities = userRepository.streamIdentitiesBy()) {
+                identities.limit(1).count();
+            }
+        });
+        queries.put("streamEmailsBy", () -> {
+            try (Stream<String> emails = userRepository.streamEmailsBy()) {
+                emails.limit(1).count();
+            }
+        });
+        Specification<User> ageAndActive = UserSpecifications.ageAtLeast(20)
+                .and(UserSpecifications.ageAtMost(30))
+                .and(UserSpecifications.hasActive(true));
+        queries.put("findSummaries", () -> userRepository.findSummaries(ageAndActive, Sort.by("age", "id"), 10));
+        queries.put("findIdentities", () -> userRepository.findIdentities(UserSpecifications.idIn(ids)));
+        queries.put("insertForUserIdIn", () -> tombstoneRepository.insertForUserIdIn(ids, LocalDateTime.now()));
+        queries.put("findUserIdsDeletedAfter",
+                () -> tombstoneRepository.findUserIdsDeletedAfter(LocalDateTime.now().minusMinutes(1), page));
+        queries.put("deleteByDeletedAtBefore",
+                () -> tombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minusDays(7)));
+
+        Set<String> declared = Stream.of(UserRepository.class, UserRepositoryCustom.class, UserTombstoneRepository.class)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic() && !method.isDefault())
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+        assertEquals("Toda consulta do repositório deve ser verificada", declared, new TreeSet<>(queries.keySet()));
+
+        List<String> scans = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            SqlCapture.STATEMENTS.clear();
+            query.run();
+            assertFalse("Nenhum SQL capturado para " + name, SqlCapture.STATEMENTS.isEmpty());
+            for (String sql : new ArrayList<>(SqlCapture.STATEMENTS)) {
+                String plan = explain(sql);
+                if (plan.contains(".tableScan") && !FULL_SCANS_ALLOWED.contains(name)) {
+                    scans.add(name + ": " + plan);
+                }
+            }
+        });
+        assertTrue("Consultas sem índice:\n" + String.join("\n", scans), scans.isEmpty());
+    }
+
+    @Test
+    public void testNameSearchFallsBackToTableScan() {
+        SqlCapture.STATEMENTS.clear();
+        userRepository.findByNameContainingIgnoreCase("usu");
+
+        assertTrue(explain(SqlCapture.STATEMENTS.get(0)).contains("PUBLIC.USERS.tableScan"));
+    }
+
+    /**
+     * Plano do H2 para o SQL; os parâmetros são nulos, pois o índice é escolhido na preparação
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet result = statement.executeQuery()) {
+                    result.next();
+                    return result.getString(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Registra o SQL preparado pelo Hibernate
+     */
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
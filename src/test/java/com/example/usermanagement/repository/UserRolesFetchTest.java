@@ -0,0 +1,119 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.service.UserExportService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica que listar usuários não faz uma consulta de papéis por usuário (N+1):
+ * os papéis são carregados em lotes de {@link User#ROLES_BATCH_SIZE} nas listas
+ * e junto com os usuários na exportação
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.stat=WARN"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(UserExportService.class)
+public class UserRolesFetchTest {
+
+    private static final int USERS = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("Usuário " + i, "user" + i + "@email.com");
+            user.setPassword("secret123");
+            user.setRoles(i % 10 == 0 ? Set.of(User.Role.USER, User.Role.ADMIN) : Set.of(User.Role.USER));
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testFindAll_LoadsRolesInBatches() {
+        List<User> users = userRepository.findAll();
+
+        // 1 SELECT em users + 1 SELECT em user_roles a cada ROLES_BATCH_SIZE usuários
+        assertEquals(USERS, users.size());
+        assertEquals(1 + USERS / User.ROLES_BATCH_SIZE, statistics.getPrepareStatementCount());
+        assertEquals(USERS, statistics.getCollectionLoadCount());
+        assertEquals(USERS / 10, users.stream().filter(u -> u.getRoles().size() == 2).count());
+    }
+
+    @Test
+    public void testFilteredAndLimitedLists_LoadRolesInBatches() {
+        List<User> active = userRepository.findByActiveTrue();
+        assertEquals(USERS, active.size());
+        assertEquals(1 + USERS / User.ROLES_BATCH_SIZE, statistics.getPrepareStatementCount());
+        entityManager.clear();
+        statistics.clear();
+
+        Page<User> page = userRepository.findAll(UserSpecifications.hasActive(true),
+                PageRequest.of(0, 50, Sort.by("id")));
+        assertEquals(50, page.getNumberOfElements());
+        // Página, contagem e um lote de papéis
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testExport_FetchesRolesWithUsers() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = userExportService.exportUsers(out);
+
+        // Cada usuário é serializado logo após ser lido do cursor: sem o join fetch
+        // seriam 1 + USERS consultas
+        assertEquals(USERS, exported);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(USERS, lines.length);
+        assertEquals(USERS / 10, Arrays.stream(lines).filter(line -> line.contains("\"ADMIN\"")).count());
+        assertTrue(lines[0].contains("\"email\":\"user0@email.com\""));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.usermanagement.repository;
+
+import com.example.usermanagement.service.UserSearchIndex;
+import com.example.usermanagement.service.UserSuggestIndex;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara a busca por nome com LIKE '%x%' no banco e com o índice de trigramas,
+ * e mede a latência e a memória do índice de autocomplete. Os tempos são apenas
+ * informados; as verificações são sobre os resultados e o número de consultas.
+ * Executado só com -Dbenchmark=true; o número de usuários pode ser ajustado com
+ * -Dbenchmark.users=1000000.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.stat=WARN"
+})
+@Import({UserSearchIndex.class, UserSuggestIndex.class})
+public class UserSearchBenchmarkTest {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 100_000);
+    private static final String[] FIRST_NAMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela",
+        "Hugo", "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael"};
+    private static final String[] LAST_NAMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+        "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida"};
+    private static final String[] QUERIES = {"silva", "ana so", "rafael", "lima", "xyz", "elisa f"};
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private UserSuggestIndex suggestIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("benchmark desativado (use -Dbenchmark=true)", Boolean.getBoolean("benchmark"));
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + i;
+            rows.add(new Object[] {name, "user" + i + "@email.com", "user" + i + "@email.com", "secret123"});
+            if (rows.size() == 10_000) {
+                insert(rows);
+            }
+        }
+        insert(rows);
+        searchIndex.rebuild();
+        suggestIndex.rebuild();
+    }
+
+    @Test
+    public void testTrigramIndexMatchesLikeQueryWithoutQueries() {
+        for (String query : QUERIES) {
+            long[] expected = userRepository.findByNameContainingIgnoreCase(query).stream()
+                    .mapToLong(u -> u.getId()).sorted().toArray();
+            assertArrayEquals(query, expected, searchIndex.searchNames(query));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long likeNanos = 0;
+        long indexNanos = 0;
+        long indexStatements = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String query : QUERIES) {
+                long start = System.nanoTime();
+                jdbcTemplate.queryForList("SELECT id FROM users WHERE LOWER(name) LIKE ?", Long.class,
+                        "%" + query + "%");
+                likeNanos += System.nanoTime() - start;
+
+                statistics.clear();
+                start = System.nanoTime();
+                searchIndex.searchNames(query);
+                indexNanos += System.nanoTime() - start;
+                indexStatements += statistics.getPrepareStatementCount();
+            }
+        }
+
+        int searches = ROUNDS * QUERIES.length;
+        System.out.printf("%d usuários: LIKE %.3f ms/busca, índice de trigramas %.3f ms/busca%n",
+                USERS, likeNanos / 1e6 / searches, indexNanos / 1e6 / searches);
+        assertEquals(0, indexStatements);
+    }
+
+    @Test
+    public void testSuggestLatencyAndMemory() {
+        String[] prefixes = {"a", "ana", "silva", "user12", "rafael l", "zz"};
+        for (int i = 0; i < 1000; i++) {
+            suggestIndex.suggest(prefixes[i % prefixes.length], 10);
+        }
+
+        long start = System.nanoTime();
+        int lookups = 100_000;
+        for (int i = 0; i < lookups; i++) {
+            suggestIndex.suggest(prefixes[i % prefixes.length], 10);
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / lookups;
+
+        System.out.printf("%d usuários: autocomplete %.2f µs/consulta, %d chaves, ~%d MB%n",
+                USERS, micros, suggestIndex.size(), suggestIndex.estimatedMemoryBytes() / (1024 * 1024));
+        assertEquals(10, suggestIndex.suggest("silva", 10).size());
+        assertTrue(suggestIndex.suggest("zz", 10).isEmpty());
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, email_normalized, password, active, created_at) "
+                + "VALUES (NEXT VALUE FOR users_seq, ?, ?, ?, ?, TRUE, CURRENT_TIMESTAMP)", rows);
+        rows.clear();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.usermanagement.service;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes unitários para CsvReader
+ */
+public class CsvReaderTest {
+
+    @Test
+    public void testReadRecord_SimpleFieldsAndLineEndings() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("name,email\r\nJoão,joao@email.com\nMaria,\n"));
+
+        assertEquals(List.of("name", "email"), csv.readRecord());
+        assertEquals(List.of("João", "joao@email.com"), csv.readRecord());
+        assertEquals(List.of("Maria", ""), csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    public void testReadRecord_QuotedFields() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "\"Silva, João\",\"diz \"\"oi\"\"\",\"duas\nlinhas\"\r\nultimo,\"\",x"));
+
+        assertEquals(List.of("Silva, João", "diz \"oi\"", "duas\nlinhas"), csv.readRecord());
+        assertEquals(3, csv.getLine());
+        assertEquals(List.of("ultimo", "", "x"), csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    public void testReadRecord_UnclosedQuoteFails() {
+        CsvReader csv = new CsvReader(new StringReader("\"João,joao@email.com\n"));
+
+        IOException e = assertThrows(IOException.class, csv::readRecord);
+        assertEquals("Aspas não fechadas no registro iniciado na linha 1", e.getMessage());
+    }
+}
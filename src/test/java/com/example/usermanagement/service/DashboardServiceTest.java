@@ -0,0 +1,145 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.DashboardSummary;
+import com.example.usermanagement.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica o resumo do dashboard: faixas etárias agrupadas no banco, usuários
+ * recentes pelo índice de updated_at e resposta pequena independente do número de usuários
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.stat=WARN"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({DashboardService.class, UserStatsService.class})
+public class DashboardServiceTest {
+
+    private static final int USERS = 5000;
+    private static final long FIRST_ID = 100_000;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        // Idades de 10 a 69 (uma de cada a cada 60 usuários), a cada 7 sem idade;
+        // o usuário X foi alterado X minutos depois de 2024-01-01. Os IDs ficam longe
+        // dos gerados pela sequence
+        jdbcTemplate.update("INSERT INTO users (id, name, email, email_normalized, password, age, active, created_at, "
+                + "updated_at) SELECT " + FIRST_ID + " + X, 'Usuário ' || X, 'user' || X || '@email.com', "
+                + "'user' || X || '@email.com', 'secret123', "
+                + "CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE 10 + MOD(X, 60) END, MOD(X, 5) <> 0, "
+                + "TIMESTAMP '2024-01-01 00:00:00', DATEADD(MINUTE, X, TIMESTAMP '2024-01-01 00:00:00') "
+                + "FROM SYSTEM_RANGE(1, " + USERS + ")");
+        userStatsService.reconcile();
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testSummaryAggregatesInTheDatabase() throws Exception {
+        DashboardSummary summary = dashboardService.getSummary(5);
+
+        // Contadores, faixas etárias e usuários recentes: uma consulta cada
+        assertEquals(3, statistics.getPrepareStatementCount());
+        // Só a linha de contadores é carregada como entidade
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(USERS, summary.getTotalUsers());
+        assertEquals(USERS / 5, summary.getInactiveUsers());
+
+        List<String> ranges = summary.getAgeDistribution().stream()
+                .map(DashboardSummary.AgeBucket::getRange)
+                .collect(Collectors.toList());
+        assertEquals(List.of("18-25", "26-35", "36-50", "50+"), ranges);
+        for (DashboardSummary.AgeBucket bucket : summary.getAgeDistribution()) {
+            assertEquals(bucket.getRange(), expectedCount(bucket.getRange()), bucket.getCount());
+        }
+
+        List<Long> recentIds = summary.getRecentUsers().stream()
+                .map(DashboardSummary.RecentUser::getId)
+                .collect(Collectors.toList());
+        assertEquals(List.of(FIRST_ID + 5000, FIRST_ID + 4999, FIRST_ID + 4998, FIRST_ID + 4997, FIRST_ID + 4996),
+                recentIds);
+
+        int bytes = objectMapper.writeValueAsBytes(summary).length;
+        System.out.printf("Resumo do dashboard com %d usuários: %d bytes%n", USERS, bytes);
+        assertTrue(bytes < 1024);
+    }
+
+    @Test
+    public void testRecentUsersAreLimited() {
+        assertTrue(dashboardService.getSummary(0).getRecentUsers().isEmpty());
+        assertEquals(DashboardService.MAX_RECENT_USERS, dashboardService.getSummary(1000).getRecentUsers().size());
+    }
+
+    @Test
+    public void testNewUsersAreStampedAsRecent() {
+        User user = new User("Novo Usuário", "novo@email.com");
+        user.setPassword("secret123");
+        entityManager.persist(user);
+        entityManager.flush();
+
+        DashboardSummary.RecentUser recent = dashboardService.getSummary(1).getRecentUsers().get(0);
+
+        assertEquals(user.getId(), recent.getId());
+        assertEquals(recent.getCreatedAt(), recent.getUpdatedAt());
+    }
+
+    /**
+     * Contagem esperada da faixa, calculada sobre os mesmos dados do setUp
+     */
+    private long expectedCount(String range) {
+        int min = Integer.parseInt(range.split("[-+]")[0]) + (range.endsWith("+") ? 1 : 0);
+        int max = range.endsWith("+") ? Integer.MAX_VALUE : Integer.parseInt(range.split("-")[1]);
+        long count = 0;
+        for (int x = 1; x <= USERS; x++) {
+            int age = 10 + x % 60;
+            if (x % 7 != 0 && age >= min && age <= max) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.usermanagement.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara o custo por requisição da validação antiga do token (novo parser e nova
+ * chave a cada chamada, três verificações da assinatura) com a verificação única.
+ * Mede também a verificação servida pelo {@link VerifiedTokenCache}. Os tempos são
+ * apenas informados; as verificações são sobre os acertos do cache.
+ * Executado só com -Dbenchmark=true; o número de iterações pode ser ajustado com
+ * -Dbenchmark.iterations=1000000.
+ */
+public class JwtServiceBenchmarkTest {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50_000);
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000L);
+    private final VerifiedTokenCache tokenCache = new VerifiedTokenCache(1000, 300);
+    private final JwtService cachedJwtService = new JwtService(SECRET, 60_000L, tokenCache);
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("benchmark desativado (use -Dbenchmark=true)", Boolean.getBoolean("benchmark"));
+    }
+
+    @Test
+    public void testCachedVerificationParsesTheTokenOnce() {
+        UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
+                .username("joao@email.com")
+                .password("")
+                .roles("USER")
+                .build();
+        String token = jwtService.generateToken(userDetails);
+
+        // Aquecimento
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            assertTrue(legacyRequest(token, userDetails));
+            assertTrue(verifiedRequest(jwtService, token, userDetails));
+            assertTrue(verifiedRequest(cachedJwtService, token, userDetails));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            legacyRequest(token, userDetails);
+        }
+        long legacyNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            verifiedRequest(jwtService, token, userDetails);
+        }
+        long verifiedNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            verifiedRequest(cachedJwtService, token, userDetails);
+        }
+        long cachedNanos = System.nanoTime() - start;
+
+        System.out.printf("%d requisições: parse repetido %.2f µs/req, verificação única %.2f µs/req, "
+                + "cache %.2f µs/req%n", ITERATIONS, legacyNanos / 1e3 / ITERATIONS,
+                verifiedNanos / 1e3 / ITERATIONS, cachedNanos / 1e3 / ITERATIONS);
+        // Só a primeira verificação com cache passa pelo parser; as demais são acertos
+        int cachedRequests = ITERATIONS / 10 + ITERATIONS;
+        assertEquals(1L, tokenCache.stats().get("misses"));
+        assertEquals((long) cachedRequests - 1, tokenCache.stats().get("hits"));
+    }
+
+    /**
+     * Caminho antigo do filtro: extractUsername e depois validateToken
+     * (extractUsername + extractExpiration), cada um com parser e chave novos
+     */
+    private static boolean legacyRequest(String token, UserDetails userDetails) {
+        String username = legacyParse(token).getSubject();
+        return username.equals(userDetails.getUsername())
+                && legacyParse(token).getSubject().equals(userDetails.getUsername())
+                && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static boolean verifiedRequest(JwtService service, String token, UserDetails userDetails) {
+        return service.validateToken(service.verify(token), userDetails);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import io.jsonwebtoken.JwtException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes unitários para JwtService
+ */
+public class JwtServiceTest {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private JwtService jwtService;
+
+    @Before
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 60_000L);
+    }
+
+    @Test
+    public void testExtractUserDetails_FromRoleAndStatusClaims() {
+        User user = new User("João Silva", "joao@email.com");
+        user.setRoles(Set.of(User.Role.ADMIN, User.Role.USER));
+        user.setActive(true);
+
+        UserDetails userDetails = jwtService.extractUserDetails(jwtService.generateToken(user));
+
+        assertEquals("joao@email.com", userDetails.getUsername());
+        assertTrue(userDetails.isEnabled());
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER"), authorities(userDetails));
+    }
+
+    @Test
+    public void testExtractUserDetails_PreservesUserDetailsClaims() {
+        UserDetails original = org.springframework.security.core.userdetails.User.builder()
+                .username("maria@email.com")
+                .password("hash")
+                .roles("USER")
+                .disabled(true)
+                .build();
+
+        UserDetails userDetails = jwtService.extractUserDetails(jwtService.generateToken(original));
+
+        assertEquals("maria@email.com", userDetails.getUsername());
+        assertFalse(userDetails.isEnabled());
+        assertEquals(Set.of("ROLE_USER"), authorities(userDetails));
+        assertTrue(jwtService.validateToken(jwtService.generateToken(original), userDetails));
+    }
+
+    @Test
+    public void testExtractUserDetails_ReturnsNullForTokenWithoutClaims() {
+        String token = jwtService.generateToken("joao@email.com");
+
+        assertNull(jwtService.extractUserDetails(token));
+        assertEquals("joao@email.com", jwtService.extractUsername(token));
+    }
+
+    @Test
+    public void testVerify_ExposesAllClaimsFromSingleParse() {
+        User user = new User("João Silva", "joao@email.com");
+        user.setRoles(Set.of(User.Role.USER));
+        user.setActive(false);
+
+        VerifiedToken token = jwtService.verify(jwtService.generateToken(user));
+
+        assertEquals("joao@email.com", token.getSubject());
+        assertEquals(List.of("USER"), token.getRoles());
+        assertEquals(Boolean.FALSE, token.getActive());
+        assertTrue(token.getExpiration().after(token.getIssuedAt()));
+        assertFalse(token.isExpired());
+    }
+
+    @Test
+    public void testVerify_RejectsTamperedAndExpiredTokens() {
+        String token = jwtService.generateToken("joao@email.com");
+        String expired = new JwtService(SECRET, -1_000L).generateToken("joao@email.com");
+        String otherKey = new JwtService(SECRET.replace('1', '2'), 60_000L).generateToken("joao@email.com");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(token.substring(0, token.length() - 2)));
+        assertThrows(JwtException.class, () -> jwtService.verify(expired));
+        assertThrows(JwtException.class, () -> jwtService.verify(otherKey));
+        assertFalse(jwtService.validateToken(expired));
+        assertTrue(jwtService.validateToken(token));
+    }
+
+    private static Set<String> authorities(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+    }
+}
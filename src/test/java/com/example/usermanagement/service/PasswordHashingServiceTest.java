@@ -0,0 +1,113 @@
+package com.example.usermanagement.service;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes unitários para PasswordHashingService
+ */
+public class PasswordHashingServiceTest {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final PasswordHashingService service = new PasswordHashingService(passwordEncoder, 1, 1, 2);
+
+    @After
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void testEncode_RunsOnDedicatedPool() throws Exception {
+        String hash = service.encode("secret123").get(5, TimeUnit.SECONDS);
+        String thread = service.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertTrue(passwordEncoder.matches("secret123", hash));
+        assertTrue(thread.startsWith("password-hashing-"));
+        assertEquals(2L, service.stats().get("completed"));
+    }
+
+    @Test
+    public void testMatches_ChecksPasswordOnDedicatedPool() throws Exception {
+        String hash = passwordEncoder.encode("secret123");
+
+        assertTrue(service.matches("secret123", hash).get(5, TimeUnit.SECONDS));
+        assertFalse(service.matches("wrong", hash).get(5, TimeUnit.SECONDS));
+        // Usuário inexistente: a verificação roda contra um hash fixo e nunca confere
+        assertFalse(service.matches("secret123", null).get(5, TimeUnit.SECONDS));
+        assertEquals(3L, service.stats().get("completed"));
+    }
+
+    @Test
+    public void testSubmit_RejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = service.submit(() -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = service.encode("secret123");
+
+        CompletableFuture<String> rejected = service.encode("secret123");
+
+        try {
+            rejected.get();
+            fail("A tarefa deveria ter sido rejeitada");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        assertEquals(1, service.stats().get("queued"));
+        assertEquals(1L, service.stats().get("rejected"));
+        assertEquals(2, service.getRetryAfterSeconds());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testEncodeAll_KeepsOrderAndRunsInlineWhenQueueIsFull() throws Exception {
+        // Arrange: a única thread está ocupada e a fila, cheia
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = service.submit(() -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = service.encode("queued");
+
+        // Act
+        List<String> hashes = service.encodeAll(List.of("um", "dois", "tres"));
+
+        // Assert
+        assertEquals(3, hashes.size());
+        assertTrue(passwordEncoder.matches("um", hashes.get(0)));
+        assertTrue(passwordEncoder.matches("dois", hashes.get(1)));
+        assertTrue(passwordEncoder.matches("tres", hashes.get(2)));
+        assertEquals(0L, service.stats().get("rejected"));
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(3, service.encodeAll(List.of("a", "b", "c")).size());
+    }
+}
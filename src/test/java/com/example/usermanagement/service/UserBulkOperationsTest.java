@@ -0,0 +1,175 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.BulkOperationResponse;
+import com.example.usermanagement.dto.UserBulkRequest;
+import com.example.usermanagement.dto.UserFilter;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.repository.UserSpecifications;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica que a ativação, a desativação e a remoção em massa rodam como
+ * comandos UPDATE/DELETE por bloco de IDs e invalidam os caches de uma vez
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.stat=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserService.class, UserEmailFilter.class, UserStatsService.class, UserSearchIndex.class,
+    UserSuggestIndex.class, UserPrincipalCache.class})
+public class UserBulkOperationsTest {
+
+    private static final int USERS = 2_500;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        jdbcTemplate.update("DELETE FROM user_roles");
+        userRepository.deleteAllInBatch();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User((i % 2 == 0 ? "Cliente Acme " : "Outro ") + i, "user" + i + "@email.com");
+            user.setPassword("secret123");
+            user.setRoles(Set.of(User.Role.USER));
+            users.add(user);
+        }
+        userService.createUsers(users);
+        searchIndex.rebuild();
+        principalCache.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testDeactivateUsers_ByFilterRunsOneUpdatePerChunk() {
+        UserFilter filter = new UserFilter();
+        filter.setName("acme");
+
+        BulkOperationResponse response = userService.deactivateUsers(new UserBulkRequest(null, filter));
+
+        assertEquals(USERS / 2, response.getMatched());
+        assertEquals(USERS / 2, response.getAffected());
+        // Uma consulta dos alvos, um UPDATE por bloco de BULK_CHUNK_SIZE IDs e um nos contadores
+        assertEquals(1 + 2 + 1, statistics.getPrepareStatementCount());
+        assertEquals(USERS / 2, userRepository.count(UserSpecifications.hasActive(false)));
+    }
+
+    @Test
+    public void testActivateUsers_CountsOnlyChangedRows() {
+        List<Long> ids = firstIds(10);
+        userService.deactivateUsers(new UserBulkRequest(ids.subList(0, 4), null));
+
+        BulkOperationResponse response = userService.activateUsers(new UserBulkRequest(ids, null));
+
+        assertEquals(10, response.getMatched());
+        assertEquals(4, response.getAffected());
+        assertEquals(0, userRepository.count(UserSpecifications.hasActive(false)));
+    }
+
+    @Test
+    public void testDeleteUsers_RemovesUsersAndRoles() {
+        List<Long> ids = firstIds(1_200);
+        ids.add(-1L);
+
+        BulkOperationResponse response = userService.deleteUsers(new UserBulkRequest(ids, null));
+
+        assertEquals(1_200, response.getMatched());
+        assertEquals(1_200, response.getAffected());
+        assertEquals(USERS - 1_200, userRepository.count());
+        assertEquals(Integer.valueOf(USERS - 1_200),
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_roles", Integer.class));
+        assertEquals(0, searchIndex.searchNames("acme 0").length);
+    }
+
+    @Test
+    public void testDeactivateUsers_InvalidatesCachedPrincipals() {
+        AtomicInteger loads = new AtomicInteger();
+        User user = userRepository.findByEmail("user0@email.com").orElseThrow();
+        principalCache.get(user.getEmail(), email -> {
+            loads.incrementAndGet();
+            return new UserPrincipalCache.Loaded(user.getId(),
+                    org.springframework.security.core.userdetails.User.withUsername(email)
+                            .password("secret123").roles("USER").build());
+        });
+
+        userService.deactivateUsers(new UserBulkRequest(List.of(user.getId()), null));
+        principalCache.get(user.getEmail(), email -> {
+            loads.incrementAndGet();
+            return new UserPrincipalCache.Loaded(user.getId(),
+                    org.springframework.security.core.userdetails.User.withUsername(email)
+                            .password("secret123").roles("USER").disabled(true).build());
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testBulkOperations_RequireExactlyOneTarget() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.deleteUsers(new UserBulkRequest(null, new UserFilter())));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.deleteUsers(new UserBulkRequest(List.of(), null)));
+        UserFilter filter = new UserFilter();
+        filter.setActive(true);
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.deactivateUsers(new UserBulkRequest(List.of(1L), filter)));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.deleteUsers(new UserBulkRequest(null, filter, true)));
+        assertEquals(USERS, userRepository.count());
+    }
+
+    @Test
+    public void testBulkOperations_AllUsersOnlyWithExplicitFlag() {
+        BulkOperationResponse response = userService.deactivateUsers(new UserBulkRequest(null, null, true));
+
+        assertEquals(USERS, response.getMatched());
+        assertEquals(0L, (long) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE active", Long.class));
+    }
+
+    private List<Long> firstIds(int count) {
+        return new ArrayList<>(jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id LIMIT ?", Long.class,
+                count));
+    }
+}
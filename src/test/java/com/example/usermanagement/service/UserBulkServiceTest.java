@@ -0,0 +1,160 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.BulkCreateResponse;
+import com.example.usermanagement.dto.BulkItemResult;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica a criação de usuários em massa: leitura de array JSON e NDJSON,
+ * resultado por item e INSERTs agrupados em lotes JDBC
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.stat=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({UserBulkService.class, UserService.class, UserEmailFilter.class, UserStatsService.class,
+    UserSearchIndex.class, UserSuggestIndex.class, PasswordHashingService.class})
+public class UserBulkServiceTest {
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testCreateUsers_JsonArray() throws IOException {
+        BulkCreateResponse response = createUsers("["
+                + "{\"name\":\"João Silva\",\"email\":\"joao@email.com\",\"password\":\"secret123\"},"
+                + "{\"name\":\"Maria Santos\",\"email\":\"maria@email.com\",\"password\":\"secret123\"}"
+                + "]");
+
+        assertEquals(2, response.getCreated());
+        assertEquals(0, response.getFailed());
+        assertNotNull(response.getResults().get(0).getId());
+        assertEquals("maria@email.com", response.getResults().get(1).getEmail());
+        assertEquals(2, userRepository.count());
+        String password = userRepository.findByEmail("joao@email.com").orElseThrow().getPassword();
+        assertNotEquals("secret123", password);
+        assertTrue(passwordEncoder.matches("secret123", password));
+    }
+
+    @Test
+    public void testCreateUsers_NdjsonWithFailuresKeepsInputOrder() throws IOException {
+        User existing = new User("Existente", "existente@email.com");
+        existing.setPassword("secret123");
+        userRepository.save(existing);
+
+        BulkCreateResponse response = createUsers(
+                "{\"name\":\"João Silva\",\"email\":\"joao@email.com\",\"password\":\"secret123\"}\n"
+                + "{\"name\":\"Outro\",\"email\":\"existente@email.com\",\"password\":\"secret123\"}\n"
+                + "{\"name\":\"J\",\"email\":\"invalido\",\"password\":\"secret123\"}\n"
+                + "{\"name\":\"João de Novo\",\"email\":\"joao@email.com\",\"password\":\"secret123\"}\n"
+                + "{\"name\":\"Ana\",\"email\":\"ana@email.com\",\"password\":\"secret123\",\"age\":\"vinte\"}\n"
+                + "{\"name\":\"Maria Santos\",\"email\":\"maria@email.com\",\"password\":\"secret123\"}\n");
+
+        assertEquals(2, response.getCreated());
+        assertEquals(4, response.getFailed());
+        for (int i = 0; i < response.getResults().size(); i++) {
+            assertEquals(i, response.getResults().get(i).getIndex());
+        }
+        assertEquals(BulkItemResult.Status.CREATED, response.getResults().get(0).getStatus());
+        assertEquals("Email já está em uso: existente@email.com", response.getResults().get(1).getError());
+        assertEquals(BulkItemResult.Status.FAILED, response.getResults().get(2).getStatus());
+        assertEquals("Email duplicado na requisição: joao@email.com", response.getResults().get(3).getError());
+        assertTrue(response.getResults().get(4).getError().startsWith("Dados inválidos"));
+        assertEquals(BulkItemResult.Status.CREATED, response.getResults().get(5).getStatus());
+        assertEquals(3, userRepository.count());
+    }
+
+    @Test
+    public void testCreateUsers_MalformedJsonStopsReading() throws IOException {
+        BulkCreateResponse response = createUsers(
+                "{\"name\":\"João Silva\",\"email\":\"joao@email.com\",\"password\":\"secret123\"}\n"
+                + "{\"name\": \n");
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertTrue(response.getResults().get(1).getError().startsWith("JSON inválido"));
+    }
+
+    @Test
+    public void testCreateUsers_InsertsAreBatched() throws IOException {
+        int users = 200;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < users; i++) {
+            body.append("{\"name\":\"Usuário ").append(i).append("\",\"email\":\"user").append(i)
+                    .append("@email.com\",\"password\":\"secret123\"}\n");
+        }
+
+        BulkCreateResponse response = createUsers(body.toString());
+
+        assertEquals(users, response.getCreated());
+        assertEquals(users, userRepository.count());
+        // Uma consulta de emails existentes, as idas à sequence (blocos de 50) e um
+        // PreparedStatement por lote de INSERTs, em vez de um por usuário
+        assertTrue("statements: " + statistics.getPrepareStatementCount(),
+                statistics.getPrepareStatementCount() < users / 10);
+    }
+
+    private BulkCreateResponse createUsers(String body) throws IOException {
+        return userBulkService.createUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * BCrypt com custo mínimo, para que o hash das senhas não domine o tempo dos testes
+     */
+    @TestConfiguration
+    static class PasswordEncoderConfig {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.UserBulkRequest;
+import com.example.usermanagement.dto.UserChanges;
+import com.example.usermanagement.dto.UserSummary;
+import com.example.usermanagement.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica a sincronização incremental: alterações por todos os caminhos de escrita
+ * (inclusive os em massa), registros de remoção, pedidos de resync e limpeza dos registros
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.stat=WARN",
+    "users.changes.overlap-ms=0",
+    "users.changes.tombstone-retention-hours=24"
+})
+@Import({UserChangesService.class, UserService.class, UserEmailFilter.class, UserStatsService.class,
+        UserSearchIndex.class, UserSuggestIndex.class})
+public class UserChangesServiceTest {
+
+    @Autowired
+    private UserChangesService userChangesService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testFirstCallReturnsOnlyTheWatermark() {
+        LocalDateTime before = LocalDateTime.now();
+
+        UserChanges changes = userChangesService.getChanges(null, null);
+
+        assertTrue(changes.isResync());
+        assertTrue(changes.getUsers().isEmpty());
+        assertFalse(changes.getWatermark().isBefore(before));
+    }
+
+    @Test
+    public void testChangesFromEveryWritePath() throws Exception {
+        String start = userChangesService.getChanges(null, null).getWatermark().toString();
+        Thread.sleep(5);
+        User joao = userService.createUser(newUser("joao"));
+        List<User> batch = userService.createUsers(List.of(newUser("maria"), newUser("pedro"), newUser("ana")));
+
+        UserChanges created = userChangesService.getChanges(start, null);
+
+        assertFalse(created.isResync());
+        assertEquals(List.of(joao.getId(), batch.get(0).getId(), batch.get(1).getId(), batch.get(2).getId()),
+                ids(created));
+        assertTrue(created.getDeletedIds().isEmpty());
+
+        String watermark = created.getWatermark().toString();
+        Thread.sleep(5);
+        User data = newUser("joao");
+        data.setAge(40);
+        userService.updateUser(joao.getId(), data);
+        userService.deactivateUsers(new UserBulkRequest(List.of(batch.get(0).getId()), null));
+        userService.deleteUser(batch.get(1).getId());
+        userService.deleteUsers(new UserBulkRequest(List.of(batch.get(2).getId()), null));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UserChanges changed = userChangesService.getChanges(watermark, null);
+
+        // Uma consulta no índice de updated_at e uma no de remoções
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(List.of(joao.getId(), batch.get(0).getId()).stream().sorted().collect(Collectors.toList()),
+                ids(changed).stream().sorted().collect(Collectors.toList()));
+        assertEquals(Integer.valueOf(40), changed.getUsers().stream()
+                .filter(user -> user.getId().equals(joao.getId())).findFirst().get().getAge());
+        assertFalse(changed.getUsers().stream()
+                .filter(user -> user.getId().equals(batch.get(0).getId())).findFirst().get().getActive());
+        assertEquals(List.of(batch.get(1).getId(), batch.get(2).getId()), changed.getDeletedIds());
+    }
+
+    @Test
+    public void testTooManyChangesAskForResync() throws Exception {
+        String start = userChangesService.getChanges(null, null).getWatermark().toString();
+        Thread.sleep(5);
+        userService.createUsers(List.of(newUser("maria"), newUser("pedro"), newUser("ana")));
+
+        assertFalse(userChangesService.getChanges(start, 3).isResync());
+        assertTrue(userChangesService.getChanges(start, 2).isResync());
+    }
+
+    @Test
+    public void testWatermarkOlderThanRetentionAsksForResync() {
+        String old = LocalDateTime.now().minusHours(25).toString();
+
+        assertTrue(userChangesService.getChanges(old, null).isResync());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWatermark() {
+        userChangesService.getChanges("ontem", null);
+    }
+
+    @Test
+    public void testPruneRemovesOnlyExpiredTombstones() {
+        jdbcTemplate.update("INSERT INTO user_tombstones (user_id, deleted_at) VALUES "
+                + "(100000, DATEADD(HOUR, -25, CURRENT_TIMESTAMP)), (100001, CURRENT_TIMESTAMP)");
+
+        assertEquals(1, userChangesService.pruneTombstones());
+        assertEquals(Integer.valueOf(1), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_tombstones",
+                Integer.class));
+    }
+
+    private List<Long> ids(UserChanges changes) {
+        return changes.getUsers().stream().map(UserSummary::getId).collect(Collectors.toList());
+    }
+
+    private User newUser(String name) {
+        User user = new User(name, name + "@email.com");
+        user.setPassword("secret123");
+        return user;
+    }
+}
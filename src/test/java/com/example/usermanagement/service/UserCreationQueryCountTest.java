@@ -0,0 +1,123 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica que a criação de um usuário faz um único INSERT em users, sem
+ * consultar o email antes, e que a constraint de unicidade vira
+ * {@link EmailAlreadyInUseException}
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.stat=WARN"
+})
+@Import({UserService.class, UserEmailFilter.class, UserStatsService.class, UserSearchIndex.class,
+    UserSuggestIndex.class})
+public class UserCreationQueryCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Os IDs são reservados em blocos pela sequence, que é consultada nas duas
+        // primeiras gerações: o aquecimento tira essas consultas da contagem medida
+        for (int i = 0; i < 2; i++) {
+            User warmUp = new User("Aquecimento", "warmup" + i + "@email.com");
+            warmUp.setPassword("secret123");
+            userService.createUser(warmUp);
+        }
+        statistics.clear();
+    }
+
+    @Test
+    public void testCreateUser_IssuesSingleInsert() {
+        User user = new User("João Silva", "joao@email.com");
+        user.setPassword("secret123");
+
+        userService.createUser(user);
+
+        // INSERT em users + UPDATE nos contadores de user_stats, sem nenhum SELECT
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getQueryExecutionCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    public void testCreateUser_RolesAreTheOnlyExtraStatement() {
+        User user = new User("Maria Silva", "maria@email.com");
+        user.setPassword("secret123");
+        user.setRoles(Set.of(User.Role.USER));
+
+        userService.createUser(user);
+
+        // INSERT em users + INSERT em user_roles + UPDATE nos contadores
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    public void testCreateUser_DuplicateEmailViolatesConstraint() {
+        User first = new User("João Silva", "joao@email.com");
+        first.setPassword("secret123");
+        userService.createUser(first);
+        statistics.clear();
+
+        User duplicate = new User("Outro João", "joao@email.com");
+        duplicate.setPassword("secret123");
+
+        EmailAlreadyInUseException e = assertThrows(EmailAlreadyInUseException.class,
+                () -> userService.createUser(duplicate));
+        assertEquals("Email já está em uso: joao@email.com", e.getMessage());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testCreateUser_EmailDifferingOnlyInCaseViolatesConstraint() {
+        User first = new User("João Silva", "joao@email.com");
+        first.setPassword("secret123");
+        userService.createUser(first);
+
+        User duplicate = new User("Outro João", "Joao@Email.COM");
+        duplicate.setPassword("secret123");
+
+        assertThrows(EmailAlreadyInUseException.class, () -> userService.createUser(duplicate));
+    }
+
+    @Test
+    public void testEmailLookupsIgnoreCase() {
+        User user = new User("Maria Silva", "Maria.Silva@Email.com");
+        user.setPassword("secret123");
+        userService.createUser(user);
+
+        User found = userService.getUserByEmail("maria.silva@email.com").orElseThrow();
+
+        // O email é mantido como informado; a unicidade e a busca usam o email normalizado
+        assertEquals("Maria.Silva@Email.com", found.getEmail());
+        assertEquals("maria.silva@email.com", found.getNormalizedEmail());
+        assertTrue(userService.getUserByEmail("MARIA.SILVA@EMAIL.COM").isPresent());
+        assertFalse(userService.getUserByEmail("maria@email.com").isPresent());
+    }
+}
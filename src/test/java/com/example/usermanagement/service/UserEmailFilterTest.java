@@ -0,0 +1,211 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.repository.UserRepository;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para UserEmailFilter
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UserEmailFilterTest {
+
+    private static final int EMAILS = 10_000;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    public void testMightContain_EveryEmailIsPossibleUntilBuilt() {
+        UserEmailFilter filter = new UserEmailFilter(userRepository, 1000, 0.01, 1024);
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("qualquer@email.com"));
+    }
+
+    @Test
+    public void testRebuild_NoFalseNegativesAndBoundedFalsePositives() {
+        // Arrange
+        List<String> emails = emails("usuario", EMAILS);
+        when(userRepository.count()).thenReturn((long) EMAILS);
+        when(userRepository.streamEmailsBy()).thenReturn(emails.stream());
+        UserEmailFilter filter = new UserEmailFilter(userRepository, EMAILS, 0.01, 1 << 20);
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertTrue(filter.isReady());
+        emails.forEach(email -> assertTrue(filter.mightContain(email)));
+        long falsePositives = emails("ausente", EMAILS).stream().filter(filter::mightContain).count();
+        assertTrue("falsos positivos: " + falsePositives, falsePositives < EMAILS * 0.02);
+    }
+
+    @Test
+    public void testMightContain_NormalizesCaseAndSpaces() {
+        UserEmailFilter filter = built(List.of("Joao@Email.com"));
+
+        assertTrue(filter.mightContain(" joao@email.COM "));
+        assertFalse(filter.mightContain("maria@email.com"));
+    }
+
+    @Test
+    public void testPut_AddsEmailsAfterBuild() {
+        UserEmailFilter filter = built(List.of("joao@email.com"));
+
+        filter.put("maria@email.com");
+        filter.putAll(List.of("pedro@email.com"));
+
+        assertTrue(filter.mightContain("maria@email.com"));
+        assertTrue(filter.mightContain("pedro@email.com"));
+    }
+
+    @Test
+    public void testRebuild_KeepsEmailsAddedWhileReading() {
+        // Arrange
+        UserEmailFilter filter = new UserEmailFilter(userRepository, 1000, 0.01, 1024);
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.streamEmailsBy()).thenReturn(Stream.of("joao@email.com").peek(email ->
+                filter.put("novo@email.com")));
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertTrue(filter.mightContain("joao@email.com"));
+        assertTrue(filter.mightContain("novo@email.com"));
+    }
+
+    @Test
+    public void testRebuild_KeepsEmailsOfTransactionsCommittedAfterReading() {
+        // Arrange: o email é adicionado numa transação que ainda não commitou
+        UserEmailFilter filter = built(List.of("joao@email.com"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            filter.put("novo@email.com");
+            when(userRepository.streamEmailsBy()).thenReturn(Stream.of("joao@email.com"));
+
+            // Act: a reconstrução não enxerga a linha, que é commitada depois
+            filter.rebuild();
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+            // Assert
+            assertTrue(filter.mightContain("novo@email.com"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testRebuild_KeepsEmailsOfTransactionsCommittedWhileReading() {
+        // Arrange: a transação commita enquanto a reconstrução lê o banco
+        UserEmailFilter filter = built(List.of("joao@email.com"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            filter.put("novo@email.com");
+            when(userRepository.streamEmailsBy()).thenReturn(Stream.of("joao@email.com").peek(email ->
+                    completeTransaction(TransactionSynchronization.STATUS_COMMITTED)));
+
+            // Act
+            filter.rebuild();
+
+            // Assert
+            assertTrue(filter.mightContain("novo@email.com"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testRebuild_DropsEmailsOfRolledBackTransactions() {
+        // Arrange
+        UserEmailFilter filter = built(List.of("joao@email.com"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            filter.put("novo@email.com");
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+            when(userRepository.streamEmailsBy()).thenReturn(Stream.of("joao@email.com"));
+
+            // Act
+            filter.rebuild();
+
+            // Assert
+            assertFalse(filter.mightContain("novo@email.com"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testRebuildIfSaturated_RebuildsWhenMostEntriesWereRemoved() {
+        // Arrange
+        UserEmailFilter filter = built(List.of("joao@email.com", "maria@email.com"));
+        assertFalse(filter.rebuildIfSaturated());
+        when(userRepository.streamEmailsBy()).thenReturn(Stream.of("maria@email.com"));
+
+        // Act
+        filter.removed(2);
+
+        // Assert
+        assertTrue(filter.rebuildIfSaturated());
+        assertFalse(filter.mightContain("joao@email.com"));
+        assertEquals(2L, filter.stats().get("rebuilds"));
+    }
+
+    @Test
+    public void testRebuild_DisabledWithZeroExpectedEmails() {
+        UserEmailFilter filter = new UserEmailFilter(userRepository, 0, 0.01, 1024);
+
+        filter.rebuild();
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("qualquer@email.com"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testStats_ReportsSizeAndNegatives() {
+        UserEmailFilter filter = built(List.of("joao@email.com"));
+        filter.mightContain("joao@email.com");
+        filter.mightContain("maria@email.com");
+
+        Map<String, Object> stats = filter.stats();
+
+        assertEquals(120L, stats.get("bytes"));
+        assertEquals(1L, stats.get("entries"));
+        assertEquals(1L, stats.get("negatives"));
+        assertEquals(1L, stats.get("positives"));
+    }
+
+    private static void completeTransaction(int status) {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private UserEmailFilter built(List<String> emails) {
+        when(userRepository.count()).thenReturn((long) emails.size());
+        when(userRepository.streamEmailsBy()).thenReturn(emails.stream());
+        UserEmailFilter filter = new UserEmailFilter(userRepository, 100, 0.01, 1024);
+        filter.rebuild();
+        return filter;
+    }
+
+    private static List<String> emails(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> prefix + i + "@email.com")
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.config.EntityCacheConfig;
+import com.example.usermanagement.dto.UserBulkRequest;
+import com.example.usermanagement.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara as leituras de usuários pelo ID e pelo email (caminho do login e da
+ * autenticação) com o cache de segundo nível vazio e preenchido, e verifica que as
+ * escritas não deixam o cache desatualizado nem a exportação o preenche
+ *
+ * Sem a transação do teste: cada chamada ao serviço usa a própria sessão, como nas requisições.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.stat=WARN"
+})
+@Import({EntityCacheConfig.class, UserEntityCache.class, UserService.class, UserEmailFilter.class,
+        UserStatsService.class, UserSearchIndex.class, UserSuggestIndex.class, UserExportService.class,
+        JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserEntityCacheBenchmarkTest {
+
+    private static final int USERS = 200;
+    private static final int ROUNDS = 20;
+    private static final AtomicInteger RUN = new AtomicInteger();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserEntityCache entityCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private List<User> users;
+
+    @Before
+    public void setUp() {
+        int run = RUN.incrementAndGet();
+        List<User> newUsers = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("Usuário " + i, "cache" + run + "-" + i + "@email.com");
+            user.setPassword("secret123");
+            user.setRoles(i % 10 == 0 ? Set.of(User.Role.USER, User.Role.ADMIN) : Set.of(User.Role.USER));
+            newUsers.add(user);
+        }
+        users = userService.createUsers(newUsers);
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @After
+    public void tearDown() {
+        userService.deleteUsers(new UserBulkRequest(users.stream().map(User::getId).collect(Collectors.toList()),
+                null));
+    }
+
+    @Test
+    public void testReadsHitTheCacheWithoutJdbc() {
+        assertTrue(entityCache.isEnabled());
+
+        // Cache vazio: cada leitura vai ao banco
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+        long start = System.nanoTime();
+        readAll();
+        long coldMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long coldStatements = statistics.getPrepareStatementCount();
+
+        // Cache preenchido pela rodada anterior
+        statistics.clear();
+        start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            readAll();
+        }
+        long warmMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long warmStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("Cache vazio:      %d leituras, %d comandos JDBC, %d ms%n",
+                USERS * 2, coldStatements, coldMillis);
+        System.out.printf("Cache preenchido: %d leituras, %d comandos JDBC, %d ms%n",
+                USERS * 2 * ROUNDS, warmStatements, warmMillis);
+
+        assertTrue(coldStatements >= USERS);
+        assertEquals(0, warmStatements);
+        Map<String, Object> stats = entityCache.stats();
+        assertEquals(0L, ((Map<?, ?>) stats.get(User.CACHE_REGION)).get("misses"));
+        assertEquals((long) USERS * ROUNDS, ((Map<?, ?>) stats.get(User.EMAIL_CACHE_REGION)).get("hits"));
+    }
+
+    @Test
+    public void testWritesRefreshTheCache() {
+        User user = users.get(0);
+        String email = user.getEmail();
+        readAll();
+
+        User data = new User("Novo Nome", "novo-" + email);
+        data.setActive(true);
+        userService.updateUser(user.getId(), data);
+
+        assertEquals("Novo Nome", userService.getUserById(user.getId()).orElseThrow().getName());
+        assertFalse(userService.getUserByEmail(email).isPresent());
+        assertEquals(user.getId(), userService.getUserByEmail("novo-" + email).orElseThrow().getId());
+        assertEquals(Set.of(User.Role.USER, User.Role.ADMIN),
+                userService.getUserByEmail("novo-" + email).orElseThrow().getRoles());
+
+        userService.deactivateUsers(new UserBulkRequest(List.of(user.getId()), null));
+        assertFalse(userService.getUserById(user.getId()).orElseThrow().getActive());
+
+        userService.deleteUser(user.getId());
+        users = users.subList(1, users.size());
+        assertFalse(userService.getUserById(user.getId()).isPresent());
+        assertFalse(userService.getUserByEmail("novo-" + email).isPresent());
+    }
+
+    @Test
+    public void testDeleteUserKeepsOtherUsersCached() {
+        readAll();
+
+        userService.deleteUser(users.get(0).getId());
+        users = users.subList(1, users.size());
+
+        // O registro da remoção não pode esvaziar as regiões dos outros usuários
+        statistics.clear();
+        readAll();
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+
+    @Test
+    public void testExportBypassesTheCache() throws Exception {
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+
+        long exported = userExportService.exportUsers(OutputStream.nullOutputStream());
+
+        // A exportação não preenche nem consulta o cache usado pelas requisições
+        assertTrue(exported >= USERS);
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+        assertFalse(sessionFactory.getCache().containsEntity(User.class, users.get(0).getId()));
+    }
+
+    private void readAll() {
+        for (User user : users) {
+            User byId = userService.getUserById(user.getId()).orElseThrow();
+            User byEmail = userService.getUserByEmail(user.getEmail()).orElseThrow();
+            assertEquals(byId.getId(), byEmail.getId());
+            assertFalse(byEmail.getRoles().isEmpty());
+        }
+    }
+}
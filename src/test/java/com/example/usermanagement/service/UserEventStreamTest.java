@@ -0,0 +1,182 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.controller.UserEventsController;
+import com.example.usermanagement.dto.UserIdentity;
+import com.example.usermanagement.model.UserCounters;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Testes do stream de eventos: entrega após a conexão, uma leitura de estatísticas
+ * por rajada, resync para o cliente atrasado e desconexão do cliente parado
+ */
+public class UserEventStreamTest {
+
+    private static final int QUEUE_CAPACITY = 4;
+
+    private final UserStatsService statsService = mock(UserStatsService.class);
+    private UserEventStream stream;
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+        when(statsService.getStats()).thenReturn(new UserCounters(5, 2));
+        // Uma thread de envio, para que os testes possam segurá-la
+        stream = new UserEventStream(statsService, 1, QUEUE_CAPACITY, 2, 60000, 30);
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserEventsController(stream)).build();
+    }
+
+    @After
+    public void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    public void testSubscriberReceivesStatsAndChanges() throws Exception {
+        MockHttpServletResponse response = subscribe();
+        await(() -> content(response).contains("\"totalUsers\":7"));
+
+        stream.onUserChanged(UserChangedEvent.deleted(42L));
+        stream.onUsersChanged(new UserBulkChangedEvent(UserChangedEvent.Type.DEACTIVATED,
+                List.of(UserIdentity.of(1L, "João", "joao@email.com"), UserIdentity.of(2L, "Maria", "maria@email.com"))));
+
+        await(() -> content(response).contains("\"type\":\"DEACTIVATED\",\"ids\":[1,2],\"count\":2"));
+        assertTrue(content(response).contains("event:user\ndata:{\"type\":\"DELETED\",\"ids\":[42],\"count\":1}"));
+        assertTrue(response.getContentType().startsWith("text/event-stream"));
+    }
+
+    @Test
+    public void testLargeBulkChangesSendOnlyTheCount() throws Exception {
+        MockHttpServletResponse response = subscribe();
+        List<UserIdentity> users = new ArrayList<>();
+        for (long id = 1; id <= UserEventStream.MAX_IDS_PER_EVENT + 1; id++) {
+            users.add(UserIdentity.of(id, "Usuário " + id, "user" + id + "@email.com"));
+        }
+
+        stream.onUsersChanged(new UserBulkChangedEvent(UserChangedEvent.Type.CREATED, users));
+
+        await(() -> content(response).contains("\"ids\":null,\"count\":101"));
+    }
+
+    @Test
+    public void testStatsAreReadOncePerBurst() throws Exception {
+        MockHttpServletResponse first = subscribe();
+        MockHttpServletResponse second = subscribe();
+        await(() -> content(first).contains("event:stats") && content(second).contains("event:stats"));
+        CountDownLatch release = holdSenderThread();
+
+        for (int i = 0; i < 100; i++) {
+            stream.onStatsChanged(new UserStatsChangedEvent(1, 0));
+        }
+        doReturn(new UserCounters(105, 2)).when(statsService).getStats();
+        release.countDown();
+
+        // 2 leituras nas conexões, 1 da alteração que segurou a thread e 1 para as 100 seguintes,
+        // independente do número de clientes
+        await(() -> content(first).contains("\"activeDelta\":100") && content(second).contains("\"activeDelta\":100"));
+        verify(statsService, times(4)).getStats();
+        assertTrue(content(first).contains("\"totalUsers\":107"));
+    }
+
+    @Test
+    public void testSlowSubscriberGetsSingleResync() throws Exception {
+        MockHttpServletResponse response = subscribe();
+        await(() -> content(response).contains("event:stats"));
+        CountDownLatch release = holdSenderThread();
+
+        for (long id = 1; id <= 50; id++) {
+            stream.onUserChanged(UserChangedEvent.deleted(id));
+        }
+        release.countDown();
+
+        await(() -> content(response).contains("event:resync"));
+        assertEquals(1, content(response).split("event:resync", -1).length - 1);
+        assertFalse(content(response).contains("event:user"));
+        assertEquals(1L, stream.stats().get("coalesced"));
+        assertEquals(1, stream.stats().get("subscribers"));
+    }
+
+    @Test
+    public void testStalledSubscriberIsDropped() throws Exception {
+        MockHttpServletResponse response = subscribe();
+        await(() -> content(response).contains("event:stats"));
+        CountDownLatch release = holdSenderThread();
+
+        stream.heartbeat();
+        stream.heartbeat();
+        release.countDown();
+
+        assertEquals(1L, stream.stats().get("dropped"));
+        assertEquals(0, stream.stats().get("subscribers"));
+    }
+
+    @Test
+    public void testSubscribersAreLimited() throws Exception {
+        subscribe();
+        subscribe();
+
+        MockHttpServletResponse rejected = mockMvc.perform(get("/api/users/events")).andReturn().getResponse();
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("30", rejected.getHeader("Retry-After"));
+    }
+
+    private MockHttpServletResponse subscribe() throws Exception {
+        return mockMvc.perform(get("/api/users/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    /**
+     * Ocupa a única thread de envio até o latch devolvido ser liberado
+     */
+    private CountDownLatch holdSenderThread() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // shutdown do stream no fim do teste
+                Thread.currentThread().interrupt();
+            }
+            return new UserCounters(5, 2);
+        }).when(statsService).getStats();
+        stream.onStatsChanged(new UserStatsChangedEvent(0, 0));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static String content(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Evento não recebido a tempo", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para UserExportService
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    private UserExportService userExportService;
+
+    @Before
+    public void setUp() {
+        userExportService = new UserExportService(userRepository, new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(userExportService, "entityManager", entityManager);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+    }
+
+    @Test
+    public void testExportUsers_WritesOneJsonObjectPerLineWithoutPasswordAndDetaches() throws Exception {
+        // Arrange
+        User first = new User("João Silva", "joao@email.com");
+        first.setId(1L);
+        first.setPassword("$2a$10$hash");
+        User second = new User("Maria Souza", "maria@email.com");
+        second.setId(2L);
+        when(userRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = userExportService.exportUsers(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2L, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"email\":\"joao@email.com\""));
+        assertTrue(lines[1].contains("\"email\":\"maria@email.com\""));
+        assertFalse(lines[0].contains("password"));
+        assertFalse(lines[0].contains("$2a$10$hash"));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        // O cache de segundo nível é ignorado durante a leitura e o modo da sessão, restaurado
+        InOrder inOrder = inOrder(session, userRepository);
+        inOrder.verify(session).setCacheMode(CacheMode.IGNORE);
+        inOrder.verify(userRepository).streamAllByOrderByIdAsc();
+        inOrder.verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+}
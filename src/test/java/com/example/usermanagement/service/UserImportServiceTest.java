@@ -0,0 +1,182 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.BulkItemResult;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica a importação de CSV: validação e deduplicação por linha, gravação em
+ * lotes pela fila limitada e a vazão com um arquivo gerado em streaming.
+ * O número de linhas do teste de vazão pode ser ajustado com -Dbenchmark.import.rows=1000000.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "users.import.batch-size=3",
+    "users.import.queue-capacity=1"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({UserImportService.class, UserBulkService.class, UserService.class, UserEmailFilter.class,
+    UserStatsService.class, UserSearchIndex.class, UserSuggestIndex.class, PasswordHashingService.class})
+public class UserImportServiceTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.import.rows", 20_000);
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Before
+    public void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testImportCsv_ValidatesAndDeduplicatesRows() {
+        User existing = new User("Existente", "existente@email.com");
+        existing.setPassword("secret123");
+        userRepository.save(existing);
+
+        UserImportJob job = importCsv("email,name,password,age,active\n"
+                + "joao@email.com,João Silva,secret123,30,true\n"
+                + "\"maria@email.com\",\"Santos, Maria\",secret123,,false\n"
+                + "invalido,Pedro,secret123,,\n"
+                + "ana@email.com,Ana,secret123,vinte,\n"
+                + "\n"
+                + "existente@email.com,Outro,secret123,,\n"
+                + "joao@email.com,João de Novo,secret123,,\n"
+                + "carla@email.com,Carla,secret123,,\n");
+
+        assertEquals(UserImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(7, job.getRowsRead());
+        assertEquals(3, job.getImported());
+        assertEquals(4, job.getFailed());
+        assertEquals(0, job.getQueuedBatches());
+        assertNotNull(job.getFinishedAt());
+
+        List<BulkItemResult> errors = job.getErrors();
+        errors.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        assertEquals(3, errors.get(0).getIndex());
+        assertEquals("Email deve ter um formato válido", errors.get(0).getError());
+        assertEquals("Idade inválida: vinte", errors.get(1).getError());
+        assertEquals("Email já está em uso: existente@email.com", errors.get(2).getError());
+        // Repetido em outro lote: já gravado pelo lote anterior
+        assertEquals("Email já está em uso: joao@email.com", errors.get(3).getError());
+
+        User maria = userRepository.findByEmail("maria@email.com").orElseThrow();
+        assertEquals("Santos, Maria", maria.getName());
+        assertFalse(maria.getActive());
+        assertTrue(passwordEncoder.matches("secret123", maria.getPassword()));
+        assertEquals(Integer.valueOf(30), userRepository.findByEmail("joao@email.com").orElseThrow().getAge());
+        assertEquals(userImportService.getJobs().get(0).getId(), job.getId());
+        assertSame(job, userImportService.getJob(job.getId()).orElseThrow());
+    }
+
+    @Test
+    public void testImportCsv_MissingColumnsFails() {
+        UserImportJob job = importCsv("name,email\nJoão,joao@email.com\n");
+
+        assertEquals(UserImportJob.Status.FAILED, job.getStatus());
+        assertEquals("O cabeçalho do CSV deve conter as colunas [name, email, password]", job.getMessage());
+        assertEquals(0, userRepository.count());
+    }
+
+    @Test
+    public void testImportCsv_MalformedCsvKeepsWrittenBatches() {
+        UserImportJob job = importCsv("name,email,password\n"
+                + "Um,um@email.com,secret123\n"
+                + "Dois,dois@email.com,secret123\n"
+                + "Três,tres@email.com,secret123\n"
+                + "\"Quatro,quatro@email.com,secret123\n");
+
+        assertEquals(UserImportJob.Status.FAILED, job.getStatus());
+        assertEquals("Aspas não fechadas no registro iniciado na linha 5", job.getMessage());
+        assertEquals(3, job.getImported());
+        assertEquals(3, userRepository.count());
+    }
+
+    @Test
+    public void testImportCsv_Throughput() {
+        long start = System.nanoTime();
+        UserImportJob job = userImportService.importCsv(new GeneratedCsv(ROWS));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%d linhas: %.0f linhas/s, heap em uso %d MB%n",
+                ROWS, ROWS / seconds, (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+        assertEquals(UserImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(ROWS, job.getImported());
+        assertEquals(ROWS, userRepository.count());
+    }
+
+    private UserImportJob importCsv(String csv) {
+        return userImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * CSV gerado sob demanda, sem manter o arquivo em memória
+     */
+    private static final class GeneratedCsv extends InputStream {
+        private final int rows;
+        private int row = -1;
+        private byte[] line = "name,email,password\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (++row >= rows) {
+                    return -1;
+                }
+                line = ("Usuário " + row + ",user" + row + "@email.com,secret123\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++] & 0xff;
+        }
+    }
+
+    /**
+     * BCrypt com custo mínimo, para que o hash das senhas não domine o tempo dos testes
+     */
+    @TestConfiguration
+    static class PasswordEncoderConfig {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+}
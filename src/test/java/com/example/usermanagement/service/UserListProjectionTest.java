@@ -0,0 +1,162 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.CursorPage;
+import com.example.usermanagement.dto.UserQuery;
+import com.example.usermanagement.dto.UserSummary;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara a listagem com entidades completas e com o resumo ({@link UserSummary}):
+ * consultas executadas, linhas carregadas e bytes do JSON de resposta
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.stat=WARN"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({UserService.class, UserEmailFilter.class, UserStatsService.class, UserSearchIndex.class,
+    UserSuggestIndex.class})
+public class UserListProjectionTest {
+
+    private static final int USERS = 1000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("Usuário " + i, "user" + i + "@email.com");
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0");
+            user.setAge(20 + i % 50);
+            user.setRoles(Set.of(User.Role.USER));
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void testSummaryListSkipsPasswordAndRoles() throws Exception {
+        // Listagem anterior: entidades completas
+        List<User> entities = userRepository.findAll();
+        long entityStatements = statistics.getPrepareStatementCount();
+        long entityRows = statistics.getEntityLoadCount() + statistics.getCollectionLoadCount();
+        int entityBytes = objectMapper.writeValueAsBytes(entities).length;
+        entityManager.clear();
+        statistics.clear();
+
+        List<UserSummary> summaries = userService.getAllUsers();
+        long summaryStatements = statistics.getPrepareStatementCount();
+        long summaryRows = statistics.getEntityLoadCount() + statistics.getCollectionLoadCount();
+        int summaryBytes = objectMapper.writeValueAsBytes(summaries).length;
+
+        System.out.printf("Entidades: %d consultas, %d entidades/coleções carregadas, %d bytes%n",
+                entityStatements, entityRows, entityBytes);
+        System.out.printf("Resumo:    %d consultas, %d entidades/coleções carregadas, %d bytes%n",
+                summaryStatements, summaryRows, summaryBytes);
+
+        assertEquals(USERS, summaries.size());
+        // Entidades: 1 SELECT em users + 1 SELECT em user_roles a cada lote de usuários
+        assertEquals(1 + USERS / User.ROLES_BATCH_SIZE, entityStatements);
+        assertEquals(1, summaryStatements);
+        assertEquals(0, summaryRows);
+        assertTrue(summaryBytes < entityBytes);
+        assertFalse(objectMapper.writeValueAsString(summaries.get(0)).contains("password"));
+    }
+
+    @Test
+    public void testPagedListsUseTheSummaryQuery() {
+        int pageSize = 100;
+
+        assertEquals(pageSize, userService.getUsersPage(null, pageSize).getItems().size());
+        assertEquals(pageSize, userService.getActiveUsersPage(null, pageSize).getItems().size());
+        assertFalse(userService.getUsersByAgeRange(30, 35).isEmpty());
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    public void testQueryUsersSortedByAgeKeepsUsersWithoutAge() {
+        // Arrange: idades 40, 30, nula, 30, nula, nessa ordem de ID
+        List<User> users = new ArrayList<>();
+        Integer[] ages = {40, 30, null, 30, null};
+        for (int i = 0; i < ages.length; i++) {
+            User user = new User("Sem Idade " + i, "semidade" + i + "@email.com");
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0");
+            user.setAge(ages[i]);
+            users.add(user);
+        }
+        List<Long> ids = userRepository.saveAll(users).stream().map(User::getId).collect(Collectors.toList());
+        entityManager.flush();
+
+        // Act: páginas de 2 atravessam a fronteira entre idades e nulos
+        List<Long> ascending = queryAllPages("asc");
+        List<Long> descending = queryAllPages("desc");
+
+        // Assert
+        assertEquals(List.of(ids.get(1), ids.get(3), ids.get(0), ids.get(2), ids.get(4)), ascending);
+        assertEquals(List.of(ids.get(0), ids.get(3), ids.get(1), ids.get(4), ids.get(2)), descending);
+    }
+
+    private List<Long> queryAllPages(String direction) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            UserQuery query = new UserQuery();
+            query.setName("sem idade");
+            query.setSort("age");
+            query.setDirection(direction);
+            query.setLimit(2);
+            query.setAfter(after);
+            CursorPage<UserSummary> page = userService.queryUsers(query);
+            page.getItems().forEach(user -> ids.add(user.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+        return ids;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import org.junit.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes unitários para UserPrincipalCache
+ */
+public class UserPrincipalCacheTest {
+
+    private final UserPrincipalCache cache = new UserPrincipalCache(30, 100);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void testGet_CachesUntilInvalidatedByUserChange() {
+        cache.get("joao@email.com", loader(true));
+        UserDetails cached = cache.get("joao@email.com", loader(false));
+
+        assertEquals(1, loads.get());
+        assertTrue(cached.isEnabled());
+
+        User user = new User("João Silva", "joao@email.com");
+        user.setId(1L);
+        user.setActive(false);
+        cache.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.DEACTIVATED, user));
+
+        assertFalse(cache.get("joao@email.com", loader(false)).isEnabled());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testGet_DeletedEventInvalidatesByUserId() {
+        cache.get("joao@email.com", loader(true));
+
+        cache.onUserChanged(UserChangedEvent.deleted(1L));
+        cache.get("joao@email.com", loader(true));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testGet_EntriesExpireAfterMaxAge() throws InterruptedException {
+        UserPrincipalCache shortLived = new UserPrincipalCache(1, 100);
+        shortLived.get("joao@email.com", loader(true));
+        shortLived.get("joao@email.com", loader(true));
+        assertEquals(1, loads.get());
+
+        Thread.sleep(1_100);
+        shortLived.get("joao@email.com", loader(true));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testGet_DisabledWhenMaxAgeIsZero() {
+        UserPrincipalCache noCache = new UserPrincipalCache(0, 100);
+        noCache.get("joao@email.com", loader(true));
+        noCache.get("joao@email.com", loader(true));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testGet_SizeIsBoundedByMaxSize() {
+        UserPrincipalCache small = new UserPrincipalCache(30, 10);
+        for (int i = 0; i < 50; i++) {
+            small.get("usuario" + i + "@email.com", loader(true));
+        }
+
+        assertTrue((Integer) small.stats().get("size") <= 10);
+        assertEquals(40L, small.stats().get("evictions"));
+        small.get("usuario49@email.com", loader(true));
+        assertEquals(50, loads.get());
+    }
+
+    @Test
+    public void testGet_ExpiredEntriesAreDroppedWhenFull() throws InterruptedException {
+        UserPrincipalCache shortLived = new UserPrincipalCache(1, 2);
+        shortLived.get("joao@email.com", loader(true));
+        shortLived.get("maria@email.com", loader(true));
+
+        Thread.sleep(1_100);
+        shortLived.get("pedro@email.com", loader(true));
+
+        assertEquals(1, shortLived.stats().get("size"));
+        assertEquals(2L, shortLived.stats().get("evictions"));
+    }
+
+    @Test
+    public void testGet_FailuresAreNotCached() {
+        Function<String, UserPrincipalCache.Loaded> missing = email -> {
+            loads.incrementAndGet();
+            throw new UsernameNotFoundException("Usuário não encontrado: " + email);
+        };
+
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("nobody@email.com", missing));
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("nobody@email.com", missing));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testGet_ConcurrentMissesLoadOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, UserPrincipalCache.Loaded> slow = email -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader(true).apply(email);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UserDetails>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("joao@email.com", slow)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<UserDetails> result : results) {
+                assertEquals("joao@email.com", result.get().getUsername());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().get("misses"));
+    }
+
+    private Function<String, UserPrincipalCache.Loaded> loader(boolean active) {
+        return email -> {
+            loads.incrementAndGet();
+            UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
+                    .username(email)
+                    .password("hash")
+                    .roles("USER")
+                    .disabled(!active)
+                    .build();
+            return new UserPrincipalCache.Loaded(1L, userDetails);
+        };
+    }
+}
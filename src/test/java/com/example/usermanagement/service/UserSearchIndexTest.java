@@ -0,0 +1,137 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.UserIdentity;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.repository.UserRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes unitários para UserSearchIndex
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UserSearchIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSearchIndex searchIndex;
+
+    @Before
+    public void setUp() {
+        searchIndex = new UserSearchIndex(userRepository);
+        searchIndex.put(1L, "João Silva", "joao@email.com");
+        searchIndex.put(2L, "Maria Silveira", "maria@email.com");
+        searchIndex.put(3L, "Pedro Santos", "pedro@empresa.com");
+    }
+
+    @Test
+    public void testSearchNames_MatchesSubstringCaseInsensitive() {
+        assertArrayEquals(new long[] {1L, 2L}, searchIndex.searchNames("SILV"));
+        assertArrayEquals(new long[] {2L}, searchIndex.searchNames("a silve"));
+        assertArrayEquals(new long[0], searchIndex.searchNames("souza"));
+    }
+
+    @Test
+    public void testSearchNames_RejectsTrigramFalsePositives() {
+        // "ilva" e "silv" compartilham trigramas com "Silveira", mas só "Silva" contém "ilva"
+        assertArrayEquals(new long[] {1L}, searchIndex.searchNames("ilva"));
+    }
+
+    @Test
+    public void testSearchNames_ShortQuery() {
+        assertArrayEquals(new long[] {1L, 3L}, searchIndex.searchNames("o"));
+    }
+
+    @Test
+    public void testSearchEmails() {
+        assertArrayEquals(new long[] {3L}, searchIndex.searchEmails("empresa"));
+    }
+
+    @Test
+    public void testOnUserChanged_UpdatesAndRemoves() {
+        // Arrange
+        User renamed = new User("João Souza", "joao@email.com");
+        renamed.setId(1L);
+
+        // Act
+        searchIndex.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.UPDATED, renamed));
+        searchIndex.onUserChanged(UserChangedEvent.deleted(3L));
+
+        // Assert
+        assertArrayEquals(new long[] {2L}, searchIndex.searchNames("silv"));
+        assertArrayEquals(new long[] {1L}, searchIndex.searchNames("souza"));
+        assertArrayEquals(new long[0], searchIndex.searchNames("pedro"));
+        assertEquals(2, searchIndex.size());
+    }
+
+    @Test
+    public void testPutAllAndRemoveAll_LargeBatchesSpanSeveralSegments() {
+        // Arrange
+        int count = 3 * UserSearchIndex.Postings.SEGMENT_SIZE;
+        List<UserIdentity> users = LongStream.rangeClosed(10, count + 9)
+                .mapToObj(id -> UserIdentity.of(id, "Cliente Silva " + id, "cliente" + id + "@email.com"))
+                .collect(Collectors.toList());
+
+        // Act
+        searchIndex.putAll(users);
+        searchIndex.removeAll(LongStream.rangeClosed(10, count + 9).filter(id -> id % 2 == 0)
+                .boxed().collect(Collectors.toList()));
+
+        // Assert
+        long[] expected = LongStream.concat(LongStream.of(1L),
+                LongStream.rangeClosed(10, count + 9).filter(id -> id % 2 != 0)).toArray();
+        assertArrayEquals(expected, searchIndex.searchNames("silva"));
+        assertArrayEquals(new long[] {11L}, searchIndex.searchEmails("cliente11@"));
+        assertEquals(3 + count / 2, searchIndex.size());
+    }
+
+    @Test
+    public void testPostings_ApplyMatchesSortedSet() {
+        // Arrange
+        Random random = new Random(42);
+        TreeSet<Long> expected = new TreeSet<>();
+        UserSearchIndex.Postings postings = UserSearchIndex.Postings.EMPTY;
+
+        // Act: lotes aleatórios de inclusões e remoções
+        for (int batch = 0; batch < 200; batch++) {
+            TreeSet<Long> adds = new TreeSet<>();
+            TreeSet<Long> removes = new TreeSet<>();
+            for (int i = 0; i < random.nextInt(500); i++) {
+                long id = random.nextInt(20_000);
+                if (random.nextInt(3) == 0) {
+                    adds.remove(id);
+                    removes.add(id);
+                } else {
+                    removes.remove(id);
+                    adds.add(id);
+                }
+            }
+            postings = postings.apply(toArray(adds), toArray(removes));
+            expected.addAll(adds);
+            expected.removeAll(removes);
+        }
+
+        // Assert
+        assertArrayEquals(toArray(expected), postings.toArray());
+        assertEquals(expected.size(), postings.size());
+        assertTrue(postings.segmentCount() <= 2 * expected.size() / UserSearchIndex.Postings.SEGMENT_SIZE + 2);
+        long[] probe = LongStream.range(0, 20_000).filter(id -> id % 7 == 0).toArray();
+        assertArrayEquals(LongStream.of(probe).filter(expected::contains).toArray(), postings.retainAll(probe));
+    }
+
+    private static long[] toArray(TreeSet<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
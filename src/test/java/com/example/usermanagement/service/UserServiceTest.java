@@ -1,21 +1,35 @@
 package com.example.usermanagement.service;
 
+import com.example.usermanagement.dto.CursorPage;
+import com.example.usermanagement.dto.UserQuery;
+import com.example.usermanagement.dto.UserSummary;
 import com.example.usermanagement.model.User;
 import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.repository.UserTombstoneRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -27,24 +41,46 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserSearchIndex searchIndex;
+
+    @Mock
+    private UserSuggestIndex suggestIndex;
+
+    @Mock
+    private UserStatsService statsService;
+
+    @Mock
+    private UserTombstoneRepository tombstoneRepository;
+
+    // Filtro desativado: todo email é tratado como possivelmente cadastrado, salvo quando o teste indica o contrário
+    @Spy
+    private UserEmailFilter emailFilter = new UserEmailFilter(null, 0, 0.01, 0);
+
     @InjectMocks
     private UserService userService;
 
     private User testUser;
 
+    private UserSummary testSummary;
+
     @Before
     public void setUp() {
         testUser = new User("João Silva", "joao@email.com");
         testUser.setId(1L);
         testUser.setPhone("11999999999");
         testUser.setAge(30);
+        testSummary = new UserSummary(1L, "João Silva", "joao@email.com", "11999999999", 30, true,
+                LocalDateTime.now(), null);
     }
 
     @Test
     public void testCreateUser_Success() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // Act
         User result = userService.createUser(testUser);
@@ -53,14 +89,29 @@ public class UserServiceTest {
         assertNotNull(result);
         assertEquals(testUser.getName(), result.getName());
         assertEquals(testUser.getEmail(), result.getEmail());
-        verify(userRepository).existsByEmail(testUser.getEmail());
-        verify(userRepository).save(testUser);
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository).saveAndFlush(testUser);
     }
 
-    @Test(expected = IllegalArgumentException.class)
+    @Test(expected = EmailAlreadyInUseException.class)
     public void testCreateUser_EmailAlreadyExists() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new ConstraintViolationException("Unique index or primary key violation",
+                        null, "PUBLIC.UK_USERS_EMAIL_INDEX_4")));
+
+        // Act
+        userService.createUser(testUser);
+
+        // Assert - exception should be thrown
+    }
+
+    @Test(expected = DataIntegrityViolationException.class)
+    public void testCreateUser_OtherConstraintViolationIsNotTranslated() {
+        // Arrange
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new ConstraintViolationException("NULL not allowed",
+                        null, "PUBLIC.USERS.NAME")));
 
         // Act
         userService.createUser(testUser);
@@ -71,17 +122,17 @@ public class UserServiceTest {
     @Test
     public void testGetAllUsers() {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findAllSummaries()).thenReturn(Arrays.asList(testSummary));
 
         // Act
-        List<User> result = userService.getAllUsers();
+        List<UserSummary> result = userService.getAllUsers();
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testUser.getName(), result.get(0).getName());
-        verify(userRepository).findAll();
+        verify(userRepository).findAllSummaries();
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -125,6 +176,19 @@ public class UserServiceTest {
         verify(userRepository).findByEmail("joao@email.com");
     }
 
+    @Test
+    public void testGetUserByEmail_DefinitelyAbsentSkipsDatabase() {
+        // Arrange
+        doReturn(false).when(emailFilter).mightContain("ninguem@email.com");
+
+        // Act
+        Optional<User> result = userService.getUserByEmail("ninguem@email.com");
+
+        // Assert
+        assertFalse(result.isPresent());
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
     @Test
     public void testUpdateUser_Success() {
         // Arrange
@@ -195,20 +259,21 @@ public class UserServiceTest {
     @Test
     public void testDeleteUser_Success() {
         // Arrange
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
         // Act
         userService.deleteUser(1L);
 
         // Assert
-        verify(userRepository).existsById(1L);
-        verify(userRepository).deleteById(1L);
+        verify(tombstoneRepository).insertForUserIdIn(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(userRepository).delete(testUser);
+        verify(statsService).adjust(-1, 0);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testDeleteUser_UserNotFound() {
         // Arrange
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act
         userService.deleteUser(1L);
@@ -219,71 +284,168 @@ public class UserServiceTest {
     @Test
     public void testGetActiveUsers() {
         // Arrange
-        List<User> activeUsers = Arrays.asList(testUser);
-        when(userRepository.findByActiveTrue()).thenReturn(activeUsers);
+        when(userRepository.findActiveSummaries()).thenReturn(Arrays.asList(testSummary));
 
         // Act
-        List<User> result = userService.getActiveUsers();
+        List<UserSummary> result = userService.getActiveUsers();
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(userRepository).findByActiveTrue();
+        verify(userRepository).findActiveSummaries();
     }
 
     @Test
     public void testSearchUsersByName() {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
-        when(userRepository.findByNameContainingIgnoreCase("João")).thenReturn(users);
+        when(searchIndex.searchNames("João")).thenReturn(new long[] {1L});
+        when(userRepository.findSummariesByIdIn(Arrays.asList(1L))).thenReturn(Arrays.asList(testSummary));
 
         // Act
-        List<User> result = userService.searchUsersByName("João");
+        List<UserSummary> result = userService.searchUsersByName("João");
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(userRepository).findByNameContainingIgnoreCase("João");
+        verify(searchIndex).searchNames("João");
+        verify(userRepository, never()).findByNameContainingIgnoreCase(anyString());
+    }
+
+    @Test
+    public void testSearchUsersByName_NoMatchSkipsDatabase() {
+        // Arrange
+        when(searchIndex.searchNames("Xyz")).thenReturn(new long[0]);
+
+        // Act
+        List<UserSummary> result = userService.searchUsersByName("Xyz");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testCreateUser_PublishesChangedEvent() {
+        // Arrange
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+
+        // Act
+        userService.createUser(testUser);
+
+        // Assert
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof UserChangedEvent
+                && ((UserChangedEvent) event).getType() == UserChangedEvent.Type.CREATED
+                && ((UserChangedEvent) event).getUserId().equals(1L)));
     }
 
     @Test
     public void testGetUsersByAgeRange() {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
-        when(userRepository.findByAgeBetween(25, 35)).thenReturn(users);
+        when(userRepository.findSummariesByAgeBetween(25, 35)).thenReturn(Arrays.asList(testSummary));
 
         // Act
-        List<User> result = userService.getUsersByAgeRange(25, 35);
+        List<UserSummary> result = userService.getUsersByAgeRange(25, 35);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(userRepository).findByAgeBetween(25, 35);
+        verify(userRepository).findSummariesByAgeBetween(25, 35);
+    }
+
+    @Test
+    public void testGetUsersPage_ReturnsNextCursorWhenMoreRowsExist() {
+        // Arrange
+        UserSummary second = new UserSummary(2L, "Maria Souza", "maria@email.com", null, null, true,
+                LocalDateTime.now(), null);
+        when(userRepository.findPageAfter(0L, PageRequest.of(0, 2))).thenReturn(Arrays.asList(testSummary, second));
+
+        // Act
+        CursorPage<UserSummary> page = userService.getUsersPage(null, 1);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertEquals(CursorPage.encodeCursor(null, 1L), page.getNextCursor());
+    }
+
+    @Test
+    public void testGetUsersPage_SeeksFromCursor() {
+        // Arrange
+        when(userRepository.findPageAfter(1L, PageRequest.of(0, 11))).thenReturn(Arrays.asList());
+
+        // Act
+        CursorPage<UserSummary> page = userService.getUsersPage(CursorPage.encodeCursor(null, 1L), 10);
+
+        // Assert
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(userRepository).findPageAfter(1L, PageRequest.of(0, 11));
     }
 
     @Test
-    public void testCountActiveUsers() {
+    public void testGetUsersByAgeRangePage_SeeksFromAgeAndId() {
         // Arrange
-        when(userRepository.countByActiveTrue()).thenReturn(5L);
+        when(userRepository.findByAgeBetweenPageAfter(25, 35, 30, 1L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(testSummary, testSummary));
 
         // Act
-        long result = userService.countActiveUsers();
+        CursorPage<UserSummary> page = userService.getUsersByAgeRangePage(25, 35, CursorPage.encodeCursor(30, 1L), 1);
 
         // Assert
-        assertEquals(5L, result);
-        verify(userRepository).countByActiveTrue();
+        assertEquals(1, page.getItems().size());
+        assertEquals(CursorPage.encodeCursor(30, 1L), page.getNextCursor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetUsersPage_InvalidCursor() {
+        // Act
+        userService.getUsersPage("not-a-cursor!", 10);
+
+        // Assert - exception should be thrown
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQueryUsers_SortsByKeyAndIdAndReturnsCursor() {
+        // Arrange
+        UserQuery query = new UserQuery();
+        query.setName("João");
+        query.setSort("age");
+        query.setDirection("desc");
+        query.setLimit(1);
+        Sort expectedSort = Sort.by(new Sort.Order(Sort.Direction.DESC, "age").nullsLast())
+                .and(Sort.by(Sort.Direction.DESC, "id"));
+        when(userRepository.findSummaries(any(Specification.class), eq(expectedSort), eq(2)))
+                .thenReturn(Arrays.asList(testSummary, testSummary));
+
+        // Act
+        CursorPage<UserSummary> page = userService.queryUsers(query);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertEquals(CursorPage.encodeCursor(30, 1L), page.getNextCursor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQueryUsers_InvalidSortField() {
+        // Arrange
+        UserQuery query = new UserQuery();
+        query.setSort("password");
+
+        // Act
+        userService.queryUsers(query);
+
+        // Assert - exception should be thrown
     }
 
     @Test
-    public void testCountInactiveUsers() {
+    public void testSuggestUsers_ClampsLimit() {
         // Arrange
-        when(userRepository.countByActiveFalse()).thenReturn(2L);
+        when(suggestIndex.suggest("jo", UserService.MAX_SUGGESTIONS)).thenReturn(List.of());
 
         // Act
-        long result = userService.countInactiveUsers();
+        userService.suggestUsers("jo", 1000);
 
         // Assert
-        assertEquals(2L, result);
-        verify(userRepository).countByActiveFalse();
+        verify(suggestIndex).suggest("jo", UserService.MAX_SUGGESTIONS);
     }
 }
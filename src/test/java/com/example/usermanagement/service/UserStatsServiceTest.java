@@ -0,0 +1,158 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.UserBulkRequest;
+import com.example.usermanagement.model.User;
+import com.example.usermanagement.model.UserCounters;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.repository.UserSpecifications;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifica que os contadores da tabela user_stats acompanham as escritas do
+ * {@link UserService}, que a leitura das estatísticas é uma única consulta e que
+ * a reconciliação corrige alterações feitas fora do serviço
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.stat=WARN"
+})
+@Import({UserService.class, UserEmailFilter.class, UserStatsService.class, UserSearchIndex.class,
+    UserSuggestIndex.class})
+public class UserStatsServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Before
+    public void setUp() {
+        userStatsService.reconcile();
+    }
+
+    @Test
+    public void testWritesKeepCountersInSync() {
+        User joao = userService.createUser(newUser("joao"));
+        User maria = newUser("maria");
+        maria.setActive(false);
+        maria = userService.createUser(maria);
+        assertCounters(1, 1);
+
+        List<User> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            User user = newUser("lote" + i);
+            user.setActive(i % 2 == 0);
+            batch.add(user);
+        }
+        List<User> created = userService.createUsers(batch);
+        assertCounters(6, 6);
+
+        userService.deactivateUser(joao.getId());
+        userService.deactivateUser(joao.getId());
+        assertCounters(5, 7);
+
+        userService.activateUser(maria.getId());
+        assertCounters(6, 6);
+
+        User data = newUser("maria");
+        data.setActive(false);
+        userService.updateUser(maria.getId(), data);
+        assertCounters(5, 7);
+
+        userService.deleteUser(joao.getId());
+        assertCounters(5, 6);
+
+        List<Long> ids = List.of(created.get(0).getId(), created.get(1).getId(), created.get(2).getId());
+        userService.deactivateUsers(new UserBulkRequest(ids, null));
+        assertCounters(3, 8);
+
+        userService.deleteUsers(new UserBulkRequest(List.of(created.get(0).getId(), created.get(3).getId()), null));
+        assertCounters(3, 6);
+    }
+
+    @Test
+    public void testReadingStatsIsOneQuery() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email, email_normalized, password, active, created_at) "
+                + "SELECT X, 'Usuário ' || X, 'user' || X || '@email.com', 'user' || X || '@email.com', 'secret123', "
+                + "MOD(X, 4) <> 0, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 2000)");
+        userStatsService.reconcile();
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UserCounters counters = userStatsService.getStats();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1500, counters.getActiveUsers());
+        assertEquals(500, counters.getInactiveUsers());
+        assertEquals(2000, counters.getTotalUsers());
+    }
+
+    @Test
+    public void testReconcileFixesChangesOutsideTheService() {
+        userService.createUser(newUser("joao"));
+        jdbcTemplate.update("INSERT INTO users (id, name, email, email_normalized, password, active, created_at) "
+                + "VALUES (100000, 'Direto', 'direto@email.com', 'direto@email.com', 'secret123', false, "
+                + "CURRENT_TIMESTAMP)");
+        entityManager.flush();
+        entityManager.clear();
+        assertCounters(1, 0, userStatsService.getStats());
+
+        UserCounters counters = userStatsService.reconcile();
+
+        assertNotNull(counters.getReconciledAt());
+        assertCounters(1, 1);
+    }
+
+    private void assertCounters(long active, long inactive) {
+        entityManager.flush();
+        entityManager.clear();
+        UserCounters counters = userStatsService.getStats();
+        assertCounters(active, inactive, counters);
+        assertEquals(userRepository.count(UserSpecifications.hasActive(true)), counters.getActiveUsers());
+        assertEquals(userRepository.count(UserSpecifications.hasActive(false)), counters.getInactiveUsers());
+    }
+
+    private void assertCounters(long active, long inactive, UserCounters counters) {
+        assertEquals(active, counters.getActiveUsers());
+        assertEquals(inactive, counters.getInactiveUsers());
+    }
+
+    private User newUser(String name) {
+        User user = new User(name, name + "@email.com");
+        user.setPassword("secret123");
+        return user;
+    }
+}
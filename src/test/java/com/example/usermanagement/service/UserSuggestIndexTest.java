@@ -0,0 +1,103 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.dto.UserSuggestion;
+import com.example.usermanagement.repository.UserRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes unitários para UserSuggestIndex
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UserSuggestIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSuggestIndex suggestIndex;
+
+    @Before
+    public void setUp() {
+        suggestIndex = new UserSuggestIndex(userRepository, 2);
+        suggestIndex.put(1L, "João Silva", "joao@email.com");
+        suggestIndex.put(2L, "Maria Silveira", "maria@email.com");
+        suggestIndex.put(3L, "Pedro Santos", "pedro@empresa.com");
+    }
+
+    @Test
+    public void testSuggest_MatchesNameWordAndEmailPrefixes() {
+        assertEquals(List.of(1L, 2L), ids(suggestIndex.suggest("sil", 10)));
+        assertEquals(List.of(1L), ids(suggestIndex.suggest("JOAO@", 10)));
+        assertEquals(List.of(3L), ids(suggestIndex.suggest("pedro", 10)));
+        assertTrue(suggestIndex.suggest("xyz", 10).isEmpty());
+    }
+
+    @Test
+    public void testSuggest_RespectsLimitAndReturnsTuples() {
+        List<UserSuggestion> suggestions = suggestIndex.suggest("m", 1);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(Long.valueOf(2L), suggestions.get(0).getId());
+        assertEquals("Maria Silveira", suggestions.get(0).getName());
+        assertEquals("maria@email.com", suggestions.get(0).getEmail());
+    }
+
+    @Test
+    public void testSuggest_ReflectsUpdatesAndRemovalsBeforeAndAfterCompaction() {
+        suggestIndex.put(1L, "João Souza", "joao@email.com");
+        suggestIndex.remove(2L);
+        assertTrue(suggestIndex.suggest("silv", 10).isEmpty());
+        assertEquals(List.of(1L), ids(suggestIndex.suggest("souza", 10)));
+
+        // Mais alterações que o limite forçam a mesclagem do delta ao base
+        suggestIndex.put(4L, "Ana Souza", "ana@email.com");
+        suggestIndex.put(5L, "Bruno Souza", "bruno@email.com");
+        assertEquals(List.of(1L, 4L, 5L), ids(suggestIndex.suggest("souza", 10)));
+        assertTrue(suggestIndex.suggest("maria", 10).isEmpty());
+        assertTrue(suggestIndex.estimatedMemoryBytes() > 0);
+    }
+
+    @Test
+    public void testSuggest_CompactionsMatchAnIndexBuiltAtOnce() {
+        // Arrange: alterações aleatórias com várias compactações pelo caminho
+        Random random = new Random(42);
+        Map<Long, String> names = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long id = 10 + random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                suggestIndex.remove(id);
+                names.remove(id);
+            } else {
+                String name = "Usuário " + (char) ('a' + random.nextInt(26)) + random.nextInt(100);
+                suggestIndex.put(id, name, "user" + id + "@email.com");
+                names.put(id, name);
+            }
+        }
+        UserSuggestIndex expected = new UserSuggestIndex(userRepository, Integer.MAX_VALUE);
+        expected.put(1L, "João Souza", "joao@email.com");
+        expected.put(2L, "Maria Silveira", "maria@email.com");
+        expected.put(3L, "Pedro Santos", "pedro@empresa.com");
+        names.forEach((id, name) -> expected.put(id, name, "user" + id + "@email.com"));
+        suggestIndex.put(1L, "João Souza", "joao@email.com");
+
+        // Assert
+        for (String prefix : List.of("u", "usuário b", "user1", "s", "m")) {
+            assertEquals(prefix, ids(expected.suggest(prefix, 1000)), ids(suggestIndex.suggest(prefix, 1000)));
+        }
+    }
+
+    private List<Long> ids(List<UserSuggestion> suggestions) {
+        return suggestions.stream().map(UserSuggestion::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.usermanagement.service;
+
+import com.example.usermanagement.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes unitários para VerifiedTokenCache
+ */
+public class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(10, 300);
+
+    @Test
+    public void testGet_CountsHitsAndMisses() {
+        VerifiedToken token = token("joao@email.com", 60_000);
+
+        assertNull(cache.get("a.b.c"));
+        cache.put("a.b.c", token);
+
+        assertSame(token, cache.get("a.b.c"));
+        assertNull(cache.get("x.y.z"));
+        Map<String, Object> stats = cache.stats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(2L, stats.get("misses"));
+        assertEquals(1, stats.get("size"));
+    }
+
+    @Test
+    public void testPut_TtlIsCappedAtTokenExpiration() throws InterruptedException {
+        cache.put("expired", token("joao@email.com", -1_000));
+        cache.put("short", token("joao@email.com", 1_500));
+
+        assertNull(cache.get("expired"));
+        assertNotNull(cache.get("short"));
+        Thread.sleep(1_600); // o exp do JWT tem precisão de segundos
+        assertNull(cache.get("short"));
+    }
+
+    @Test
+    public void testPut_StaysWithinMaxSize() {
+        for (int i = 0; i < 100; i++) {
+            cache.put("token" + i, token("user" + i + "@email.com", 60_000));
+        }
+
+        assertTrue((int) cache.stats().get("size") <= 10);
+        assertNotNull(cache.get("token99"));
+    }
+
+    @Test
+    public void testEvict_RemovesTokensOfChangedUsers() {
+        cache.put("t1", token("joao@email.com", 60_000));
+        cache.put("t2", token("joao@email.com", 60_000));
+        cache.put("t3", token("maria@email.com", 60_000));
+
+        User user = new User("João Silva", "joao@email.com");
+        user.setId(1L);
+        cache.onUserChanged(UserChangedEvent.of(UserChangedEvent.Type.DEACTIVATED, user));
+        assertNull(cache.get("t1"));
+        assertNull(cache.get("t2"));
+        assertNotNull(cache.get("t3"));
+    }
+
+    @Test
+    public void testDisabledCacheStoresNothing() {
+        VerifiedTokenCache disabled = new VerifiedTokenCache(0, 300);
+        disabled.put("t1", token("joao@email.com", 60_000));
+
+        assertNull(disabled.get("t1"));
+        assertEquals(false, disabled.stats().get("enabled"));
+    }
+
+    private static VerifiedToken token(String subject, long expiresInMillis) {
+        Claims claims = Jwts.claims()
+                .setSubject(subject)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + expiresInMillis));
+        return VerifiedToken.of(claims);
+    }
+}
@@ -1,18 +1,26 @@
 package com.example.usermanagement.controller;
 
 import com.example.usermanagement.model.User;
+import com.example.usermanagement.service.EmailAlreadyInUseException;
 import com.example.usermanagement.service.JwtService;
+import com.example.usermanagement.service.PasswordHashingService;
 import com.example.usermanagement.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -26,104 +34,98 @@ public class AdminController {
     private JwtService jwtService;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
     
     @PostMapping("/create-user")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> createUser(@Valid @RequestBody CreateUserRequest request,
-                                      @RequestHeader("Authorization") String token) {
-        try {
-            if (!isValidAdminToken(token)) {
-                return ResponseEntity.status(403)
-                        .body(Map.of("error", "Acesso negado. Apenas administradores podem criar usuários."));
-            }
-            
-            if (userService.getUserByEmail(request.getEmail()).isPresent()) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Email já está em uso"));
-            }
-            
-            User user = new User();
-            user.setName(request.getName());
-            user.setEmail(request.getEmail());
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
-            user.setPhone(request.getPhone());
-            user.setAge(request.getAge());
-            user.setRoles(Set.of(User.Role.USER));
-            
-            User savedUser = userService.createUser(user);
-            
-            // Gerar token para o novo usuário
-            String userToken = jwtService.generateToken(savedUser.getEmail());
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("user", Map.of(
-                "id", savedUser.getId(),
-                "name", savedUser.getName(),
-                "email", savedUser.getEmail(),
-                "phone", savedUser.getPhone(),
-                "age", savedUser.getAge(),
-                "roles", savedUser.getRoles(),
-                "active", savedUser.getActive(),
-                "createdAt", savedUser.getCreatedAt()
-            ));
-            response.put("token", userToken);
-            response.put("message", "Usuário criado com sucesso");
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Erro ao criar usuário: " + e.getMessage()));
+    public CompletableFuture<ResponseEntity<?>> createUser(@Valid @RequestBody CreateUserRequest request,
+                                                         @RequestHeader("Authorization") String token) {
+        if (!isValidAdminToken(token)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(403)
+                    .body(Map.of("error", "Acesso negado. Apenas administradores podem criar usuários.")));
         }
+        
+        // O hash da senha roda no pool dedicado; com o pool saturado a resposta é 503
+        return passwordHashingService.encode(request.getPassword())
+            .<ResponseEntity<?>>thenApplyAsync(passwordHash -> {
+                User user = new User();
+                user.setName(request.getName());
+                user.setEmail(request.getEmail());
+                user.setPassword(passwordHash);
+                user.setPhone(request.getPhone());
+                user.setAge(request.getAge());
+                user.setRoles(Set.of(User.Role.USER));
+                
+                User savedUser = userService.createUser(user);
+                
+                // Gerar token para o novo usuário
+                String userToken = jwtService.generateToken(savedUser.getEmail());
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("user", Map.of(
+                    "id", savedUser.getId(),
+                    "name", savedUser.getName(),
+                    "email", savedUser.getEmail(),
+                    "phone", savedUser.getPhone(),
+                    "age", savedUser.getAge(),
+                    "roles", savedUser.getRoles(),
+                    "active", savedUser.getActive(),
+                    "createdAt", savedUser.getCreatedAt()
+                ));
+                response.put("token", userToken);
+                response.put("message", "Usuário criado com sucesso");
+                
+                return ResponseEntity.ok(response);
+            }, taskExecutor)
+            .exceptionally(e -> failure(e, "Erro ao criar usuário: "));
     }
     
     @PostMapping("/create-admin")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> createAdmin(@Valid @RequestBody CreateUserRequest request,
-                                       @RequestHeader("Authorization") String token) {
-        try {
-            if (!isValidAdminToken(token)) {
-                return ResponseEntity.status(403)
-                        .body(Map.of("error", "Acesso negado. Apenas administradores podem criar outros administradores."));
-            }
-            
-            if (userService.getUserByEmail(request.getEmail()).isPresent()) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Email já está em uso"));
-            }
-            
-            User admin = new User();
-            admin.setName(request.getName());
-            admin.setEmail(request.getEmail());
-            admin.setPassword(passwordEncoder.encode(request.getPassword()));
-            admin.setPhone(request.getPhone());
-            admin.setAge(request.getAge());
-            admin.setRoles(Set.of(User.Role.ADMIN));
-            
-            User savedAdmin = userService.createUser(admin);
-            
-            // Gerar token para o novo admin
-            String adminToken = jwtService.generateToken(savedAdmin.getEmail());
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("admin", Map.of(
-                "id", savedAdmin.getId(),
-                "name", savedAdmin.getName(),
-                "email", savedAdmin.getEmail(),
-                "phone", savedAdmin.getPhone(),
-                "age", savedAdmin.getAge(),
-                "roles", savedAdmin.getRoles(),
-                "active", savedAdmin.getActive(),
-                "createdAt", savedAdmin.getCreatedAt()
-            ));
-            response.put("token", adminToken);
-            response.put("message", "Administrador criado com sucesso");
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Erro ao criar administrador: " + e.getMessage()));
+    public CompletableFuture<ResponseEntity<?>> createAdmin(@Valid @RequestBody CreateUserRequest request,
+                                                          @RequestHeader("Authorization") String token) {
+        if (!isValidAdminToken(token)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(403)
+                    .body(Map.of("error", "Acesso negado. Apenas administradores podem criar outros administradores.")));
         }
+        
+        // O hash da senha roda no pool dedicado; com o pool saturado a resposta é 503
+        return passwordHashingService.encode(request.getPassword())
+            .<ResponseEntity<?>>thenApplyAsync(passwordHash -> {
+                User admin = new User();
+                admin.setName(request.getName());
+                admin.setEmail(request.getEmail());
+                admin.setPassword(passwordHash);
+                admin.setPhone(request.getPhone());
+                admin.setAge(request.getAge());
+                admin.setRoles(Set.of(User.Role.ADMIN));
+                
+                User savedAdmin = userService.createUser(admin);
+                
+                // Gerar token para o novo admin
+                String adminToken = jwtService.generateToken(savedAdmin.getEmail());
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("admin", Map.of(
+                    "id", savedAdmin.getId(),
+                    "name", savedAdmin.getName(),
+                    "email", savedAdmin.getEmail(),
+                    "phone", savedAdmin.getPhone(),
+                    "age", savedAdmin.getAge(),
+                    "roles", savedAdmin.getRoles(),
+                    "active", savedAdmin.getActive(),
+                    "createdAt", savedAdmin.getCreatedAt()
+                ));
+                response.put("token", adminToken);
+                response.put("message", "Administrador criado com sucesso");
+                
+                return ResponseEntity.ok(response);
+            }, taskExecutor)
+            .exceptionally(e -> failure(e, "Erro ao criar administrador: "));
     }
     
     @GetMapping("/users")
@@ -194,6 +196,31 @@ public class AdminController {
         }
     }
     
+    // A unicidade do email é verificada pela constraint do banco no INSERT
+    private ResponseEntity<?> failure(Throwable e, String errorPrefix) {
+        if (isRejected(e)) {
+            return busy();
+        }
+        String error = unwrap(e) instanceof EmailAlreadyInUseException
+                ? "Email já está em uso" : errorPrefix + unwrap(e).getMessage();
+        return ResponseEntity.badRequest().body(Map.of("error", error));
+    }
+    
+    private boolean isRejected(Throwable e) {
+        return unwrap(e) instanceof RejectedExecutionException;
+    }
+    
+    private Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+    
+    // Resposta para quando o pool de hashing de senhas está saturado
+    private ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(passwordHashingService.getRetryAfterSeconds()))
+                .body(Map.of("error", "Servidor ocupado, tente novamente em instantes"));
+    }
+    
     // Classes internas para requests
     public static class CreateUserRequest {
         private String name;
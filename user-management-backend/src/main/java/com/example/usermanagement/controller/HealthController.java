@@ -1,5 +1,6 @@
 package com.example.usermanagement.controller;
 
+import com.example.usermanagement.service.PasswordHashingService;
 import com.example.usermanagement.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -20,6 +21,9 @@ public class HealthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> getHealthStatus() {
         Map<String, Object> healthStatus = new HashMap<>();
@@ -79,6 +83,12 @@ public class HealthController {
         }
     }
 
+    // Métricas do pool dedicado de hashing de senhas (BCrypt)
+    @GetMapping("/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.stats());
+    }
+
     @GetMapping("/simple")
     public ResponseEntity<Map<String, String>> getSimpleHealthStatus() {
         Map<String, String> simpleStatus = new HashMap<>();
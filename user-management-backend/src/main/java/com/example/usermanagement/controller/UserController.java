@@ -1,5 +1,6 @@
 package com.example.usermanagement.controller;
 
+import com.example.usermanagement.dto.UserSummary;
 import com.example.usermanagement.model.User;
 import com.example.usermanagement.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,8 +46,8 @@ public class UserController {
      * GET /api/users
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+    public ResponseEntity<List<UserSummary>> getAllUsers() {
+        List<UserSummary> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
     
@@ -139,8 +140,8 @@ public class UserController {
      * GET /api/users/active
      */
     @GetMapping("/active")
-    public ResponseEntity<List<User>> getActiveUsers() {
-        List<User> users = userService.getActiveUsers();
+    public ResponseEntity<List<UserSummary>> getActiveUsers() {
+        List<UserSummary> users = userService.getActiveUsers();
         return ResponseEntity.ok(users);
     }
     
@@ -149,8 +150,8 @@ public class UserController {
      * GET /api/users/search?name={name}
      */
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsersByName(@RequestParam String name) {
-        List<User> users = userService.searchUsersByName(name);
+    public ResponseEntity<List<UserSummary>> searchUsersByName(@RequestParam String name) {
+        List<UserSummary> users = userService.searchUsersByName(name);
         return ResponseEntity.ok(users);
     }
     
@@ -159,10 +160,10 @@ public class UserController {
      * GET /api/users/age-range?minAge={minAge}&maxAge={maxAge}
      */
     @GetMapping("/age-range")
-    public ResponseEntity<List<User>> getUsersByAgeRange(
+    public ResponseEntity<List<UserSummary>> getUsersByAgeRange(
             @RequestParam Integer minAge, 
             @RequestParam Integer maxAge) {
-        List<User> users = userService.getUsersByAgeRange(minAge, maxAge);
+        List<UserSummary> users = userService.getUsersByAgeRange(minAge, maxAge);
         return ResponseEntity.ok(users);
     }
     
@@ -0,0 +1,65 @@
+package com.example.usermanagement.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumo do usuário retornado pelas listagens
+ *
+ * Preenchido diretamente pela consulta ({@code SELECT new ...}), sem carregar a
+ * entidade: não lê a senha nem faz a consulta extra dos papéis.
+ */
+public class UserSummary {
+    
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String phone;
+    private final Integer age;
+    private final Boolean active;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    
+    public UserSummary(Long id, String name, String email, String phone, Integer age, Boolean active,
+                       LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.age = age;
+        this.active = active;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public Integer getAge() {
+        return age;
+    }
+    
+    public Boolean getActive() {
+        return active;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.usermanagement.model;
 
+import org.hibernate.annotations.BatchSize;
+
 import javax.persistence.*;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
@@ -11,9 +13,19 @@ import java.util.Set;
  * Entidade User que representa um usuário no sistema
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"))
 public class User {
     
+    /**
+     * Nome da constraint de unicidade do email
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    
+    /**
+     * Número de usuários cujos papéis são carregados por consulta
+     */
+    public static final int ROLES_BATCH_SIZE = 100;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -25,7 +37,7 @@ public class User {
     
     @NotBlank(message = "Email é obrigatório")
     @Email(message = "Email deve ter um formato válido")
-    @Column(name = "email", nullable = false, unique = true)
+    @Column(name = "email", nullable = false)
     private String email;
     
     @NotBlank(message = "Senha é obrigatória")
@@ -40,7 +52,13 @@ public class User {
     @Column(name = "age")
     private Integer age;
     
+    /**
+     * Os papéis de vários usuários carregados na mesma consulta são buscados em
+     * lotes de {@link #ROLES_BATCH_SIZE} ({@code user_id IN (...)}), em vez de uma
+     * consulta por usuário
+     */
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = ROLES_BATCH_SIZE)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
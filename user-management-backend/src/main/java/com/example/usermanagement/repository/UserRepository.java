@@ -1,5 +1,6 @@
 package com.example.usermanagement.repository;
 
+import com.example.usermanagement.dto.UserSummary;
 import com.example.usermanagement.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -29,6 +30,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByEmail(String email);
     
+    /**
+     * Resumo de todos os usuários, ordenados por ID (listagens)
+     * @return resumo dos usuários
+     */
+    @Query(SUMMARY_SELECT + "ORDER BY u.id")
+    List<UserSummary> findAllSummaries();
+    
+    /**
+     * Resumo dos usuários ativos, ordenados por ID (listagens)
+     * @return resumo dos usuários ativos
+     */
+    @Query(SUMMARY_SELECT + "WHERE u.active = true ORDER BY u.id")
+    List<UserSummary> findActiveSummaries();
+    
+    /**
+     * Resumo dos usuários por nome (case insensitive), ordenados por ID (listagens)
+     * @param name nome ou parte do nome
+     * @return resumo dos usuários que contêm o nome
+     */
+    @Query(SUMMARY_SELECT + "WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY u.id")
+    List<UserSummary> findSummariesByNameContainingIgnoreCase(@Param("name") String name);
+    
+    /**
+     * Resumo dos usuários na faixa etária (listagens)
+     * @param minAge idade mínima
+     * @param maxAge idade máxima
+     * @return resumo dos usuários na faixa etária, ordenados por idade e ID
+     */
+    @Query(SUMMARY_SELECT + "WHERE u.age BETWEEN :minAge AND :maxAge ORDER BY u.age, u.id")
+    List<UserSummary> findSummariesByAgeBetween(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge);
+    
     /**
      * Busca usuários ativos
      * @return lista de usuários ativos
@@ -69,4 +101,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return número de usuários inativos
      */
     long countByActiveFalse();
+    
+    /**
+     * Início das consultas de listagem: seleciona apenas as colunas do {@link UserSummary}
+     * (sem a senha e sem a consulta dos papéis)
+     */
+    String SUMMARY_SELECT = "SELECT new com.example.usermanagement.dto.UserSummary(u.id, u.name, u.email, " +
+            "u.phone, u.age, u.active, u.createdAt, u.updatedAt) FROM User u ";
 }
@@ -0,0 +1,13 @@
+package com.example.usermanagement.service;
+
+/**
+ * Lançada quando o email informado já pertence a outro usuário
+ */
+public class EmailAlreadyInUseException extends IllegalArgumentException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public EmailAlreadyInUseException(String email) {
+        super("Email já está em uso: " + email);
+    }
+}
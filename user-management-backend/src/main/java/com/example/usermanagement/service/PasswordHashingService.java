@@ -0,0 +1,127 @@
+package com.example.usermanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Executa o hash e a verificação de senhas (BCrypt) em um pool dedicado e limitado
+ *
+ * O BCrypt é propositalmente caro; rodando nas threads do Tomcat, uma rajada de
+ * logins ocupava todas elas e atrasava requisições baratas. Aqui o trabalho vai
+ * para um pool com uma thread por processador (por padrão) e uma fila limitada:
+ * quando a fila está cheia a tarefa é rejeitada imediatamente com
+ * {@link RejectedExecutionException}, que os controllers convertem em
+ * 503 com {@code Retry-After}.
+ */
+@Service
+public class PasswordHashingService {
+    
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int retryAfterSeconds;
+    
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+    
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${users.password-hashing.threads:0}") int threads,
+                                  @Value("${users.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${users.password-hashing.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfterSeconds = retryAfterSeconds;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    /**
+     * Gera o hash da senha no pool dedicado
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+    
+    /**
+     * Executa no pool dedicado uma tarefa dominada pelo BCrypt (ex.: autenticação por senha)
+     * @return futuro com o resultado; falha com {@link RejectedExecutionException} se a fila está cheia
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.add(startedAt - enqueuedAt);
+                T result = null;
+                Throwable failure = null;
+                try {
+                    result = task.get();
+                } catch (Throwable e) {
+                    failure = e;
+                }
+                // As estatísticas são registradas antes de completar o futuro, para que quem
+                // espera pelo resultado já as veja atualizadas
+                executionNanos.add(System.nanoTime() - startedAt);
+                completed.increment();
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+    
+    /**
+     * Segundos sugeridos no header Retry-After quando uma tarefa é rejeitada
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+    
+    /**
+     * Métricas do pool: vazão, fila e tempos médios
+     */
+    public Map<String, Object> stats() {
+        long completedCount = completed.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", executor.getMaximumPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        stats.put("completed", completedCount);
+        stats.put("rejected", rejected.sum());
+        stats.put("avgQueueWaitMillis", completedCount == 0 ? 0.0 : queueWaitNanos.sum() / 1e6 / completedCount);
+        stats.put("avgExecutionMillis", completedCount == 0 ? 0.0 : executionNanos.sum() / 1e6 / completedCount);
+        return stats;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
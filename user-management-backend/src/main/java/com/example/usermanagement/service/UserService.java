@@ -1,12 +1,16 @@
 package com.example.usermanagement.service;
 
+import com.example.usermanagement.dto.UserSummary;
 import com.example.usermanagement.model.User;
 import com.example.usermanagement.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 /**
@@ -24,25 +28,44 @@ public class UserService {
     }
     
     /**
-     * Cria um novo usuário
+     * Cria um novo usuário com um único INSERT; a unicidade do email é garantida
+     * pela constraint do banco, sem consulta prévia
      * @param user dados do usuário
      * @return usuário criado
-     * @throws IllegalArgumentException se o email já existe
+     * @throws EmailAlreadyInUseException se o email já existe
      */
     public User createUser(User user) {
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new IllegalArgumentException("Email já está em uso: " + user.getEmail());
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConstraintViolation(e)) {
+                throw new EmailAlreadyInUseException(user.getEmail());
+            }
+            throw e;
         }
-        return userRepository.save(user);
+    }
+    
+    /**
+     * Verifica se a violação de integridade veio da constraint de unicidade do email
+     */
+    static boolean isEmailConstraintViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String constraintName = ((ConstraintViolationException) cause).getConstraintName();
+                return constraintName != null
+                        && constraintName.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+            }
+        }
+        return false;
     }
     
     /**
      * Busca todos os usuários
-     * @return lista de todos os usuários
+     * @return resumo de todos os usuários, ordenados por ID
      */
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserSummary> getAllUsers() {
+        return userRepository.findAllSummaries();
     }
     
     /**
@@ -134,32 +157,32 @@ public class UserService {
     
     /**
      * Busca usuários ativos
-     * @return lista de usuários ativos
+     * @return resumo dos usuários ativos, ordenados por ID
      */
     @Transactional(readOnly = true)
-    public List<User> getActiveUsers() {
-        return userRepository.findByActiveTrue();
+    public List<UserSummary> getActiveUsers() {
+        return userRepository.findActiveSummaries();
     }
     
     /**
      * Busca usuários por nome
      * @param name nome ou parte do nome
-     * @return lista de usuários que contêm o nome
+     * @return resumo dos usuários que contêm o nome, ordenados por ID
      */
     @Transactional(readOnly = true)
-    public List<User> searchUsersByName(String name) {
-        return userRepository.findByNameContainingIgnoreCase(name);
+    public List<UserSummary> searchUsersByName(String name) {
+        return userRepository.findSummariesByNameContainingIgnoreCase(name);
     }
     
     /**
      * Busca usuários por faixa etária
      * @param minAge idade mínima
      * @param maxAge idade máxima
-     * @return lista de usuários na faixa etária
+     * @return resumo dos usuários na faixa etária, ordenados por idade e ID
      */
     @Transactional(readOnly = true)
-    public List<User> getUsersByAgeRange(Integer minAge, Integer maxAge) {
-        return userRepository.findByAgeBetween(minAge, maxAge);
+    public List<UserSummary> getUsersByAgeRange(Integer minAge, Integer maxAge) {
+        return userRepository.findSummariesByAgeBetween(minAge, maxAge);
     }
     
     /**
@@ -1,5 +1,6 @@
 package com.example.usermanagement.controller;
 
+import com.example.usermanagement.dto.UserSummary;
 import com.example.usermanagement.model.User;
 import com.example.usermanagement.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,6 +14,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -40,6 +42,7 @@ public class UserControllerTest {
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
     private User testUser;
+    private UserSummary testSummary;
 
     @Before
     public void setUp() {
@@ -50,6 +53,8 @@ public class UserControllerTest {
         testUser.setId(1L);
         testUser.setPhone("11999999999");
         testUser.setAge(30);
+        testSummary = new UserSummary(1L, "João Silva", "joao@email.com", "11999999999", 30, true,
+                LocalDateTime.now(), null);
     }
 
     @Test
@@ -84,7 +89,7 @@ public class UserControllerTest {
     @Test
     public void testGetAllUsers() throws Exception {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
+        List<UserSummary> users = Arrays.asList(testSummary);
         when(userService.getAllUsers()).thenReturn(users);
 
         // Act & Assert
@@ -92,7 +97,9 @@ public class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].name").value("João Silva"));
+                .andExpect(jsonPath("$[0].name").value("João Silva"))
+                .andExpect(jsonPath("$[0].password").doesNotExist())
+                .andExpect(jsonPath("$[0].roles").doesNotExist());
     }
 
     @Test
@@ -183,7 +190,7 @@ public class UserControllerTest {
     @Test
     public void testGetActiveUsers() throws Exception {
         // Arrange
-        List<User> activeUsers = Arrays.asList(testUser);
+        List<UserSummary> activeUsers = Arrays.asList(testSummary);
         when(userService.getActiveUsers()).thenReturn(activeUsers);
 
         // Act & Assert
@@ -196,7 +203,7 @@ public class UserControllerTest {
     @Test
     public void testSearchUsersByName() throws Exception {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
+        List<UserSummary> users = Arrays.asList(testSummary);
         when(userService.searchUsersByName("João")).thenReturn(users);
 
         // Act & Assert
@@ -210,7 +217,7 @@ public class UserControllerTest {
     @Test
     public void testGetUsersByAgeRange() throws Exception {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
+        List<UserSummary> users = Arrays.asList(testSummary);
         when(userService.getUsersByAgeRange(25, 35)).thenReturn(users);
 
         // Act & Assert
@@ -1,14 +1,18 @@
 package com.example.usermanagement.service;
 
+import com.example.usermanagement.dto.UserSummary;
 import com.example.usermanagement.model.User;
 import com.example.usermanagement.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -32,19 +36,22 @@ public class UserServiceTest {
 
     private User testUser;
 
+    private UserSummary testSummary;
+
     @Before
     public void setUp() {
         testUser = new User("João Silva", "joao@email.com", "password123");
         testUser.setId(1L);
         testUser.setPhone("11999999999");
         testUser.setAge(30);
+        testSummary = new UserSummary(1L, "João Silva", "joao@email.com", "11999999999", 30, true,
+                LocalDateTime.now(), null);
     }
 
     @Test
     public void testCreateUser_Success() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // Act
         User result = userService.createUser(testUser);
@@ -53,14 +60,16 @@ public class UserServiceTest {
         assertNotNull(result);
         assertEquals(testUser.getName(), result.getName());
         assertEquals(testUser.getEmail(), result.getEmail());
-        verify(userRepository).existsByEmail(testUser.getEmail());
-        verify(userRepository).save(testUser);
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository).saveAndFlush(testUser);
     }
 
-    @Test(expected = IllegalArgumentException.class)
+    @Test(expected = EmailAlreadyInUseException.class)
     public void testCreateUser_EmailAlreadyExists() {
         // Arrange
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new ConstraintViolationException("Unique index or primary key violation",
+                        null, "PUBLIC.UK_USERS_EMAIL_INDEX_4")));
 
         // Act
         userService.createUser(testUser);
@@ -71,17 +80,16 @@ public class UserServiceTest {
     @Test
     public void testGetAllUsers() {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findAllSummaries()).thenReturn(Arrays.asList(testSummary));
 
         // Act
-        List<User> result = userService.getAllUsers();
+        List<UserSummary> result = userService.getAllUsers();
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testUser.getName(), result.get(0).getName());
-        verify(userRepository).findAll();
+        verify(userRepository).findAllSummaries();
     }
 
     @Test
@@ -219,46 +227,43 @@ public class UserServiceTest {
     @Test
     public void testGetActiveUsers() {
         // Arrange
-        List<User> activeUsers = Arrays.asList(testUser);
-        when(userRepository.findByActiveTrue()).thenReturn(activeUsers);
+        when(userRepository.findActiveSummaries()).thenReturn(Arrays.asList(testSummary));
 
         // Act
-        List<User> result = userService.getActiveUsers();
+        List<UserSummary> result = userService.getActiveUsers();
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(userRepository).findByActiveTrue();
+        verify(userRepository).findActiveSummaries();
     }
 
     @Test
     public void testSearchUsersByName() {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
-        when(userRepository.findByNameContainingIgnoreCase("João")).thenReturn(users);
+        when(userRepository.findSummariesByNameContainingIgnoreCase("João")).thenReturn(Arrays.asList(testSummary));
 
         // Act
-        List<User> result = userService.searchUsersByName("João");
+        List<UserSummary> result = userService.searchUsersByName("João");
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(userRepository).findByNameContainingIgnoreCase("João");
+        verify(userRepository).findSummariesByNameContainingIgnoreCase("João");
     }
 
     @Test
     public void testGetUsersByAgeRange() {
         // Arrange
-        List<User> users = Arrays.asList(testUser);
-        when(userRepository.findByAgeBetween(25, 35)).thenReturn(users);
+        when(userRepository.findSummariesByAgeBetween(25, 35)).thenReturn(Arrays.asList(testSummary));
 
         // Act
-        List<User> result = userService.getUsersByAgeRange(25, 35);
+        List<UserSummary> result = userService.getUsersByAgeRange(25, 35);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(userRepository).findByAgeBetween(25, 35);
+        verify(userRepository).findSummariesByAgeBetween(25, 35);
     }
 
     @Test
@@ -29,6 +29,7 @@ import {
 import { Link as RouterLink, useLocation } from 'react-router-dom'
 import { Link } from '@chakra-ui/react'
 import { useAuth } from '../contexts/AuthContext'
+import { useUserEvents } from '../hooks/useUserEvents'
 
 interface LayoutProps {
   children: React.ReactNode
@@ -167,6 +168,8 @@ const MobileNav = ({ onOpen }: { onOpen: () => void }) => {
 
 export const Layout: React.FC<LayoutProps> = ({ children }) => {
   const { isOpen, onOpen, onClose } = useDisclosure()
+  // Estatísticas e listas atualizadas pelo stream de eventos do servidor
+  useUserEvents()
   const isMobile = useBreakpointValue({ base: true, md: false })
 
   return (
@@ -1,6 +1,6 @@
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query'
+import { useQuery, useMutation, useQueryClient, QueryClient } from '@tanstack/react-query'
 import { userService } from '../services/api'
-import { User, CreateUserRequest, UserFilters, UserStats } from '../types/user'
+import { User, CreateUserRequest, UserChanges, UserFilters, UserStats } from '../types/user'
 import { useToast } from '@chakra-ui/react'
 
 // Query keys
@@ -15,12 +15,85 @@ export const userKeys = {
   inactive: () => [...userKeys.all, 'inactive'] as const,
 }
 
+// Marca d'água da última sincronização incremental (GET /users/changes); mantida
+// fora dos componentes para que uma reconexão busque só o que mudou nesse intervalo
+let watermark: string | null = null
+let syncing = false
+let pending = false
+
+// Aplica as alterações a uma lista ordenada por ID, mantendo só os usuários que a lista aceita
+const mergeUsers = (users: User[], changes: UserChanges, accepts: (user: User) => boolean = () => true) => {
+  const deleted = new Set(changes.deletedIds)
+  const changed = new Set(changes.users.map((user) => user.id))
+  return users
+    .filter((user) => !deleted.has(user.id) && !changed.has(user.id))
+    .concat(changes.users.filter(accepts))
+    .sort((a, b) => a.id - b.id)
+}
+
+// Listas sem filtro, de ativos e de inativos recebem as alterações no cache;
+// as filtradas dependem de critérios do servidor e são recarregadas
+const applyUserChanges = (queryClient: QueryClient, changes: UserChanges) => {
+  if (changes.users.length === 0 && changes.deletedIds.length === 0) return
+  changes.users.forEach((user) => queryClient.invalidateQueries({ queryKey: userKeys.detail(user.id) }))
+  changes.deletedIds.forEach((id) => queryClient.removeQueries({ queryKey: userKeys.detail(id) }))
+  queryClient.getQueryCache().findAll({ queryKey: userKeys.lists() }).forEach((query) => {
+    const filters = (query.queryKey[2] || {}) as UserFilters
+    if (Object.values(filters).every((value) => value === undefined)) {
+      queryClient.setQueryData<User[]>(query.queryKey, (users) => users && mergeUsers(users, changes))
+    } else {
+      queryClient.invalidateQueries({ queryKey: query.queryKey, exact: true })
+    }
+  })
+  queryClient.setQueryData<User[]>(userKeys.active(),
+    (users) => users && mergeUsers(users, changes, (user) => user.active))
+  queryClient.setQueryData<User[]>(userKeys.inactive(),
+    (users) => users && mergeUsers(users, changes, (user) => !user.active))
+}
+
+// Recarrega todas as listas e detalhes de usuários
+export const reloadUsers = (queryClient: QueryClient) => {
+  queryClient.invalidateQueries({ queryKey: userKeys.lists() })
+  queryClient.invalidateQueries({ queryKey: userKeys.details() })
+  queryClient.invalidateQueries({ queryKey: userKeys.active() })
+  queryClient.invalidateQueries({ queryKey: userKeys.inactive() })
+}
+
+// Busca as alterações desde a marca d'água e as aplica no cache, no lugar de
+// recarregar as listas inteiras; chamadas durante uma busca geram uma única busca seguinte.
+// initial: primeira conexão do stream, quando as listas acabaram de ser carregadas
+export const syncUserChanges = async (queryClient: QueryClient, initial = false) => {
+  if (syncing) {
+    pending = true
+    return
+  }
+  syncing = true
+  try {
+    do {
+      pending = false
+      const changes = await userService.getUserChanges(watermark)
+      if (changes.resync) {
+        if (!(initial && watermark === null)) reloadUsers(queryClient)
+      } else {
+        applyUserChanges(queryClient, changes)
+      }
+      watermark = changes.watermark
+    } while (pending)
+  } catch (error) {
+    console.error('Erro ao sincronizar usuários:', error)
+    reloadUsers(queryClient)
+  } finally {
+    syncing = false
+  }
+}
+
 // Hook para buscar usuários
 export const useUsers = (filters?: UserFilters) => {
   return useQuery({
     queryKey: userKeys.list(filters || {}),
     queryFn: () => userService.getUsers(filters),
-    staleTime: 5 * 60 * 1000, // 5 minutes
+    // Mantidas em dia pelas alterações incrementais (syncUserChanges), sem refetch por tempo
+    staleTime: Infinity,
   })
 }
 
@@ -39,7 +112,7 @@ export const useUserStats = () => {
     queryKey: userKeys.stats(),
     queryFn: userService.getUserStats,
     staleTime: 2 * 60 * 1000, // 2 minutes
-    refetchInterval: 30 * 1000, // Refetch every 30 seconds
+    // Sem polling: o useUserEvents atualiza os totais a cada alteração
   })
 }
 
@@ -48,7 +121,7 @@ export const useActiveUsers = () => {
   return useQuery({
     queryKey: userKeys.active(),
     queryFn: userService.getActiveUsers,
-    staleTime: 5 * 60 * 1000,
+    staleTime: Infinity,
   })
 }
 
@@ -57,7 +130,7 @@ export const useInactiveUsers = () => {
   return useQuery({
     queryKey: userKeys.inactive(),
     queryFn: userService.getInactiveUsers,
-    staleTime: 5 * 60 * 1000,
+    staleTime: Infinity,
   })
 }
 
@@ -69,8 +142,8 @@ export const useCreateUser = () => {
   return useMutation({
     mutationFn: (userData: CreateUserRequest) => userService.createUser(userData),
     onSuccess: (newUser) => {
-      // Invalidate and refetch users list
-      queryClient.invalidateQueries({ queryKey: userKeys.lists() })
+      // Apply only the changed rows to the cached lists
+      syncUserChanges(queryClient)
       queryClient.invalidateQueries({ queryKey: userKeys.stats() })
       
       toast({
@@ -104,8 +177,8 @@ export const useUpdateUser = () => {
     onSuccess: (updatedUser) => {
       // Update the specific user in cache
       queryClient.setQueryData(userKeys.detail(updatedUser.id), updatedUser)
-      // Invalidate lists to refetch
-      queryClient.invalidateQueries({ queryKey: userKeys.lists() })
+      // Apply only the changed rows to the cached lists
+      syncUserChanges(queryClient)
       queryClient.invalidateQueries({ queryKey: userKeys.stats() })
       
       toast({
@@ -138,8 +211,8 @@ export const useDeleteUser = () => {
     onSuccess: (_, deletedId) => {
       // Remove from cache
       queryClient.removeQueries({ queryKey: userKeys.detail(deletedId) })
-      // Invalidate lists
-      queryClient.invalidateQueries({ queryKey: userKeys.lists() })
+      // Apply only the changed rows to the cached lists
+      syncUserChanges(queryClient)
       queryClient.invalidateQueries({ queryKey: userKeys.stats() })
       
       toast({
@@ -170,7 +243,7 @@ export const useActivateUser = () => {
     mutationFn: (id: number) => userService.activateUser(id),
     onSuccess: (updatedUser) => {
       queryClient.setQueryData(userKeys.detail(updatedUser.id), updatedUser)
-      queryClient.invalidateQueries({ queryKey: userKeys.lists() })
+      syncUserChanges(queryClient)
       queryClient.invalidateQueries({ queryKey: userKeys.stats() })
       
       toast({
@@ -202,7 +275,7 @@ export const useDeactivateUser = () => {
     mutationFn: (id: number) => userService.deactivateUser(id),
     onSuccess: (updatedUser) => {
       queryClient.setQueryData(userKeys.detail(updatedUser.id), updatedUser)
-      queryClient.invalidateQueries({ queryKey: userKeys.lists() })
+      syncUserChanges(queryClient)
       queryClient.invalidateQueries({ queryKey: userKeys.stats() })
       
       toast({
@@ -97,7 +97,6 @@ export const StatusPage: React.FC = () => {
   } = useQuery({
     queryKey: ['health-status'],
     queryFn: fetchHealthStatus,
-    refetchInterval: 30000, // Refetch every 30 seconds
     staleTime: 10000, // Consider data stale after 10 seconds
   })
 
@@ -1,7 +1,7 @@
 import axios from 'axios'
-import { User, CreateUserRequest, UpdateUserRequest, UserStats, UserFilters } from '../types/user'
+import { User, CreateUserRequest, UpdateUserRequest, UserStats, UserFilters, UserChanges } from '../types/user'
 
-const API_BASE_URL = process.env.REACT_APP_API_URL || '/api'
+export const API_BASE_URL = process.env.REACT_APP_API_URL || '/api'
 
 const api = axios.create({
   baseURL: API_BASE_URL,
@@ -99,6 +99,12 @@ export const userService = {
     return response.data
   },
 
+  // Get users changed since the watermark (without it, only the initial watermark)
+  getUserChanges: async (since: string | null): Promise<UserChanges> => {
+    const response = await api.get('/users/changes', { params: since ? { since } : {} })
+    return response.data
+  },
+
   // Get active users
   getActiveUsers: async (): Promise<User[]> => {
     const response = await api.get('/users/active')
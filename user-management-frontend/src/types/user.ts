@@ -27,6 +27,14 @@ export interface UserStats {
   inactiveUsers: number
 }
 
+// Alterações desde uma marca d'água (GET /users/changes)
+export interface UserChanges {
+  users: User[]
+  deletedIds: number[]
+  watermark: string
+  resync: boolean
+}
+
 export interface UserFilters {
   name?: string
   minAge?: number